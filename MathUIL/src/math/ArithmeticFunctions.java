@@ -0,0 +1,184 @@
+package math;
+
+import java.util.Arrays;
+
+/**
+ * <p>Tables of the number of divisors &tau;(<i>n</i>), the sum of divisors &sigma;(<i>n</i>), and Euler's totient &phi;(<i>n</i>) for every
+ * <i>n</i> from {@code 1} to {@link #max()}, computed together in a single pass of a linear sieve. Lookups are array reads.</p>
+ *
+ * <p>The tables also answer inverse queries for &tau;, such as "every <i>n</i> at most 100 with &tau;(<i>n</i>) = 4", from an index that is
+ * built the first time such a query is made.</p>
+ *
+ * <p>{@link #upTo(int)} returns a shared instance, which is replaced by a larger one (at least double the size) when a larger number is
+ * requested. {@code ArithmeticFunctions} are safe for use by multiple concurrent threads.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ArithmeticFunctions {
+
+	/** The size of the first shared instance. */
+	private static final int MIN_SIZE = 1 << 10;
+	/** The greatest number that can be in a table. It is the same as {@link PrimeSieve#LIMIT}. */
+	public static final int LIMIT = PrimeSieve.LIMIT;
+
+	private static volatile ArithmeticFunctions shared = new ArithmeticFunctions(MIN_SIZE);
+
+	private final int max;
+	private final int[] tau, phi;
+	private final long[] sigma;
+	/** Lazily built index for {@link #withTau(int, int)}. See {@link #index(int[])}. */
+	private volatile long[] tauIndex;
+
+	/**
+	 * Returns a shared {@link ArithmeticFunctions} whose {@link #max()} is at least {@code max}.
+	 * @throws IllegalArgumentException if {@code max < 1} or {@code max > LIMIT}.
+	 */
+	public static ArithmeticFunctions upTo(final int max) {
+		checkMax(max);
+		final ArithmeticFunctions current = shared;
+		return max <= current.max ? current : grow(max);
+	}
+
+	private static synchronized ArithmeticFunctions grow(final int max) {
+		ArithmeticFunctions current = shared;
+		if(max <= current.max)
+			return current;
+		current = new ArithmeticFunctions((int) Math.min(LIMIT, Math.max(max, (long) current.max << 1)));
+		shared = current;
+		return current;
+	}
+
+	/**
+	 * Creates a new {@link ArithmeticFunctions} with tables for every number from {@code 1} to {@code max}, inclusive. Prefer the shared instance
+	 * returned by {@link #upTo(int)}.
+	 * @throws IllegalArgumentException if {@code max < 1} or {@code max > LIMIT}.
+	 */
+	public ArithmeticFunctions(final int max) {
+		checkMax(max);
+		this.max = max;
+		tau = new int[max + 1];
+		phi = new int[max + 1];
+		sigma = new long[max + 1];
+		/* For each n, the smallest prime factor p, and p^e where p^e is the largest power of p that divides n. */
+		final int[] spf = new int[max + 1], spfPower = new int[max + 1];
+		final int[] primes = new int[max + 1];
+		int count = 0;
+		tau[1] = 1;
+		phi[1] = 1;
+		sigma[1] = 1;
+		for(int i = 2; i <= max; i++) {
+			if(spf[i] == 0) {
+				spf[i] = spfPower[i] = i;
+				primes[count++] = i;
+				tau[i] = 2;
+				phi[i] = i - 1;
+				sigma[i] = i + 1L;
+			}
+			final int bound = max / i;
+			for(int j = 0; j < count; j++) {
+				final int p = primes[j];
+				if(p > spf[i] || p > bound)
+					break;
+				final int n = i * p;
+				spf[n] = p;
+				if(p < spf[i]) { //p does not divide i, so every function is multiplicative over i * p.
+					spfPower[n] = p;
+					tau[n] = tau[i] * 2;
+					phi[n] = phi[i] * (p - 1);
+					sigma[n] = sigma[i] * (p + 1);
+				}
+				else { //n = rest * p^e, where p does not divide rest.
+					final int power = spfPower[i] * p, rest = n / power;
+					spfPower[n] = power;
+					tau[n] = tau[rest] * (tau[spfPower[i]] + 1);
+					phi[n] = phi[i] * p;
+					sigma[n] = sigma[rest] * ((power * (long) p - 1) / (p - 1));
+				}
+			}
+		}
+	}
+
+	private static void checkMax(final int max) {
+		if(max < 1 || max > LIMIT)
+			throw new IllegalArgumentException(String.format("max must be between 1 and %d: %d", LIMIT, max));
+	}
+
+	/** Returns the greatest number in the tables. */
+	public int max() {
+		return max;
+	}
+
+	private int check(final int n) {
+		if(n < 1 || n > max)
+			throw new IllegalArgumentException(String.format("n must be between 1 and %d: %d", max, n));
+		return n;
+	}
+
+	/**
+	 * Returns &tau;(<i>n</i>), the number of positive divisors of {@code n}.
+	 * @throws IllegalArgumentException if {@code n < 1} or {@code n > max()}.
+	 */
+	public int tau(final int n) {
+		return tau[check(n)];
+	}
+
+	/**
+	 * Returns &sigma;(<i>n</i>), the sum of the positive divisors of {@code n}.
+	 * @throws IllegalArgumentException if {@code n < 1} or {@code n > max()}.
+	 */
+	public long sigma(final int n) {
+		return sigma[check(n)];
+	}
+
+	/**
+	 * Returns &phi;(<i>n</i>), the number of integers from {@code 1} to {@code n} that are relatively prime to {@code n}.
+	 * @throws IllegalArgumentException if {@code n < 1} or {@code n > max()}.
+	 */
+	public int phi(final int n) {
+		return phi[check(n)];
+	}
+
+	/**
+	 * Returns every <i>n</i> from {@code 1} to {@code bound}, inclusive, with &tau;(<i>n</i>) = {@code k}, in ascending order.
+	 * @throws IllegalArgumentException if {@code bound > max()}.
+	 */
+	public int[] withTau(final int k, final int bound) {
+		long[] index = tauIndex;
+		if(index == null)
+			tauIndex = index = index(tau);
+		return lookUp(index, k, bound);
+	}
+
+	/**
+	 * Returns the keys {@code values[n] * (max + 1) + n} for every {@code n} from {@code 1} to {@link #max}, sorted, so that the numbers with a
+	 * given value are contiguous and in ascending order. No key overflows, since every value is at most {@code max}.
+	 * Building the same index twice concurrently is harmless.
+	 */
+	private long[] index(final int[] values) {
+		final long[] keys = new long[max];
+		for(int n = 1; n <= max; n++)
+			keys[n - 1] = values[n] * (max + 1L) + n;
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	private int[] lookUp(final long[] index, final int value, final int bound) {
+		if(bound > max)
+			throw new IllegalArgumentException(String.format("bound must be at most %d: %d", max, bound));
+		if(value < 1 || value > max || bound < 1)
+			return new int[0];
+		final long base = value * (max + 1L);
+		final int from = insertionPoint(index, base + 1), to = insertionPoint(index, base + bound + 1);
+		final int[] result = new int[to - from];
+		for(int i = from; i < to; i++)
+			result[i - from] = (int) (index[i] - base);
+		return result;
+	}
+
+	/** Returns the index of the first key that is at least {@code key}. */
+	private static int insertionPoint(final long[] index, final long key) {
+		final int i = Arrays.binarySearch(index, key);
+		return i >= 0 ? i : -i - 1;
+	}
+
+}
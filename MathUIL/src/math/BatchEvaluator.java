@@ -0,0 +1,192 @@
+package math;
+
+import java.math.MathContext;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>Evaluates many expressions at once, in parallel, on a {@link ForkJoinPool}. Results are returned in the same order as the expressions.
+ * An expression that cannot be evaluated does not fail the batch; its {@link Result} holds the exception instead.</p>
+ *
+ * <p>Expressions given as strings go through the {@link ExpressionCache} shared with {@link Evaluator}, whose hits never lock, so a batch
+ * that repeats an expression (or repeats one evaluated earlier) only parses and evaluates it once. Each worker thread keeps its own scratch
+ * buffers for evaluating {@link ExpressionTemplate ExpressionTemplates}.</p>
+ *
+ * <p>{@code BatchEvaluators} are immutable and safe for use by multiple concurrent threads.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class BatchEvaluator {
+
+	/** Ranges of at most this many items are evaluated sequentially by a single worker. */
+	private static final int SEQUENTIAL_THRESHOLD = 32;
+	/** Operand stacks for {@link ExpressionTemplate#evaluateExact(long[], long[])}, one per worker thread, grown as needed. */
+	private static final ThreadLocal<long[]> LONG_STACKS = ThreadLocal.withInitial(() -> new long[16]);
+
+	/**
+	 * The result of evaluating one item of a batch: either a value or the exception thrown while evaluating it.
+	 * @param <T> the type of the value
+	 */
+	public static final class Result<T> {
+
+		private final T value;
+		private final RuntimeException error;
+
+		private Result(final T value, final RuntimeException error) {
+			this.value = value;
+			this.error = error;
+		}
+
+		public boolean isSuccess() {
+			return error == null;
+		}
+
+		/**
+		 * Returns the value of this result.
+		 * @throws IllegalStateException if this result is not a {@link #isSuccess() success}; the cause is the {@link #error()}.
+		 */
+		public T value() {
+			if(error != null)
+				throw new IllegalStateException("The item could not be evaluated", error);
+			return value;
+		}
+
+		/** Returns the exception thrown while evaluating the item, or {@code null} if this result is a {@link #isSuccess() success}. */
+		public RuntimeException error() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return isSuccess() ? String.valueOf(value) : "Error: " + error;
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface Item<T> {
+		T evaluate(int index);
+	}
+
+	private final ForkJoinPool pool;
+	private final MathContext resultContext;
+
+	/** Creates a new {@link BatchEvaluator} that uses the {@link ForkJoinPool#commonPool() common pool} and {@link Evaluator#DEFAULT_RESULT_CONTEXT}. */
+	public BatchEvaluator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/** Creates a new {@link BatchEvaluator} that uses the given pool and {@link Evaluator#DEFAULT_RESULT_CONTEXT}. */
+	public BatchEvaluator(final ForkJoinPool pool) {
+		this(pool, Evaluator.DEFAULT_RESULT_CONTEXT);
+	}
+
+	/**
+	 * Creates a new {@link BatchEvaluator} that uses the given pool. {@link Complex} results are rounded using {@code resultContext}.
+	 * @throws NullPointerException if either argument is {@code null}.
+	 */
+	public BatchEvaluator(final ForkJoinPool pool, final MathContext resultContext) {
+		this.pool = Objects.requireNonNull(pool);
+		this.resultContext = Objects.requireNonNull(resultContext);
+	}
+
+	public ForkJoinPool pool() {
+		return pool;
+	}
+
+	/**
+	 * Returns the result of {@link Evaluator#evaluateAsComplex(String, MathContext) evaluating} each of the given expressions, in order.
+	 * @throws NullPointerException if {@code expressions} is {@code null}.
+	 */
+	public List<Result<Complex>> evaluate(final List<String> expressions) {
+		final String[] items = expressions.toArray(new String[0]);
+		final ExpressionCache cache = Evaluator.getCache();
+		return run(items.length, i -> cache.evaluate(items[i], resultContext));
+	}
+
+	/**
+	 * Returns the result of {@link Evaluator#evaluateExact(String) evaluating} each of the given expressions exactly, in order.
+	 * @throws NullPointerException if {@code expressions} is {@code null}.
+	 */
+	public List<Result<ExactValue>> evaluateExact(final List<String> expressions) {
+		final String[] items = expressions.toArray(new String[0]);
+		final ExpressionCache cache = Evaluator.getCache();
+		return run(items.length, i -> cache.evaluateExact(items[i]));
+	}
+
+	/**
+	 * Returns the result of {@link ExpressionTemplate#evaluateExact(long...) evaluating} {@code templates[i]} with {@code bindings[i]}, for
+	 * every {@code i}, in order.
+	 * @throws IllegalArgumentException if the arrays do not have the same length.
+	 */
+	public List<Result<ExactValue>> evaluateExact(final ExpressionTemplate[] templates, final long[][] bindings) {
+		if(templates.length != bindings.length)
+			throw new IllegalArgumentException(String.format("%d templates but %d bindings", templates.length, bindings.length));
+		return run(templates.length, i -> evaluateWithScratch(templates[i], bindings[i]));
+	}
+
+	/**
+	 * Returns the result of {@link ExpressionTemplate#evaluateExact(long...) evaluating} the given template with each of the given bindings,
+	 * in order.
+	 */
+	public List<Result<ExactValue>> evaluateExact(final ExpressionTemplate template, final long[][] bindings) {
+		Objects.requireNonNull(template);
+		return run(bindings.length, i -> evaluateWithScratch(template, bindings[i]));
+	}
+
+	private static ExactValue evaluateWithScratch(final ExpressionTemplate template, final long[] bindings) {
+		long[] stack = LONG_STACKS.get();
+		if(stack.length < template.maxStackSize()) {
+			stack = new long[Math.max(template.maxStackSize(), stack.length << 1)];
+			LONG_STACKS.set(stack);
+		}
+		return template.evaluateExact(bindings, stack);
+	}
+
+	private <T> List<Result<T>> run(final int size, final Item<T> item) {
+		@SuppressWarnings({"unchecked", "rawtypes"}) //generic array creation; the array only escapes wrapped in an unmodifiable List<Result<T>>
+		final Result<T>[] results = new Result[size];
+		if(size > 0)
+			pool.invoke(new Range<>(item, results, 0, size));
+		return Collections.unmodifiableList(Arrays.asList(results));
+	}
+
+	/** Evaluates the items in {@code [from, to)}, splitting the range in half until it is at most {@link #SEQUENTIAL_THRESHOLD} items long. */
+	private static final class Range<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Item<T> item;
+		private final Result<T>[] results;
+		private final int from, to;
+
+		Range(final Item<T> item, final Result<T>[] results, final int from, final int to) {
+			this.item = item;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= SEQUENTIAL_THRESHOLD) {
+				for(int i = from; i < to; i++)
+					results[i] = evaluate(i);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new Range<>(item, results, from, mid), new Range<>(item, results, mid, to));
+		}
+
+		private Result<T> evaluate(final int index) {
+			try {
+				return new Result<>(item.evaluate(index), null);
+			}
+			catch(RuntimeException e) {
+				return new Result<>(null, e);
+			}
+		}
+
+	}
+
+}
@@ -29,6 +29,38 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	public static final BigFraction NEGATIVE_ONE = BigFraction.of(1, -1);
 	public static final BigFraction HALF = BigFraction.of(1, 2);
 	
+	/** {@link #valueOf(long, long)} caches the fractions whose numerator and denominator are at most these (in absolute value). */
+	private static final int CACHE_MAX_NUMERATOR = 64, CACHE_MAX_DENOMINATOR = 32;
+	
+	/**
+	 * {@code TABLE[d - 1][n + CACHE_MAX_NUMERATOR]} is the fraction <i>n</i>/<i>d</i> in lowest terms. Equal fractions are the same object. The
+	 * table is built when {@link #valueOf(long, long)} is first called.
+	 */
+	private static final class SmallFractions {
+		
+		static final BigFraction[][] TABLE = new BigFraction[CACHE_MAX_DENOMINATOR][2 * CACHE_MAX_NUMERATOR + 1];
+		
+		static {
+			for(int d = 1; d <= CACHE_MAX_DENOMINATOR; d++) {
+				for(int n = -CACHE_MAX_NUMERATOR; n <= CACHE_MAX_NUMERATOR; n++) {
+					final BigFraction f;
+					if(n == 0) {
+						f = ZERO;
+					}
+					else {
+						final int gcd = NumberTheory.gcd(n, d);
+						if(gcd == 1)
+							f = new BigFraction(BigInteger.valueOf(n), BigInteger.valueOf(d));
+						else //d / gcd < d, so that row is already filled.
+							f = TABLE[d / gcd - 1][n / gcd + CACHE_MAX_NUMERATOR];
+					}
+					TABLE[d - 1][n + CACHE_MAX_NUMERATOR] = f;
+				}
+			}
+		}
+		
+	}
+	
 	private static BigInteger setSign(BigInteger i, int sign) {
 		final BigInteger result;
 		if(sign == 1 && BigNumbers.isNegative(i) || sign == -1 && BigNumbers.isPositive(i))
@@ -45,7 +77,7 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	public static final BigFraction sum(final BigFraction a, final BigFraction b) {
 		if(BigNumbers.isZero(a.num)) return b;
 		if(BigNumbers.isZero(b.num)) return a;
-		final BigInteger denomGCD = BigNumbers.gcd(a.denom, b.denom); // nonnegative
+		final BigInteger denomGCD = NumberTheory.gcd(a.denom, b.denom); // nonnegative
 		BigInteger denomLCM = a.denom.multiply(b.denom).divide(denomGCD); // nonnegative
 		BigInteger numSum = setSign(a.num, a.sign).multiply(denomLCM.divide(a.denom)).add(setSign(b.num, b.sign).multiply(denomLCM.divide(b.denom))); // possibly negative
 		return BigFraction.of(numSum, denomLCM);
@@ -97,6 +129,20 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	}
 	
 	public static final BigFraction of(final long numerator, final long denominator) {
+		return valueOf(numerator, denominator);
+	}
+	
+	/**
+	 * Returns the fraction {@code numerator / denominator} in lowest terms. Fractions with small numerators and denominators are cached, so
+	 * repeated calls with the same small arguments do not allocate.
+	 * @throws ArithmeticException if {@code denominator} is {@code 0}.
+	 */
+	public static BigFraction valueOf(final long numerator, final long denominator) {
+		if(denominator != 0 && Math.abs(numerator) <= CACHE_MAX_NUMERATOR && Math.abs(denominator) <= CACHE_MAX_DENOMINATOR
+				&& numerator != Long.MIN_VALUE && denominator != Long.MIN_VALUE) {
+			final int n = (int) (denominator < 0 ? -numerator : numerator), d = (int) Math.abs(denominator);
+			return SmallFractions.TABLE[d - 1][n + CACHE_MAX_NUMERATOR];
+		}
 		return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
 	}
 	
@@ -235,7 +281,7 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	 */
 	private BigFraction(final BigInteger numerator, final BigInteger denominator, final int signum) {
 		final BigInteger na = numerator.abs(), da = denominator.abs();
-		final BigInteger gcd = numerator == BigInteger.ZERO ? BigInteger.ONE : BigNumbers.gcd(na, da);
+		final BigInteger gcd = numerator == BigInteger.ZERO ? BigInteger.ONE : NumberTheory.gcd(na, da);
 		this.sign = signum;
 		num = na.divide(gcd);
 		denom = da.divide(gcd);
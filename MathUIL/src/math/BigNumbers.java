@@ -10,6 +10,13 @@ public class BigNumbers {
 	
 	private BigNumbers() {}
 	
+	/** The number of extra digits of precision used for the intermediate results of {@link #root(BigDecimal, int, MathContext)} and {@link #ln}. */
+	private static final int GUARD_DIGITS = 10;
+	private static final BigDecimal TWO = BigDecimal.valueOf(2);
+	private static final double LN_2 = Math.log(2), LOG2_10 = Math.log(10) / LN_2;
+	/** The number of bits in the significand of a {@code double}. */
+	private static final int DOUBLE_PRECISION = 53;
+	
 	public static boolean isInteger(BigDecimal bd) {
 		 return bd.stripTrailingZeros().scale() <= 0;
 	}
@@ -41,17 +48,106 @@ public class BigNumbers {
 	public static BigInteger gcd(BigInteger a, BigInteger b) {
 		if(isZero(a) || isZero(b))
 			throw new IllegalArgumentException("numbers cannot be zero");
-		if(b.compareTo(a) > 0) {
-			BigInteger temp = a;
-			a = b;
-			b = temp;
+		return NumberTheory.gcd(a, b);
+	}
+	
+	/**
+	 * Returns the largest integer whose {@code n}th power is at most {@code a}.
+	 * @throws ArithmeticException if {@code a} is negative or {@code n} is not positive.
+	 */
+	public static BigInteger floorRoot(final BigInteger a, final int n) {
+		if(a.signum() < 0 || n <= 0)
+			throw new ArithmeticException(String.format("Cannot take root %d of %s", n, a));
+		if(n == 1 || a.signum() == 0)
+			return a;
+		if(n == 2)
+			return a.sqrt();
+		if(n >= a.bitLength())
+			return BigInteger.ONE;
+		final BigInteger bigN = BigInteger.valueOf(n), nMinusOne = BigInteger.valueOf(n - 1);
+		BigInteger x = BigInteger.ONE.shiftLeft((a.bitLength() + n - 1) / n); //at least the root; Newton's method decreases it to the floor.
+		while(true) {
+			final BigInteger y = x.multiply(nMinusOne).add(a.divide(x.pow(n - 1))).divide(bigN);
+			if(y.compareTo(x) >= 0)
+				return x;
+			x = y;
 		}
-		while(a.compareTo(b) != 0) {
-			if(a.compareTo(b) > 0)
-				a = a.subtract(b);
-			else
-				b = b.subtract(a);
+	}
+	
+	/**
+	 * Returns the {@code n}th root of {@code a} if {@code a} is a perfect {@code n}th power, otherwise {@code null}.
+	 * @throws ArithmeticException if {@code a} is negative or {@code n} is not positive.
+	 */
+	public static BigInteger rootExact(final BigInteger a, final int n) {
+		final BigInteger root = floorRoot(a, n);
+		return root.pow(n).equals(a) ? root : null;
+	}
+	
+	/**
+	 * Returns the real {@code n}th root of {@code x}, rounded using the given {@link MathContext}. The root is found with Newton's method,
+	 * starting from a {@code double} estimate.
+	 * @throws ArithmeticException if {@code x} is negative or {@code n} is not positive.
+	 */
+	public static BigDecimal root(final BigDecimal x, final int n, final MathContext mc) {
+		if(x.signum() < 0 || n <= 0)
+			throw new ArithmeticException(String.format("Cannot take root %d of %s", n, x));
+		if(x.signum() == 0)
+			return BigDecimal.ZERO;
+		if(n == 1)
+			return x.round(mc);
+		if(n == 2)
+			return x.sqrt(mc);
+		final MathContext work = new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+		/* x = m * 10^e with 1 <= m < 10. Split e = k + r with k a multiple of n, so that the root is 10^(k/n) * (m * 10^r)^(1/n). */
+		final int e = x.precision() - x.scale() - 1;
+		final int k = Math.floorDiv(e, n) * n, r = e - k;
+		final double m = x.scaleByPowerOfTen(-e).doubleValue();
+		BigDecimal y = new BigDecimal(Math.pow(10, (Math.log10(m) + r) / n)).scaleByPowerOfTen(k / n).round(work);
+		final BigDecimal bigN = BigDecimal.valueOf(n), nMinusOne = BigDecimal.valueOf(n - 1);
+		/* The estimate has about 15 correct digits, and each iteration doubles that. */
+		for(int digits = 15; digits < 2 * work.getPrecision(); digits <<= 1)
+			y = y.multiply(nMinusOne, work).add(x.divide(y.pow(n - 1, work), work), work).divide(bigN, work);
+		return y.round(mc);
+	}
+	
+	/**
+	 * Returns the natural logarithm of {@code x}, rounded using the given {@link MathContext}. {@code x} is written as
+	 * <i>m</i>&middot;2<sup><i>k</i></sup> with <i>m</i> close to {@code 1}, and ln(<i>m</i>) is found from the series for
+	 * 2&middot;atanh((<i>m</i>-1)/(<i>m</i>+1)).
+	 * @throws ArithmeticException if {@code x} is not positive.
+	 */
+	public static BigDecimal ln(final BigDecimal x, final MathContext mc) {
+		if(x.signum() <= 0)
+			throw new ArithmeticException("Cannot take the logarithm of " + x);
+		if(x.compareTo(BigDecimal.ONE) == 0)
+			return BigDecimal.ZERO;
+		final long k = Math.round(log(x.unscaledValue()) / LN_2 - x.scale() * LOG2_10);
+		final MathContext work = new MathContext(mc.getPrecision() + GUARD_DIGITS + Long.toString(Math.abs(k)).length(), RoundingMode.HALF_EVEN);
+		final BigDecimal twoToK = new BigDecimal(BigInteger.ONE.shiftLeft(Math.toIntExact(Math.abs(k))));
+		final BigDecimal m = k >= 0 ? x.divide(twoToK, work) : x.multiply(twoToK, work);
+		final BigDecimal lnM = atanh(m.subtract(BigDecimal.ONE).divide(m.add(BigDecimal.ONE), work), work).multiply(TWO, work);
+		if(k == 0)
+			return lnM.round(mc);
+		final BigDecimal ln2 = atanh(BigDecimal.ONE.divide(BigDecimal.valueOf(3), work), work).multiply(TWO, work);
+		return lnM.add(ln2.multiply(BigDecimal.valueOf(k), work), work).round(mc);
+	}
+	
+	/** Returns atanh({@code z}) from its Taylor series. {@code |z|} should be well below {@code 1}. */
+	private static BigDecimal atanh(final BigDecimal z, final MathContext mc) {
+		final BigDecimal z2 = z.multiply(z, mc), threshold = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 2);
+		BigDecimal sum = z, power = z;
+		for(int d = 3; ; d += 2) {
+			power = power.multiply(z2, mc);
+			final BigDecimal term = power.divide(BigDecimal.valueOf(d), mc);
+			if(term.abs().compareTo(threshold) < 0)
+				return sum;
+			sum = sum.add(term, mc);
 		}
-		return a;
+	}
+	
+	/** Returns an approximation of the natural logarithm of {@code a}, which must be positive, as a {@code double}. */
+	static double log(final BigInteger a) {
+		final int shift = Math.max(0, a.bitLength() - DOUBLE_PRECISION);
+		return Math.log(a.shiftRight(shift).doubleValue()) + shift * LN_2;
 	}
 }
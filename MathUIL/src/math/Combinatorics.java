@@ -0,0 +1,171 @@
+package math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * <p>Factorials, permutations, and combinations, with {@code long} fast paths for results that fit in a {@code long}. The methods whose names end in
+ * {@code Exact} return a {@code long} and throw an {@link ArithmeticException} if the result does not fit in one.</p>
+ *
+ * <p>Factorials are memoized in a table that is grown on demand and is safe for use by multiple concurrent threads: reads do not lock, and the
+ * table is only ever replaced (never modified once published) by a synchronized method, so readers see either the old table or the new one.
+ * Every combination that fits in a {@code long} is read from a precomputed table of the rows of Pascal's triangle.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class Combinatorics {
+
+	/** The largest {@code n} such that {@code n!} fits in a {@code long}. */
+	public static final int LONG_MAX_FACTORIAL = 20;
+	/** The largest {@code n} such that every {@code C(n, r)} fits in a {@code long}. C(67, 33) is the smallest combination that does not. */
+	public static final int LONG_MAX_PASCAL_ROW = 66;
+
+	/** The initial size of the table of {@link BigInteger} factorials. */
+	private static final int MIN_FACTORIALS = 32;
+
+	private static final long[] LONG_FACTORIALS = new long[LONG_MAX_FACTORIAL + 1];
+	/** {@code factorials[n]} is {@code n!}. */
+	private static volatile BigInteger[] factorials;
+
+	static {
+		LONG_FACTORIALS[0] = 1;
+		for(int n = 1; n <= LONG_MAX_FACTORIAL; n++)
+			LONG_FACTORIALS[n] = LONG_FACTORIALS[n - 1] * n;
+		final BigInteger[] table = new BigInteger[MIN_FACTORIALS];
+		for(int n = 0; n < MIN_FACTORIALS; n++)
+			table[n] = n <= LONG_MAX_FACTORIAL ? BigInteger.valueOf(LONG_FACTORIALS[n]) : table[n - 1].multiply(BigInteger.valueOf(n));
+		factorials = table;
+	}
+
+	private Combinatorics() {}
+
+	/** The rows of Pascal's triangle that fit in a {@code long}. {@code ROWS[n][r]} is {@code C(n, r)}. */
+	private static final class Pascal {
+
+		static final long[][] ROWS = new long[LONG_MAX_PASCAL_ROW + 1][];
+
+		static {
+			for(int n = 0; n <= LONG_MAX_PASCAL_ROW; n++) {
+				final long[] row = ROWS[n] = new long[n + 1];
+				row[0] = row[n] = 1;
+				for(int r = 1; r < n; r++)
+					row[r] = ROWS[n - 1][r - 1] + ROWS[n - 1][r];
+			}
+		}
+
+	}
+
+	private static void checkFactorial(final int n) {
+		if(n < 0)
+			throw new ArithmeticException("Cannot take the factorial of a negative number: " + n);
+	}
+
+	private static void checkArguments(final int n, final int r) {
+		if(n < 0 || r < 0 || r > n)
+			throw new IllegalArgumentException(String.format("Invalid arguments: n=%d, r=%d", n, r));
+	}
+
+	/**
+	 * Returns {@code n!}.
+	 * @throws ArithmeticException if {@code n} is negative.
+	 */
+	public static BigInteger factorial(final int n) {
+		checkFactorial(n);
+		final BigInteger[] table = factorials;
+		return n < table.length ? table[n] : growFactorials(n)[n];
+	}
+
+	private static synchronized BigInteger[] growFactorials(final int n) {
+		BigInteger[] table = factorials;
+		if(n < table.length)
+			return table;
+		final int oldLength = table.length;
+		table = Arrays.copyOf(table, Math.max(n + 1, oldLength << 1));
+		for(int i = oldLength; i < table.length; i++)
+			table[i] = table[i - 1].multiply(BigInteger.valueOf(i));
+		factorials = table;
+		return table;
+	}
+
+	/**
+	 * Returns {@code n!}.
+	 * @throws ArithmeticException if {@code n} is negative or {@code n!} does not fit in a {@code long}.
+	 */
+	public static long factorialExact(final int n) {
+		checkFactorial(n);
+		if(n > LONG_MAX_FACTORIAL)
+			throw new ArithmeticException(String.format("%d! overflows a long", n));
+		return LONG_FACTORIALS[n];
+	}
+
+	/**
+	 * Returns P(<i>n</i>, <i>r</i>) = <i>n</i>! / (<i>n</i> - <i>r</i>)!, the number of ordered arrangements of {@code r} of {@code n} items.
+	 * @throws IllegalArgumentException if {@code n < 0}, {@code r < 0}, or {@code r > n}.
+	 */
+	public static BigInteger nPr(final int n, final int r) {
+		checkArguments(n, r);
+		long product = 1;
+		int i = n - r + 1;
+		for(; i <= n; i++) {
+			final long next = product * i;
+			if(Math.multiplyHigh(product, i) != 0 || next < 0)
+				break;
+			product = next;
+		}
+		if(i > n)
+			return BigInteger.valueOf(product);
+		BigInteger result = BigInteger.valueOf(product);
+		for(; i <= n; i++)
+			result = result.multiply(BigInteger.valueOf(i));
+		return result;
+	}
+
+	/**
+	 * Returns P(<i>n</i>, <i>r</i>), as described in {@link #nPr(int, int)}.
+	 * @throws IllegalArgumentException if {@code n < 0}, {@code r < 0}, or {@code r > n}.
+	 * @throws ArithmeticException if the result does not fit in a {@code long}.
+	 */
+	public static long nPrExact(final int n, final int r) {
+		checkArguments(n, r);
+		long product = 1;
+		for(int i = n - r + 1; i <= n; i++)
+			product = Math.multiplyExact(product, i);
+		return product;
+	}
+
+	/**
+	 * Returns C(<i>n</i>, <i>r</i>) = <i>n</i>! / (<i>r</i>!(<i>n</i> - <i>r</i>)!), the number of ways to choose {@code r} of {@code n} items.
+	 * @throws IllegalArgumentException if {@code n < 0}, {@code r < 0}, or {@code r > n}.
+	 */
+	public static BigInteger nCr(final int n, int r) {
+		checkArguments(n, r);
+		if(n <= LONG_MAX_PASCAL_ROW)
+			return BigInteger.valueOf(Pascal.ROWS[n][r]);
+		r = Math.min(r, n - r);
+		/* After step i, the result is C(n - r + i, i). */
+		BigInteger result = BigInteger.ONE;
+		for(int i = 1; i <= r; i++)
+			result = result.multiply(BigInteger.valueOf(n - r + i)).divide(BigInteger.valueOf(i));
+		return result;
+	}
+
+	/**
+	 * Returns C(<i>n</i>, <i>r</i>), as described in {@link #nCr(int, int)}.
+	 * @throws IllegalArgumentException if {@code n < 0}, {@code r < 0}, or {@code r > n}.
+	 * @throws ArithmeticException if the result does not fit in a {@code long}.
+	 */
+	public static long nCrExact(final int n, int r) {
+		checkArguments(n, r);
+		if(n <= LONG_MAX_PASCAL_ROW)
+			return Pascal.ROWS[n][r];
+		r = Math.min(r, n - r);
+		/* After step i, the result is C(n - r + i, i). Dividing out the GCD first keeps the intermediate product exact and as small as possible. */
+		long result = 1;
+		for(int i = 1; i <= r; i++) {
+			final long g = NumberTheory.gcd(result, i);
+			result = Math.multiplyExact(result / g, (n - r + i) / (i / g));
+		}
+		return result;
+	}
+
+}
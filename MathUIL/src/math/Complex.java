@@ -15,9 +15,47 @@ public class Complex {
 	
 	public static final Complex ZERO = new Complex(0);
 	public static final Complex ONE = new Complex(1);
+	/** The imaginary unit, <i>i</i>. */
+	public static final Complex I = new Complex(BigDecimal.ZERO, BigDecimal.ONE);
 	
 	private static final MathContext POWER_CONTEXT = new MathContext(32);
 	
+	/**
+	 * The integers from {@link #LOW} to {@link #HIGH} (inclusive), created when {@link #valueOf(long)} is first called. The bounds can be set with
+	 * the system properties {@code math.Complex.cache.low} and {@code math.Complex.cache.high}.
+	 */
+	private static final class SmallIntegers {
+		
+		static final int LOW = Integer.getInteger("math.Complex.cache.low", -128), HIGH = Integer.getInteger("math.Complex.cache.high", 1024);
+		static final Complex[] CACHE = new Complex[Math.max(0, HIGH - LOW + 1)];
+		
+		static {
+			for(int i = 0; i < CACHE.length; i++)
+				CACHE[i] = new Complex(BigDecimal.valueOf(LOW + i));
+		}
+		
+	}
+	
+	/**
+	 * Returns a {@link Complex} with the given real part and no imaginary part. Small integers (by default, those from {@code -128} to
+	 * {@code 1024}) are cached, so this method should be preferred to {@link #Complex(long)}.
+	 */
+	public static Complex valueOf(final long a) {
+		if(a >= SmallIntegers.LOW && a <= SmallIntegers.HIGH)
+			return SmallIntegers.CACHE[(int) (a - SmallIntegers.LOW)];
+		return new Complex(a);
+	}
+	
+	/**
+	 * Returns {@code n!}, computed with {@code long} arithmetic if it fits in a {@code long}.
+	 * @throws ArithmeticException if {@code n} is negative.
+	 */
+	static Complex factorial(final int n) {
+		if(n <= Combinatorics.LONG_MAX_FACTORIAL)
+			return valueOf(Combinatorics.factorialExact(n));
+		return new Complex(Combinatorics.factorial(n));
+	}
+	
 	/**
 	 * The "a" in "a + bi"
 	 */
@@ -26,6 +64,11 @@ public class Complex {
 	 * The "b" in "a + bi"
 	 */
 	private final BigDecimal b;
+	/**
+	 * {@code true} if and only if {@link #b} is zero. Nearly every {@link Complex} is real, so most operations check this first and, if both
+	 * operands are real, do only the work for the real part.
+	 */
+	private final boolean real;
 	
 	/**
 	 * The "a" and "b" parameters are those in the rectangular form "a + bi"
@@ -33,6 +76,7 @@ public class Complex {
 	public Complex(final BigDecimal a, final BigDecimal b) {
 		this.a = Objects.requireNonNull(a);
 		this.b = Objects.requireNonNull(b);
+		this.real = b.signum() == 0;
 	}
 	
 	/**
@@ -48,6 +92,7 @@ public class Complex {
 	public Complex(final BigInteger a, final BigInteger b) {
 		this.a = Objects.requireNonNull(new BigDecimal(a));
 		this.b = Objects.requireNonNull(new BigDecimal(b));
+		this.real = b.signum() == 0;
 	}
 	
 	/**
@@ -114,6 +159,7 @@ public class Complex {
 				b = BigDecimal.ZERO;
 			}
 		}
+		real = b.signum() == 0;
 	}
 
 	@Override
@@ -146,14 +192,20 @@ public class Complex {
 			return false;
 		}
 		Complex other = (Complex) obj;
+		if(real || other.real)
+			return real == other.real && a.compareTo(other.a) == 0;
 		return a.compareTo(other.a) == 0 && b.compareTo(other.b) == 0;
 	}
 	
 	public Complex add(Complex augend) {
+		if(real && augend.real)
+			return new Complex(a.add(augend.a));
 		return new Complex(realPart().add(augend.realPart()), imaginaryPart().add(augend.imaginaryPart()));
 	}
 	
 	public Complex add(Complex augend, MathContext mc) {
+		if(real && augend.real)
+			return new Complex(a.add(augend.a, mc));
 		return new Complex(realPart().add(augend.realPart(), mc), imaginaryPart().add(augend.imaginaryPart(), mc));
 	}
 	
@@ -164,10 +216,14 @@ public class Complex {
 	}
 	
 	public Complex subtract(Complex subtrahend) {
+		if(real && subtrahend.real)
+			return new Complex(a.subtract(subtrahend.a));
 		return new Complex(realPart().subtract(subtrahend.realPart()), imaginaryPart().subtract(subtrahend.imaginaryPart()));
 	}
 	
 	public Complex subtract(Complex subtrahend, MathContext mc) {
+		if(real && subtrahend.real)
+			return new Complex(a.subtract(subtrahend.a, mc));
 		return new Complex(realPart().subtract(subtrahend.realPart(), mc), imaginaryPart().subtract(subtrahend.imaginaryPart(), mc));
 	}
 	
@@ -176,6 +232,8 @@ public class Complex {
 	 * Returns the quotient of {@code this} and the given complex number.
 	 */
 	public Complex divide(Complex divisor, MathContext mc) {
+		if(divisor.real)
+			return divide(divisor.a, mc);
 		Complex dCon = divisor.conjugate(mc);
 		BigDecimal div = divisor.abs2AsBigDecimal(mc);
 		return multiply(dCon, mc).divide(div, mc);
@@ -185,36 +243,50 @@ public class Complex {
 	 * Returns the quotient of {@code this} and the given real number.
 	 */
 	public Complex divide(BigDecimal divisor, MathContext mc) {
+		if(real)
+			return new Complex(a.divide(divisor, mc));
 		return new Complex(realPart().divide(divisor, mc), imaginaryPart().divide(divisor, mc));
 	}
 	
 	public Complex multiply(int multiplicand) {
 		final BigDecimal multiplicandAsBigDecimal = BigDecimal.valueOf(multiplicand);
+		if(real)
+			return new Complex(a.multiply(multiplicandAsBigDecimal));
 		return new Complex(realPart().multiply(multiplicandAsBigDecimal), imaginaryPart().multiply(multiplicandAsBigDecimal));
 	}
 	
 	public Complex multiply(int multiplicand, MathContext mc) {
 		final BigDecimal multiplicandAsBigDecimal = BigDecimal.valueOf(multiplicand).round(mc);
+		if(real)
+			return new Complex(a.multiply(multiplicandAsBigDecimal, mc));
 		return new Complex(realPart().multiply(multiplicandAsBigDecimal, mc), imaginaryPart().multiply(multiplicandAsBigDecimal, mc));
 	}
 	
 	public Complex multiply(Complex multiplicand) {
+		if(this.real && multiplicand.real)
+			return new Complex(a.multiply(multiplicand.a));
 		BigDecimal real = realPart().multiply(multiplicand.realPart()).subtract(imaginaryPart().multiply(multiplicand.imaginaryPart()));
 		BigDecimal im = realPart().multiply(multiplicand.imaginaryPart()).add(imaginaryPart().multiply(multiplicand.realPart()));
 		return new Complex(real, im);
 	}
 	
 	public Complex multiply(Complex multiplicand, MathContext mc) {
+		if(this.real && multiplicand.real)
+			return new Complex(a.multiply(multiplicand.a, mc));
 		BigDecimal real = realPart().multiply(multiplicand.realPart(), mc).subtract(imaginaryPart().multiply(multiplicand.imaginaryPart(), mc), mc);
 		BigDecimal im = realPart().multiply(multiplicand.imaginaryPart(), mc).add(imaginaryPart().multiply(multiplicand.realPart(), mc), mc);
 		return new Complex(real, im);
 	}
 	
 	public Complex negate() {
+		if(real)
+			return new Complex(a.negate());
 		return new Complex(realPart().negate(), imaginaryPart().negate());
 	}
 	
 	public Complex negate(MathContext mc) {
+		if(real)
+			return new Complex(a.negate(mc));
 		return new Complex(realPart().negate(mc), imaginaryPart().negate(mc));
 	}
 	
@@ -222,6 +294,8 @@ public class Complex {
 	 * Returns the complex conjugate of {@code this}.
 	 */
 	public Complex conjugate() {
+		if(real)
+			return this;
 		return new Complex(realPart(), imaginaryPart().negate());
 	}
 	
@@ -229,6 +303,8 @@ public class Complex {
 	 * Returns the complex conjugate of {@code this}.
 	 */
 	public Complex conjugate(MathContext mc) {
+		if(real)
+			return this;
 		return new Complex(realPart(), imaginaryPart().negate(mc));
 	}
 	
@@ -239,6 +315,8 @@ public class Complex {
 	
 	/** Returns the absolute value of this complex number. */
 	private BigDecimal absAsBigDecimal(MathContext mc) {
+		if(real)
+			return a.abs(mc);
 		return (realPart().pow(2, mc).add(imaginaryPart().pow(2, mc))).sqrt(mc);
 	}
 	
@@ -249,6 +327,8 @@ public class Complex {
 	
 	/** Returns the square of the absolute value of this complex number. */
 	public BigDecimal abs2AsBigDecimal(MathContext mc) {
+		if(real)
+			return a.multiply(a, mc);
 		return realPart().multiply(realPart(), mc).add(imaginaryPart().multiply(imaginaryPart(), mc), mc);
 	}
 	
@@ -300,11 +380,77 @@ public class Complex {
 	    return c.multiply(sq.multiply(sq)); 
 	} 
 	
+	/**
+	 * Returns the principal square root of this complex number, which is the square root with a nonnegative real part (and, if the real part
+	 * is zero, a nonnegative imaginary part).
+	 */
+	public Complex sqrt(final MathContext mc) {
+		if(!hasImaginaryPart()) {
+			if(BigNumbers.isNegative(a))
+				return new Complex(BigDecimal.ZERO, a.negate().sqrt(mc));
+			return new Complex(a.sqrt(mc));
+		}
+		/* r = sqrt((|z| + |a|) / 2) is the larger part of the root; the smaller one is b / (2r), which avoids cancellation. */
+		final BigDecimal r = absAsBigDecimal(mc).add(a.abs(), mc).divide(BigDecimal.valueOf(2), mc).sqrt(mc);
+		final BigDecimal other = b.divide(r.multiply(BigDecimal.valueOf(2), mc), mc);
+		if(a.signum() >= 0)
+			return new Complex(r, other);
+		return new Complex(other.abs(), b.signum() < 0 ? r.negate() : r);
+	}
+	
+	/**
+	 * Returns the {@code index}th root of this complex number. The index must be a positive integer. If the index is {@code 2}, this
+	 * method is equivalent to {@link #sqrt(MathContext)}; otherwise this number must be real, and the real root is returned.
+	 * @throws ArithmeticException if the index is not a positive integer, or if there is no real root.
+	 */
+	public Complex root(final Complex index, final MathContext mc) {
+		if(!index.hasExactIntValue() || index.realPart().signum() <= 0 || index.realPart().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0)
+			throw new ArithmeticException(String.format("The index of a root must be a positive integer: %s", index));
+		final int n = index.intValueExact();
+		if(n == 2)
+			return sqrt(mc);
+		if(hasImaginaryPart() || BigNumbers.isNegative(a) && n % 2 == 0)
+			throw new ArithmeticException(String.format("%s has no real root of index %d", this, n));
+		if(BigNumbers.isNegative(a))
+			return new Complex(BigNumbers.root(a.negate(), n, mc).negate());
+		return new Complex(BigNumbers.root(a, n, mc));
+	}
+	
+	/**
+	 * Returns the logarithm of this number with the given base. This number and the base must be positive real numbers, and the base must
+	 * not be {@code 1}.
+	 * @throws ArithmeticException if the logarithm is not a real number.
+	 */
+	public Complex log(final Complex base, final MathContext mc) {
+		if(hasImaginaryPart() || base.hasImaginaryPart() || a.signum() <= 0 || base.a.signum() <= 0 || base.a.compareTo(BigDecimal.ONE) == 0)
+			throw new ArithmeticException(String.format("Cannot take the logarithm of %s with base %s", this, base));
+		final MathContext work = new MathContext(mc.getPrecision() + 2, mc.getRoundingMode());
+		return new Complex(BigNumbers.ln(a, work).divide(BigNumbers.ln(base.a, work), mc));
+	}
+	
+	/**
+	 * Returns {@code this} modulo {@code divisor}. Both numbers must be real. Unlike {@link #remainder(Complex)}, the result has the same sign as
+	 * the divisor, as in {@link Math#floorMod(long, long)}.
+	 * @throws ArithmeticException if either number has an imaginary part, or if {@code divisor} is zero.
+	 */
+	public Complex mod(final Complex divisor, final MathContext mc) {
+		if(hasImaginaryPart() || divisor.hasImaginaryPart())
+			throw new ArithmeticException(String.format("Cannot find %s mod %s", this, divisor));
+		if(divisor.isZero())
+			throw new ArithmeticException("Division by zero");
+		final BigDecimal remainder = a.remainder(divisor.a);
+		if(remainder.signum() != 0 && remainder.signum() != divisor.a.signum())
+			return new Complex(remainder.add(divisor.a, mc));
+		return new Complex(remainder);
+	}
+	
 	/**
 	 * Returns a {@link Complex} with the {@link #realPart()} and {@link #imaginaryPart()} rounded using the given {@link MathContext}
 	 * via {@link BigDecimal#round(MathContext)}.
 	 */
 	public Complex round(MathContext resultContext) {
+		if(real)
+			return new Complex(a.round(resultContext));
 		return new Complex(realPart().round(resultContext), imaginaryPart().round(resultContext));
 	}
 	
@@ -321,11 +467,11 @@ public class Complex {
 	}
 	
 	public boolean hasImaginaryPart() {
-		return imaginaryPart().compareTo(BigDecimal.ZERO) != 0;
+		return !real;
 	}
 	
 	public boolean isZero() {
-		return realPart().compareTo(BigDecimal.ZERO) == 0 && imaginaryPart().compareTo(BigDecimal.ZERO) == 0;
+		return real && a.signum() == 0;
 	}
 	
 	/**
@@ -351,7 +497,7 @@ public class Complex {
 	}
 	
 	public boolean hasExactIntValue() {
-		return !hasImaginaryPart() && BigNumbers.isInteger(a);
+		return real && BigNumbers.isInteger(a);
 	}
 	
 	public int intValueExact() {
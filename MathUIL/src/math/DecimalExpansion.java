@@ -0,0 +1,209 @@
+package math;
+
+import java.math.BigInteger;
+
+/**
+ * <p>The expansion of a {@link BigFraction} in a {@link Radix}: an integral part, followed after the radix point by a (possibly empty)
+ * <i>pre-period</i> of digits that occur once and a (possibly empty) <i>period</i> of digits that repeat forever. For example, one sixth in
+ * radix 10 is {@code 0.1(6)}, which has the pre-period {@code 1} and the period {@code 6}. That is also the format of {@link #toString()} and
+ * {@link #parse(String, int)}.</p>
+ *
+ * <p>If the value is <i>n</i>/<i>d</i> in lowest terms and <i>d</i> = <i>d</i><sub>1</sub><i>d</i><sub>2</sub>, where every prime factor of
+ * <i>d</i><sub>1</sub> divides the radix <i>r</i> and <i>d</i><sub>2</sub> is relatively prime to <i>r</i>, then the length of the pre-period
+ * is the number of digits that <i>n</i>/<i>d</i><sub>1</sub> needs in radix <i>r</i> (see {@link Radix#fractionDigits(BigInteger)}), and
+ * the length of the period is the multiplicative order of <i>r</i> modulo <i>d</i><sub>2</sub>. The order is found by factoring the
+ * Carmichael function &lambda;(<i>d</i><sub>2</sub>), which it divides, with {@link PrimeSieve}, so the lengths are known without generating
+ * any digits. The digits themselves are computed with one {@link BigInteger} division, never one digit at a time, and only when asked for.</p>
+ *
+ * <p>The period can only be computed if <i>d</i><sub>2</sub> is at most {@link Integer#MAX_VALUE}. {@code DecimalExpansions} are immutable
+ * and safe for use by multiple concurrent threads.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class DecimalExpansion {
+
+	private final BigFraction value;
+	private final Radix radix;
+	/** The integral part and the numerator of the fractional part of the magnitude of the value. The fractional part is less than one. */
+	private final BigInteger integralPart, numerator;
+	private final int preperiodLength, periodLength;
+	/** The digits of the pre-period and the period, computed when they are first asked for. */
+	private String preperiod, period;
+
+	private DecimalExpansion(final BigFraction value, final Radix radix) {
+		this.value = value;
+		this.radix = radix;
+		final BigInteger denominator = value.getDenominator();
+		final BigInteger[] qr = value.getNumerator().divideAndRemainder(denominator);
+		integralPart = qr[0];
+		numerator = qr[1];
+		final BigInteger bigRadix = BigInteger.valueOf(radix.radix());
+		BigInteger coprime = denominator;
+		for(BigInteger g = coprime.gcd(bigRadix); !g.equals(BigInteger.ONE); g = coprime.gcd(bigRadix))
+			coprime = coprime.divide(g);
+		preperiodLength = radix.fractionDigits(denominator.divide(coprime));
+		if(coprime.equals(BigInteger.ONE))
+			periodLength = 0;
+		else if(coprime.bitLength() < Integer.SIZE)
+			periodLength = multiplicativeOrder(radix.radix(), coprime.intValue());
+		else
+			throw new ArithmeticException(String.format("The period of %s in radix %d is too long to compute", value, radix.radix()));
+	}
+
+	/**
+	 * Returns the expansion of {@code value} in the given radix.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported, as described in {@link Radix#of(int)}.
+	 * @throws ArithmeticException if the period cannot be computed, as described in the {@link DecimalExpansion class documentation}.
+	 */
+	public static DecimalExpansion of(final BigFraction value, final int radix) {
+		return new DecimalExpansion(value, Radix.of(radix));
+	}
+
+	/**
+	 * Returns the expansion written in {@code s}, in the format of {@link #toString()}: a {@link Radix#isNumber(CharSequence) number} in the
+	 * given radix, optionally followed by a period in parentheses, which requires the number to have a radix point. The expansion returned is
+	 * in lowest terms, so its {@link #toString()} is not necessarily {@code s}: {@code 0.1(66)} is {@code 0.1(6)}.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported, as described in {@link Radix#of(int)}.
+	 * @throws NumberFormatException if {@code s} is not in the format described above.
+	 */
+	public static DecimalExpansion parse(final String s, final int radix) {
+		final int open = s.indexOf('(');
+		if(open < 0)
+			return of(Radix.of(radix).parse(s), radix);
+		if(!s.endsWith(")") || s.lastIndexOf('.', open) < 0)
+			throw new NumberFormatException(String.format("Not a repeating number in radix %d: %s", radix, s));
+		return of(valueOf(s.substring(0, open), s.substring(open + 1, s.length() - 1), radix), radix);
+	}
+
+	/**
+	 * Returns the value of the number written {@code terminatingPart} followed by {@code repeatingPart} repeated forever, in the given radix.
+	 * For example, {@code valueOf("1.2", "3", 10)} is {@code 1.2333...}, which is {@code 37/30}.
+	 * @param terminatingPart a {@link Radix#isNumber(CharSequence) number} in the given radix.
+	 * @param repeatingPart one or more digits in the given radix.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported, as described in {@link Radix#of(int)}.
+	 * @throws NumberFormatException if either part is not in the format described above.
+	 */
+	public static BigFraction valueOf(final String terminatingPart, final String repeatingPart, final int radix) {
+		final Radix r = Radix.of(radix);
+		if(repeatingPart.isEmpty() || repeatingPart.charAt(0) == '-' || !r.isInteger(repeatingPart))
+			throw new NumberFormatException(String.format("Not a repeating part in radix %d: %s", radix, repeatingPart));
+		final boolean negative = terminatingPart.startsWith("-");
+		final String magnitude = negative ? terminatingPart.substring(1) : terminatingPart;
+		if(magnitude.startsWith("-"))
+			throw new NumberFormatException(String.format("Not a number in radix %d: %s", radix, terminatingPart));
+		final int point = magnitude.indexOf('.');
+		final int digitsAfterPoint = point < 0 ? 0 : magnitude.length() - point - 1;
+		/* 0.(p) = p / (r^L - 1), where L is the length of p, and the repeating part begins after the digits of the terminating part. */
+		final BigInteger denominator = r.pow(digitsAfterPoint).multiply(r.pow(repeatingPart.length()).subtract(BigInteger.ONE));
+		final BigFraction result = r.parse(magnitude).add(BigFraction.of(r.parseInteger(repeatingPart), denominator));
+		return negative ? result.negate() : result;
+	}
+
+	/**
+	 * Returns the multiplicative order of {@code r} modulo {@code m}, the least positive <i>k</i> such that <i>r<sup>k</sup></i> &equiv; 1
+	 * (mod <i>m</i>). {@code r} and {@code m} must be relatively prime, and {@code m} must be greater than one.
+	 */
+	static int multiplicativeOrder(final int r, final int m) {
+		final PrimeSieve.Factorization factorization = PrimeSieve.factor(m);
+		long lambda = 1;
+		for(int i = 0; i < factorization.size(); i++) {
+			final int p = factorization.prime(i), e = factorization.exponent(i);
+			final long primePowerLambda;
+			if(p == 2)
+				primePowerLambda = 1L << (e < 3 ? e - 1 : e - 2);
+			else
+				primePowerLambda = (p - 1) * (long) Math.pow(p, e - 1);
+			lambda = NumberTheory.lcm(lambda, primePowerLambda);
+		}
+		/* lambda < m, and the order divides it. Remove each prime factor of lambda from the order for as long as r^order stays 1. */
+		int order = (int) lambda;
+		final PrimeSieve.Factorization lambdaFactorization = PrimeSieve.factor(order);
+		final long residue = r % m;
+		for(int i = 0; i < lambdaFactorization.size(); i++) {
+			final int q = lambdaFactorization.prime(i);
+			for(int k = 0; k < lambdaFactorization.exponent(i) && Modular.pow(residue, order / q, m) == 1; k++)
+				order /= q;
+		}
+		return order;
+	}
+
+	public BigFraction value() {
+		return value;
+	}
+
+	public int radix() {
+		return radix.radix();
+	}
+
+	public boolean isNegative() {
+		return value.isNegative();
+	}
+
+	/** Returns the integral part of the magnitude of the value. */
+	public BigInteger integralPart() {
+		return integralPart;
+	}
+
+	/** Returns {@code true} if the {@link #period()} is empty. */
+	public boolean terminates() {
+		return periodLength == 0;
+	}
+
+	public int preperiodLength() {
+		return preperiodLength;
+	}
+
+	/** Returns the length of the {@link #period()}, which is {@code 0} if the expansion {@link #terminates() terminates}. */
+	public int periodLength() {
+		return periodLength;
+	}
+
+	/** Returns the digits after the radix point that do not repeat. */
+	public String preperiod() {
+		String p = preperiod;
+		if(p == null)
+			preperiod = p = digits(preperiodLength);
+		return p;
+	}
+
+	/** Returns the digits that repeat forever after the {@link #preperiod()}, or the empty string if the expansion terminates. */
+	public String period() {
+		String p = period;
+		if(p == null)
+			period = p = digits(preperiodLength + periodLength).substring(preperiodLength);
+		return p;
+	}
+
+	/**
+	 * Returns the first {@code count} digits after the radix point, so that the value truncated to {@code count} places is
+	 * {@link #integralPart()}{@code .digits(count)}.
+	 * @throws IllegalArgumentException if {@code count} is negative.
+	 */
+	public String digits(final int count) {
+		if(count < 0)
+			throw new IllegalArgumentException("count must be nonnegative: " + count);
+		if(count == 0)
+			return "";
+		final String digits = radix.toString(numerator.multiply(radix.pow(count)).divide(value.getDenominator()));
+		return digits.length() >= count ? digits : "0".repeat(count - digits.length()) + digits;
+	}
+
+	/**
+	 * Returns this expansion in the format described in the {@link DecimalExpansion class documentation}, with the period in parentheses. The
+	 * radix point is omitted if the value is an integer.
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		if(isNegative())
+			sb.append('-');
+		sb.append(radix.toString(integralPart));
+		if(preperiodLength > 0 || periodLength > 0) {
+			sb.append('.').append(preperiod());
+			if(periodLength > 0)
+				sb.append('(').append(period()).append(')');
+		}
+		return sb.toString();
+	}
+
+}
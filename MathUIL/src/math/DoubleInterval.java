@@ -0,0 +1,285 @@
+package math;
+
+import java.math.*;
+
+/**
+ * <p>A closed interval of real numbers with {@code double} bounds, used by {@link Evaluator#evaluateApproximate(String, BigDecimal)}. Every
+ * operation rounds its bounds outward by one ulp, so the exact result of the operation on any values in the operand intervals is guaranteed to lie
+ * in the resulting interval. {@link #add(DoubleInterval) Sums}, {@link #subtract(DoubleInterval) differences}, {@link #multiply(DoubleInterval)
+ * products} and {@link #divide(DoubleInterval) quotients} whose {@code double} bounds are exact are not rounded, so integer arithmetic on
+ * {@link #isSingleInteger() single integers} stays single (as long as it is exact in a {@code double}).</p>
+ *
+ * <p>An operation whose result cannot be bounded (for example, division by an interval containing zero, or a power of a negative base) returns
+ * {@link #ENTIRE}, which makes every operation that uses it return {@code ENTIRE} too. {@code DoubleIntervals} are immutable.</p>
+ * @author Sam Hooper
+ *
+ */
+final class DoubleInterval {
+
+	/** The interval containing every real number. */
+	static final DoubleInterval ENTIRE = new DoubleInterval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	static final DoubleInterval ZERO = new DoubleInterval(0, 0);
+	/** Returned by {@link #signum()}, and by {@link Evaluator.Expression#evalSignum()}, if a sign cannot be determined. */
+	static final int UNKNOWN_SIGNUM = 2;
+
+	/** The largest argument whose factorial is a finite {@code double}. */
+	private static final int MAX_DOUBLE_FACTORIAL = 170;
+	/** {@link Math#pow(double, double)} and {@link Math#log(double)} are accurate to within this many ulps. */
+	private static final int POW_ULPS = 1, LOG_ULPS = 1;
+	/**
+	 * The relative error allowed for in {@link #root(DoubleInterval)}. Besides the error of {@link Math#pow(double, double)}, the root is off
+	 * by the error in the exponent {@code 1.0 / n}, which is magnified by at most {@code |ln(x)| < 710}, for a total well under 2<sup>-40</sup>.
+	 */
+	private static final double ROOT_TOLERANCE = 0x1p-40;
+
+	private final double lo, hi;
+
+	private DoubleInterval(final double lo, final double hi) {
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	/** Returns {@link #ENTIRE} if either bound is {@code NaN} or infinite. */
+	private static DoubleInterval of(final double lo, final double hi) {
+		if(!Double.isFinite(lo) || !Double.isFinite(hi))
+			return ENTIRE;
+		return new DoubleInterval(lo, hi);
+	}
+
+	/** Returns {@code [nextDown(lo), nextUp(hi)]}. */
+	private static DoubleInterval outward(final double lo, final double hi) {
+		return of(Math.nextDown(lo), Math.nextUp(hi));
+	}
+
+	/** Returns the smallest interval containing the given real number. */
+	static DoubleInterval of(final BigDecimal value) {
+		final double d = value.doubleValue();
+		if(Double.isFinite(d) && new BigDecimal(d).compareTo(value) == 0)
+			return new DoubleInterval(d, d);
+		return outward(d, d);
+	}
+
+	/** Returns the smallest interval containing the real part of the given {@link Complex} number, or {@link #ENTIRE} if it has an imaginary part. */
+	static DoubleInterval of(final Complex value) {
+		return value.hasImaginaryPart() ? ENTIRE : of(value.realPart());
+	}
+
+	double lo() {
+		return lo;
+	}
+
+	double hi() {
+		return hi;
+	}
+
+	boolean isEntire() {
+		return this == ENTIRE;
+	}
+
+	boolean containsZero() {
+		return lo <= 0 && hi >= 0;
+	}
+
+	/** Returns {@code true} if this interval holds exactly one integer value and nothing else. */
+	boolean isSingleInteger() {
+		return lo == hi && lo == Math.rint(lo);
+	}
+
+	/** Returns {@code true} if this interval {@link #isSingleInteger() holds exactly one integer} and it fits in a {@code long}. */
+	boolean isSingleLong() {
+		return isSingleInteger() && Math.abs(lo) < 0x1p63;
+	}
+
+	/** Returns {@code -1}, {@code 0}, or {@code 1} if every number in this interval has that sign, otherwise {@link #UNKNOWN_SIGNUM}. */
+	int signum() {
+		if(lo > 0)
+			return 1;
+		if(hi < 0)
+			return -1;
+		return lo == 0 && hi == 0 ? 0 : UNKNOWN_SIGNUM;
+	}
+
+	double midpoint() {
+		return lo == hi ? lo : lo / 2 + hi / 2;
+	}
+
+	/**
+	 * Returns {@code true} if every number in this interval is within {@code tolerance} (as a fraction, so {@code 0.05} is 5%) of every other
+	 * number in it. An interval that is exactly {@code [0, 0]} is within any tolerance; any other interval containing zero is not.
+	 */
+	boolean isWithinRelativeTolerance(final double tolerance) {
+		if(isEntire())
+			return false;
+		if(lo == 0 && hi == 0)
+			return true;
+		if(containsZero())
+			return false;
+		return hi - lo <= tolerance * Math.min(Math.abs(lo), Math.abs(hi));
+	}
+
+	DoubleInterval add(final DoubleInterval o) {
+		final double lo = this.lo + o.lo, hi = this.hi + o.hi;
+		if(isExactSum(this.lo, o.lo, lo) && isExactSum(this.hi, o.hi, hi))
+			return of(lo, hi);
+		return outward(lo, hi);
+	}
+
+	DoubleInterval subtract(final DoubleInterval o) {
+		return add(o.negate());
+	}
+
+	DoubleInterval multiply(final DoubleInterval o) {
+		final double a = lo * o.lo, b = lo * o.hi, c = hi * o.lo, d = hi * o.hi;
+		final double min = Math.min(Math.min(a, b), Math.min(c, d)), max = Math.max(Math.max(a, b), Math.max(c, d));
+		if(isExactProduct(lo, o.lo, a) && isExactProduct(lo, o.hi, b) && isExactProduct(hi, o.lo, c) && isExactProduct(hi, o.hi, d))
+			return of(min, max);
+		return outward(min, max);
+	}
+
+	DoubleInterval divide(final DoubleInterval o) {
+		if(o.containsZero())
+			return ENTIRE;
+		final double a = lo / o.lo, b = lo / o.hi, c = hi / o.lo, d = hi / o.hi;
+		final double min = Math.min(Math.min(a, b), Math.min(c, d)), max = Math.max(Math.max(a, b), Math.max(c, d));
+		if(isExactProduct(a, o.lo, lo) && isExactProduct(b, o.hi, lo) && isExactProduct(c, o.lo, hi) && isExactProduct(d, o.hi, hi))
+			return of(min, max);
+		return outward(min, max);
+	}
+
+	/** Returns {@code true} if {@code sum}, the rounded value of {@code x + y}, is exact. This is Knuth's TwoSum error term. */
+	private static boolean isExactSum(final double x, final double y, final double sum) {
+		final double yVirtual = sum - x;
+		return (x - (sum - yVirtual)) + (y - yVirtual) == 0;
+	}
+
+	/** Returns {@code true} if {@code x * y} is exactly {@code product}. A {@code NaN} or infinite argument is never exact. */
+	private static boolean isExactProduct(final double x, final double y, final double product) {
+		return Math.fma(x, y, -product) == 0;
+	}
+
+	/**
+	 * Integer powers are computed by repeated squaring. Other powers are only bounded if this interval is strictly positive, in which case
+	 * {@link Math#pow(double, double)} is monotonic in each argument, so the bounds are found among the four corners.
+	 */
+	DoubleInterval pow(final DoubleInterval power) {
+		if(isEntire() || power.isEntire())
+			return ENTIRE;
+		if(power.isSingleInteger() && Math.abs(power.lo) <= Integer.MAX_VALUE) {
+			final long n = (long) power.lo;
+			final DoubleInterval result = powi(Math.abs(n));
+			return n < 0 ? new DoubleInterval(1, 1).divide(result) : result;
+		}
+		if(lo <= 0)
+			return ENTIRE;
+		final double a = Math.pow(lo, power.lo), b = Math.pow(lo, power.hi), c = Math.pow(hi, power.lo), d = Math.pow(hi, power.hi);
+		return outward(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)), POW_ULPS);
+	}
+	
+	/** Returns {@code [lo, hi]} rounded outward by {@code ulps} ulps in addition to the usual one. */
+	private static DoubleInterval outward(double lo, double hi, final int ulps) {
+		for(int i = 0; i < ulps; i++) {
+			lo = Math.nextDown(lo);
+			hi = Math.nextUp(hi);
+		}
+		return outward(lo, hi);
+	}
+
+	private DoubleInterval powi(long n) {
+		DoubleInterval result = new DoubleInterval(1, 1), base = this;
+		while(true) {
+			if((n & 1) != 0)
+				result = result.multiply(base);
+			n >>>= 1;
+			if(n == 0 || result.isEntire())
+				return result;
+			base = base.multiply(base);
+		}
+	}
+
+	DoubleInterval negate() {
+		return of(-hi, -lo);
+	}
+
+	DoubleInterval abs() {
+		if(lo >= 0)
+			return this;
+		if(hi <= 0)
+			return negate();
+		return of(0, Math.max(-lo, hi));
+	}
+
+	/** Only bounded if this interval is a single integer between {@code 0} and {@code 170} (inclusive). */
+	DoubleInterval factorial() {
+		if(!isSingleInteger() || lo < 0 || lo > MAX_DOUBLE_FACTORIAL)
+			return ENTIRE;
+		return of(new BigDecimal(Combinatorics.factorial((int) lo)));
+	}
+
+	DoubleInterval percent() {
+		return outward(lo / 100, hi / 100);
+	}
+	
+	/** Only bounded if this interval is nonnegative. */
+	DoubleInterval sqrt() {
+		if(lo < 0)
+			return ENTIRE;
+		return outward(Math.sqrt(lo), Math.sqrt(hi));
+	}
+	
+	/**
+	 * Only bounded if {@code index} is a single positive integer, and, if it is even, this interval is nonnegative. The root of a negative number
+	 * with an odd index is negative.
+	 */
+	DoubleInterval root(final DoubleInterval index) {
+		if(!index.isSingleInteger() || index.lo < 1 || index.lo > Integer.MAX_VALUE)
+			return ENTIRE;
+		final int n = (int) index.lo;
+		if(n == 1)
+			return this;
+		if(n == 2)
+			return sqrt();
+		if(lo < 0 && n % 2 == 0)
+			return ENTIRE;
+		final double min = realRoot(lo, n), max = realRoot(hi, n);
+		return outward(min - Math.abs(min) * ROOT_TOLERANCE, max + Math.abs(max) * ROOT_TOLERANCE);
+	}
+	
+	private static double realRoot(final double x, final int n) {
+		return Math.copySign(Math.pow(Math.abs(x), 1.0 / n), x);
+	}
+	
+	/** Returns the natural logarithm of this interval, which is only bounded if this interval is positive. */
+	private DoubleInterval ln() {
+		if(lo <= 0)
+			return ENTIRE;
+		return outward(Math.log(lo), Math.log(hi), LOG_ULPS);
+	}
+	
+	/** Returns the logarithm of this interval with the given base. Only bounded if both intervals are positive and {@code base} excludes {@code 1}. */
+	DoubleInterval log(final DoubleInterval base) {
+		if(isEntire() || base.isEntire())
+			return ENTIRE;
+		return ln().divide(base.ln());
+	}
+	
+	/**
+	 * Returns this interval modulo {@code divisor}, as in {@link Math#floorMod(long, long)}. Only bounded if {@code divisor} excludes zero and the
+	 * quotient of every value in this interval and every value in {@code divisor} has the same floor <i>q</i>, in which case the result is
+	 * {@code this - divisor * q}.
+	 */
+	DoubleInterval mod(final DoubleInterval divisor) {
+		if(isEntire() || divisor.containsZero())
+			return ENTIRE;
+		final DoubleInterval quotient = divide(divisor);
+		final double q = Math.floor(quotient.lo);
+		if(quotient.isEntire() || q != Math.floor(quotient.hi))
+			return ENTIRE;
+		return subtract(divisor.multiply(new DoubleInterval(q, q)));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("[%s, %s]", lo, hi);
+	}
+
+}
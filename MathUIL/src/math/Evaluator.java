@@ -2,8 +2,9 @@ package math;
 
 import java.math.*;
 import java.util.*;
-import java.util.function.*;
-import java.util.regex.*;
+import java.util.function.Function;
+
+import utils.IntList;
 
 /**
  * @author Sam Hooper
@@ -11,82 +12,69 @@ import java.util.regex.*;
  */
 public class Evaluator {
 	
-	private enum Associativity {
-		LEFT, RIGHT, BOTH;
-		
-		public boolean isLeft() {
-			return this == LEFT || this == BOTH;
-		}
-		
-		public boolean isRight() {
-			return this == RIGHT || this == BOTH;
-		}
-		
-	}
 	public static final MathContext DEFAULT_RESULT_CONTEXT = new MathContext(16, RoundingMode.HALF_UP);
 	
-	private static final MathContext INTERMEDIATE_MATH_CONTEXT = new MathContext(32, RoundingMode.HALF_UP);
-	private static final Map<String, Integer> binaryPrecedence;
-	private static final Map<String, Integer> unaryPrecedence;
-	private static final Map<String, Associativity> binaryAssociativities;
-	private static final Map<String, Associativity> unaryAssociativities;
-	private static final Map<String, BiFunction<Expression, Expression, BinaryOperator>> binaryFactories;
-	private static final Map<String, Function<Expression, UnaryOperator>> unaryFactories;
-	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
-	private static final char DECIMAL_POINT = '.';
+	static final MathContext INTERMEDIATE_MATH_CONTEXT = new MathContext(32, RoundingMode.HALF_UP);
+	private static final char DECIMAL_POINT = '.', IMAGINARY_UNIT = 'i';
+	private static final char OPEN_PARENTHESIS = '(', CLOSE_PARENTHESIS = ')', ABSOLUTE_VALUE_BAR = '|', ARGUMENT_SEPARATOR = ',';
+	private static final ExpressionCache CACHE = new ExpressionCache();
 	
-	static {
+	interface Expression {
 		
-		binaryPrecedence = new HashMap<>();
-		unaryPrecedence = new HashMap<>();
-		binaryFactories = new HashMap<>();
-		unaryFactories = new HashMap<>();
-		binaryAssociativities = new HashMap<>();
-		unaryAssociativities = new HashMap<>();
+		Complex eval();
 		
-		putBinaryOperator("+", 1, Associativity.BOTH, AdditionOperation::new);
-		putBinaryOperator("-", 1, Associativity.LEFT, SubtractionOperation::new);
-		putBinaryOperator("*", 2, Associativity.BOTH, MultiplicationOperation::new);
-		putBinaryOperator("/", 2, Associativity.LEFT, DivisionOperation::new);
-		putBinaryOperator("^", 1, Associativity.RIGHT, ExponentiationOperation::new);
+		/** Evaluates this expression using the narrowest exact {@link ExactValue.Tier} that can hold each intermediate value. */
+		ExactValue evalExact();
+		
+		/**
+		 * Evaluates this expression in {@code double} interval arithmetic. The exact value of this expression is guaranteed to lie in the returned
+		 * interval. Returns {@link DoubleInterval#ENTIRE} if the value cannot be bounded this way (for example, if it may have an imaginary part).
+		 */
+		DoubleInterval evalInterval();
+		
+		/**
+		 * Returns the value of this expression modulo {@code modulus}, which must be positive, as described in {@link Math#floorMod(long, long)}.
+		 * Only the residue is computed, with {@link Modular} arithmetic, never the value itself. Exponents and the arguments of factorials must be
+		 * integers that {@link #evalInterval()} determines exactly.
+		 * @throws ArithmeticException if this expression is not built from integers with addition, subtraction, multiplication, nonnegative
+		 * integer powers, negation, absolute values, and factorials.
+		 */
+		default long evalModulo(final long modulus) {
+			throw new ArithmeticException("Cannot be evaluated in modular arithmetic: " + this);
+		}
+		
+		/**
+		 * Returns the sign of the value of this expression ({@code -1}, {@code 0}, or {@code 1}), determined from the signs of its operands where
+		 * possible and from {@link #evalInterval()} otherwise, or {@link DoubleInterval#UNKNOWN_SIGNUM} if it cannot be determined that way.
+		 */
+		default int evalSignum() {
+			return evalInterval().signum();
+		}
 		
-		putUnaryOperator("-", 2, Associativity.RIGHT, UnaryMinus::new);
-		putUnaryOperator("+", 2, Associativity.RIGHT, UnaryPlus::new);
-		putUnaryOperator("!", 4, Associativity.LEFT, Factorial::new);
-		putUnaryOperator("%", 5, Associativity.LEFT, Percent::new);
-	}
-	
-	private static void putBinaryOperator(final String op, final int precedence, final Associativity associativity, final BiFunction<Expression, Expression, BinaryOperator> factory) {
-		binaryPrecedence.put(op, precedence);
-		binaryAssociativities.put(op, associativity);
-		binaryFactories.put(op, factory);
-	}
-	
-	private static void putUnaryOperator(final String op, final int precedence, final Associativity associativity, final Function<Expression, UnaryOperator> factory) {
-		unaryPrecedence.put(op, precedence);
-		unaryAssociativities.put(op, associativity);
-		unaryFactories.put(op, factory);
-	}
-	
-	interface Expression {
-		Complex eval();
 	}
 	
+	/** An operator or function registered in {@link Operators}. Everything about it is looked up by its {@link #opcode()}. */
 	interface HasOperator {
 		
-		String getOperator();
+		/** Returns the {@link Operators} opcode of this operator. */
+		int opcode();
 		
-		int getPrecendence();
+		default String getOperator() {
+			return Operators.symbol(opcode());
+		}
 		
-		Associativity getAssociativity();
+		default int getPrecendence() {
+			return Operators.precedence(opcode());
+		}
 		
 		default boolean isLeftAssociative() {
-			return getAssociativity().isLeft();
+			return Operators.isLeftAssociative(opcode());
 		}
 		
 		default boolean isRightAssociative() {
-			return getAssociativity().isRight();
+			return Operators.isRightAssociative(opcode());
 		}
+		
 	}
 	
 	abstract static class BinaryOperator implements Expression, HasOperator {
@@ -98,20 +86,10 @@ public class Evaluator {
 			this.right = right;
 		}
 		
-		@Override
-		public final int getPrecendence() {
-			return binaryPrecedence.get(getOperator());
-		}
-		
 		@Override
 		public String toString() {
 			return "(" + left + getOperator() + right + ")";
 		}
-
-		@Override
-		public Associativity getAssociativity() {
-			return binaryAssociativities.get(getOperator());
-		}
 		
 	}
 	
@@ -152,8 +130,8 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "+";
+		public int opcode() {
+			return Operators.ADD;
 		}
 		
 		@Override
@@ -161,6 +139,27 @@ public class Evaluator {
 			return left.eval().add(right.eval(), INTERMEDIATE_MATH_CONTEXT);
 		}
 		
+		@Override
+		public ExactValue evalExact() {
+			return left.evalExact().add(right.evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return left.evalInterval().add(right.evalInterval());
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.add(left.evalModulo(modulus), right.evalModulo(modulus), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			final int signum = signumOfSum(left.evalSignum(), right.evalSignum());
+			return signum != DoubleInterval.UNKNOWN_SIGNUM ? signum : evalInterval().signum();
+		}
+		
 	}
 	
 	static class SubtractionOperation extends AdditiveExpression {
@@ -170,8 +169,8 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "-";
+		public int opcode() {
+			return Operators.SUBTRACT;
 		}
 		
 		@Override
@@ -179,6 +178,27 @@ public class Evaluator {
 			return left.eval().subtract(right.eval(), INTERMEDIATE_MATH_CONTEXT);
 		}
 		
+		@Override
+		public ExactValue evalExact() {
+			return left.evalExact().subtract(right.evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return left.evalInterval().subtract(right.evalInterval());
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.subtract(left.evalModulo(modulus), right.evalModulo(modulus), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			final int signum = signumOfSum(left.evalSignum(), negateSignum(right.evalSignum()));
+			return signum != DoubleInterval.UNKNOWN_SIGNUM ? signum : evalInterval().signum();
+		}
+		
 	}
 	
 	static class MultiplicationOperation extends MultiplicativeExpression {
@@ -193,8 +213,28 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "*";
+		public ExactValue evalExact() {
+			return left.evalExact().multiply(right.evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return left.evalInterval().multiply(right.evalInterval());
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.multiply(left.evalModulo(modulus), right.evalModulo(modulus), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			return signumOfProduct(left.evalSignum(), right.evalSignum());
+		}
+		
+		@Override
+		public int opcode() {
+			return Operators.MULTIPLY;
 		}
 		
 	}
@@ -211,8 +251,18 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "/";
+		public ExactValue evalExact() {
+			return left.evalExact().divide(right.evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return left.evalInterval().divide(right.evalInterval());
+		}
+		
+		@Override
+		public int opcode() {
+			return Operators.DIVIDE;
 		}
 		
 	}
@@ -229,25 +279,41 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "^";
+		public ExactValue evalExact() {
+			return left.evalExact().pow(right.evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return left.evalInterval().pow(right.evalInterval());
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.pow(left.evalModulo(modulus), exactExponent(right.evalInterval()), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			final DoubleInterval exponent = right.evalInterval();
+			return exponent.isSingleLong() ? signumOfPower(left.evalSignum(), (long) exponent.lo()) : evalInterval().signum();
+		}
+		
+		@Override
+		public int opcode() {
+			return Operators.POWER;
 		}
 		
 	}
 	
 	abstract static class UnaryOperator implements Expression, HasOperator {
 		
-		Expression expr;
+		final Expression expr;
 		
 		public UnaryOperator(Expression expr) {
 			this.expr = expr;
 		}
 		
-		@Override
-		public final int getPrecendence() {
-			return unaryPrecedence.get(getOperator());
-		}
-		
 		@Override
 		public String toString() {
 			if(isLeftAssociative())
@@ -255,11 +321,6 @@ public class Evaluator {
 			else
 				return "(" + getOperator() + expr + ")";
 		}
-
-		@Override
-		public Associativity getAssociativity() {
-			return unaryAssociativities.get(getOperator());
-		}
 		
 	}
 	
@@ -270,8 +331,8 @@ public class Evaluator {
 		}
 
 		@Override
-		public String getOperator() {
-			return "-";
+		public int opcode() {
+			return Operators.NEGATE;
 		}
 
 		@Override
@@ -279,6 +340,26 @@ public class Evaluator {
 			return expr.eval().negate(INTERMEDIATE_MATH_CONTEXT);
 		}
 		
+		@Override
+		public ExactValue evalExact() {
+			return expr.evalExact().negate(INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return expr.evalInterval().negate();
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.negate(expr.evalModulo(modulus), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			return negateSignum(expr.evalSignum());
+		}
+		
 	}
 	
 	static class UnaryPlus extends UnaryOperator{
@@ -288,8 +369,8 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "+";
+		public int opcode() {
+			return Operators.IDENTITY;
 		}
 		
 		@Override
@@ -297,6 +378,26 @@ public class Evaluator {
 			return expr.eval();
 		}
 		
+		@Override
+		public ExactValue evalExact() {
+			return expr.evalExact();
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return expr.evalInterval();
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return expr.evalModulo(modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			return expr.evalSignum();
+		}
+		
 	}
 	
 	static class AbsoluteValueOperator extends UnaryOperator {
@@ -306,14 +407,40 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "|";
+		public int opcode() {
+			return Operators.ABSOLUTE_VALUE;
 		}
 
 		@Override
 		public Complex eval() {
 			return expr.eval().abs(INTERMEDIATE_MATH_CONTEXT);
 		}
+		
+		@Override
+		public ExactValue evalExact() {
+			return expr.evalExact().abs(INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return expr.evalInterval().abs();
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			final long residue = expr.evalModulo(modulus);
+			switch(expr.evalSignum()) {
+				case 1: case 0: return residue;
+				case -1: return Modular.negate(residue, modulus);
+				default: throw new ArithmeticException("Cannot determine the sign of " + expr);
+			}
+		}
+		
+		@Override
+		public int evalSignum() {
+			final int signum = expr.evalSignum();
+			return signum == DoubleInterval.UNKNOWN_SIGNUM ? signum : Math.abs(signum);
+		}
 
 		@Override
 		public String toString() {
@@ -329,13 +456,33 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "!";
+		public int opcode() {
+			return Operators.FACTORIAL;
 		}
 		
 		@Override
 		public Complex eval() {
-			return new Complex(Utils.factorial(expr.eval().intValueExact()));
+			return Complex.factorial(expr.eval().intValueExact());
+		}
+		
+		@Override
+		public ExactValue evalExact() {
+			return expr.evalExact().factorial();
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return expr.evalInterval().factorial();
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return Modular.factorial(exactInteger(expr.evalInterval()), modulus);
+		}
+		
+		@Override
+		public int evalSignum() {
+			return 1;
 		}
 		
 	}
@@ -349,8 +496,8 @@ public class Evaluator {
 		}
 		
 		@Override
-		public String getOperator() {
-			return "%";
+		public int opcode() {
+			return Operators.PERCENT;
 		}
 		
 		@Override
@@ -358,80 +505,272 @@ public class Evaluator {
 			return expr.eval().divide(B100, INTERMEDIATE_MATH_CONTEXT);
 		}
 		
+		@Override
+		public ExactValue evalExact() {
+			return expr.evalExact().percent(INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return expr.evalInterval().percent();
+		}
+		
 	}
 	
-	static class ConstantExpression implements Expression {
+	/** A call to one of the functions registered in {@link Operators}, such as {@code sqrt(x)}. */
+	abstract static class FunctionCall implements Expression, HasOperator {
 		
-		private final Complex constant;
+		final Expression[] args;
 		
-		public ConstantExpression(Complex constant) {
-			this.constant = constant;
+		public FunctionCall(final Expression... args) {
+			this.args = args;
+		}
+		
+		@Override
+		public String toString() {
+			final StringJoiner joiner = new StringJoiner(", ", getOperator() + "(", ")");
+			for(final Expression arg : args)
+				joiner.add(arg.toString());
+			return joiner.toString();
+		}
+		
+	}
+	
+	static class SquareRoot extends FunctionCall {
+		
+		public SquareRoot(final Expression radicand) {
+			super(radicand);
+		}
+		
+		@Override
+		public int opcode() {
+			return Operators.SQRT;
 		}
 		
 		@Override
 		public Complex eval() {
-			return constant;
+			return args[0].eval().sqrt(INTERMEDIATE_MATH_CONTEXT);
 		}
 		
 		@Override
-		public String toString() {
-			return constant.toString();
+		public ExactValue evalExact() {
+			return args[0].evalExact().sqrt(INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return args[0].evalInterval().sqrt();
 		}
 		
 	}
 	
-	private enum TokenType {
-		OPERATOR, UNARY_OPERATOR, BINARY_OPERATOR, OPEN_PARENTHESIS, CLOSE_PARENTHESIS, ABSOLUTE_VALUE_BAR, CLOSE_ABSOLUTE_VALUE_BAR, OPEN_ABSOLUTE_VALUE_BAR, NUMBER;
+	static class NthRoot extends FunctionCall {
 		
-		public boolean isOperator() {
-			return this == UNARY_OPERATOR || this == BINARY_OPERATOR || this == OPERATOR;
+		public NthRoot(final Expression index, final Expression radicand) {
+			super(index, radicand);
 		}
 		
-		public boolean isParenthesis() {
-			return this == OPEN_PARENTHESIS || this == CLOSE_PARENTHESIS;
+		@Override
+		public int opcode() {
+			return Operators.ROOT;
 		}
 		
-		public boolean isOpeningSeparator() {
-			return this == OPEN_ABSOLUTE_VALUE_BAR || this == OPEN_PARENTHESIS;
+		@Override
+		public Complex eval() {
+			return args[1].eval().root(args[0].eval(), INTERMEDIATE_MATH_CONTEXT);
 		}
 		
-		public boolean isClosingSeparator() {
-			return this == CLOSE_ABSOLUTE_VALUE_BAR || this == CLOSE_PARENTHESIS;
+		@Override
+		public ExactValue evalExact() {
+			return args[1].evalExact().root(args[0].evalExact(), INTERMEDIATE_MATH_CONTEXT);
 		}
 		
-		public boolean isAbsoluteValueBar() {
-			return this == OPEN_ABSOLUTE_VALUE_BAR || this == CLOSE_ABSOLUTE_VALUE_BAR || this == ABSOLUTE_VALUE_BAR;
+		@Override
+		public DoubleInterval evalInterval() {
+			return args[1].evalInterval().root(args[0].evalInterval());
 		}
+		
 	}
 	
-	private static class Token {
+	static class Logarithm extends FunctionCall {
+		
+		public Logarithm(final Expression base, final Expression argument) {
+			super(base, argument);
+		}
 		
-		private TokenType type;
-		private final String representation;
+		@Override
+		public int opcode() {
+			return Operators.LOG;
+		}
+		
+		@Override
+		public Complex eval() {
+			return args[1].eval().log(args[0].eval(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public ExactValue evalExact() {
+			return args[1].evalExact().log(args[0].evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return args[1].evalInterval().log(args[0].evalInterval());
+		}
+		
+	}
+	
+	static class Modulo extends FunctionCall {
 		
-		public Token(final String representation, final TokenType type) {
-			this.representation = representation;
-			this.type = type;
+		public Modulo(final Expression dividend, final Expression divisor) {
+			super(dividend, divisor);
 		}
 		
-		public void setType(final TokenType newType) {
-			this.type = newType;
+		@Override
+		public int opcode() {
+			return Operators.MOD;
 		}
 		
-		public TokenType getType() {
-			return type;
+		@Override
+		public Complex eval() {
+			return args[0].eval().mod(args[1].eval(), INTERMEDIATE_MATH_CONTEXT);
 		}
 		
-		public String getRepresentation() {
-			return representation;
+		@Override
+		public ExactValue evalExact() {
+			return args[0].evalExact().mod(args[1].evalExact(), INTERMEDIATE_MATH_CONTEXT);
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return args[0].evalInterval().mod(args[1].evalInterval());
+		}
+		
+	}
+	
+	/**
+	 * A call to a function registered with {@link Evaluator#registerFunction(String, int, Function)}. Its result is treated like a constant
+	 * written in the expression, so it is exact if it is a real number with a terminating decimal expansion. It cannot be bounded by
+	 * {@link #evalInterval()}, nor evaluated in modular arithmetic.
+	 */
+	static class RegisteredFunctionCall extends FunctionCall {
+		
+		private final int opcode;
+		
+		public RegisteredFunctionCall(final int opcode, final Expression... args) {
+			super(args);
+			this.opcode = opcode;
+		}
+		
+		@Override
+		public int opcode() {
+			return opcode;
+		}
+		
+		@Override
+		public Complex eval() {
+			final Complex[] values = new Complex[args.length];
+			for(int i = 0; i < values.length; i++)
+				values[i] = args[i].eval();
+			return Operators.apply(opcode, values);
+		}
+		
+		@Override
+		public ExactValue evalExact() {
+			final Complex[] values = new Complex[args.length];
+			for(int i = 0; i < values.length; i++)
+				values[i] = args[i].evalExact().toComplex(INTERMEDIATE_MATH_CONTEXT);
+			return ExactValue.fromConstant(Operators.apply(opcode, values));
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return DoubleInterval.ENTIRE;
+		}
+		
+	}
+	
+	static class ConstantExpression implements Expression {
+		
+		private final Complex constant;
+		private final ExactValue exactConstant;
+		private final DoubleInterval intervalConstant;
+		
+		public ConstantExpression(Complex constant) {
+			this.constant = constant;
+			this.exactConstant = ExactValue.fromConstant(constant);
+			this.intervalConstant = DoubleInterval.of(constant);
+		}
+		
+		@Override
+		public Complex eval() {
+			return constant;
+		}
+		
+		@Override
+		public ExactValue evalExact() {
+			return exactConstant;
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			return intervalConstant;
+		}
+		
+		@Override
+		public long evalModulo(final long modulus) {
+			return exactConstant.residue(modulus);
+		}
+		
+		@Override
+		public String toString() {
+			return constant.toString();
+		}
+		
+	}
+	
+	/** A named variable of an {@link ExpressionTemplate}. It only appears in trees that are compiled into templates, so it cannot be evaluated. */
+	static class VariableExpression implements Expression {
+		
+		private final String name;
+		private final int index;
+		
+		public VariableExpression(final String name, final int index) {
+			this.name = name;
+			this.index = index;
+		}
+		
+		/** Returns the index of the binding of this variable. */
+		int index() {
+			return index;
+		}
+		
+		private UnsupportedOperationException unbound() {
+			return new UnsupportedOperationException(String.format("Variable %s must be bound by an ExpressionTemplate", name));
+		}
+		
+		@Override
+		public Complex eval() {
+			throw unbound();
+		}
+		
+		@Override
+		public ExactValue evalExact() {
+			throw unbound();
+		}
+		
+		@Override
+		public DoubleInterval evalInterval() {
+			throw unbound();
 		}
 		
 		@Override
 		public String toString() {
-			return String.format("Token[%s, %s]", representation, type);
+			return name;
 		}
 		
 	}
+	
 	/*
 	public static void main(String[] args) {
 		String[] tests = {"4/3*2-1+100", "3*-4^2", "3-(-3)+4(2)", "2+((3)(2)(--1))"};
@@ -458,450 +797,458 @@ public class Evaluator {
 	}
 	
 	public static Complex evaluateAsComplex(final String expression, final MathContext resultContext) {
-//		System.out.printf("evaluateAsComplex(%s)%n", expression);
-		final List<Token> tokens = tokenize(WHITESPACE.matcher(expression).replaceAll(""));
-		final List<Token> postfixTokens = toPostfix(tokens);
-		Expression exp = makeTree(postfixTokens);
-		return exp.eval().round(resultContext);
-	}
-
-	public static BigDecimal evaluateAsBigDecimalExact(final String expression) {
-		return evaluateAsComplex(expression).bigDecimalValueExact();
+		return CACHE.evaluate(expression, resultContext);
 	}
 	
-	public static long evaluateAsLongExact(final String expression) {
-		return evaluateAsComplex(expression).longValueExact();
-	}
-
-	/** Given a mathematical expression in String form, tokenizes the expression and returns the results as a {@link List} of {@link Token Tokens}.*/
-	private static List<Token> tokenize(final String expression) {
-//		System.out.printf("tokenize(%s)%n", expression);
-		List<Token> tokens = new ArrayList<>();
-		for(int i = 0; i < expression.length(); ) {
-			String iStr = expression.substring(i, i + 1);
-			final Token token;
-			if(isOpenParenthesis(iStr)) {
-				token = new Token(iStr, TokenType.OPEN_PARENTHESIS);
-				i++;
-			}
-			else if(isCloseParenthesis(iStr)) {
-				token = new Token(iStr, TokenType.CLOSE_PARENTHESIS);
-				i++;
-			}
-			else if(isAbsoluteValueBar(iStr)) {
-				token = new Token(iStr, TokenType.ABSOLUTE_VALUE_BAR);
-				i++;
-			}
-			else {
-				if("0123456789i.".contains(iStr)) {
-					int end = endOfComplexNumber(expression, i);
-					token = new Token(expression.substring(i, end), TokenType.NUMBER);
-					i = end;
-				}
-				else {
-					String op = null;
-					op_finder:
-					for(int j = i + 1; j <= expression.length(); j++) {
-						final String sub = expression.substring(i, j);
-						if(isOperator(sub)) {
-							op = sub;
-							break op_finder;
-						}
-					}
-					if(op == null)
-						throw new IllegalArgumentException("Invalid expression. Tokens (at this stage of parsing) were: " + tokens);
-					if(isUnaryOperator(op)) {
-						if(isBinaryOperator(op)) { //This token could be a left or a right unary operator! We will figure out which one it is after.
-							token = new Token(op, TokenType.OPERATOR);
-						}
-						else {
-							token = new Token(op, TokenType.UNARY_OPERATOR);
-						}
-					}
-					else {
-						token = new Token(op, TokenType.BINARY_OPERATOR);
-					}
-					i += op.length();
-				}
-			}
-			
-			tokens.add(token);
-		}
-//		System.out.printf("before figuring out types of operators: %n\t%s%n", tokens);
-		for(int i = 0; i < tokens.size(); i++) {
-			Token token = tokens.get(i);
-			if(token.getType() == TokenType.OPERATOR) {
-				figureOutTypeOfOperator(tokens, i);
-			}
-		}
-//		System.out.printf("after figuring out types of operators, before figuring out types of absolute value bars: %n\t%s%n", tokens);
-		for(int i = 0; i < tokens.size(); i++) {
-			Token token = tokens.get(i);
-			if(token.getType() == TokenType.ABSOLUTE_VALUE_BAR) {
-				figureOutTypeOfAbsoluteValueBar(tokens, i);
-			}
-		}
-		return tokens;
+	/**
+	 * Evaluates the given expression exactly. Integer arithmetic is done with {@code long}s and promoted to {@link BigFraction BigFractions} on
+	 * overflow or non-integer division; only imaginary values and powers that may be irrational are computed with (rounded) {@link Complex}
+	 * arithmetic. The returned {@link ExactValue} reports which {@link ExactValue.Tier tier} produced it.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 * @throws ArithmeticException if the expression divides by zero or takes the factorial of a non-integer.
+	 */
+	public static ExactValue evaluateExact(final String expression) {
+		return CACHE.evaluateExact(expression);
 	}
-
-	/** <p>Given the list of tokens and the index of a token that could either be a binary operator or a unary operator (such as a '-' sign), this method
-	 * figures out which type of operator it is and updates its {@link TokenType type} (via {@link Token#setType(TokenType)}) accordingly.</p>
-	 * <p>Precondition: {@code tokens.get(i).getType() == TokenType.OPERATOR}</p>
-	 * <p>Precondition: Any absolute values in the token list have the type {@link TokenType#ABSOLUTE_VALUE_BAR}.</p>
-	 * */
-	private static void figureOutTypeOfOperator(List<Token> tokens, int i) {
-		final Token token = tokens.get(i);
-		assert token.getType() == TokenType.OPERATOR;
-		if(wouldBeLeftAssociativeIfItWereAUnaryOperator(token.getRepresentation())) {
-			if(i == 0) {
-				throw new IllegalArgumentException("Invalid expression");
-			}
-			else if(i == tokens.size() - 1) {
-				token.setType(TokenType.UNARY_OPERATOR);
-			}
-			else {
-				Token nextToken = tokens.get(i + 1);
-				if(nextToken.getType() == null)
-					figureOutTypeOfOperator(tokens, i + 1);
-				switch(nextToken.getType()) {
-				case ABSOLUTE_VALUE_BAR -> {
-					Token nextNA;
-					int j = i + 2;
-					while(j < tokens.size() && tokens.get(j).getType() == TokenType.ABSOLUTE_VALUE_BAR)
-						j++;
-					if(j >= tokens.size()) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						nextNA = tokens.get(j);
-						if(nextNA.getType() == null)
-							figureOutTypeOfOperator(tokens, j);
-						switch(nextNA.getType()) {
-							case NUMBER, OPEN_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-							case CLOSE_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-							case UNARY_OPERATOR -> {
-								if(isLeftAssociative(nextNA)) {
-									token.setType(TokenType.UNARY_OPERATOR);
-								}
-								else {
-									token.setType(TokenType.BINARY_OPERATOR);
-								}
-							}
-							default -> throw new IllegalArgumentException("Unknown TokenType:" + nextNA.getType());
-						}
-					}
-					throw new IllegalArgumentException("Undecidable situation - cannot be determined whether an operator is unary or binary");
-				}
-				case NUMBER, OPEN_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-				case CLOSE_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-				case UNARY_OPERATOR -> {
-					if(isLeftAssociative(nextToken)) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						assert isRightAssociative(nextToken);
-						token.setType(TokenType.BINARY_OPERATOR);
-					}
-				}
-				default -> throw new IllegalArgumentException("Invalid expression");
-				}
-			}
-		}
-		else {
-			assert wouldBeRightAssociativeIfItWereAUnaryOperator(token.getRepresentation());
-			if(i == 0) {
-				token.setType(TokenType.UNARY_OPERATOR);
-			}
-			else if(i == tokens.size() - 1) {
-				throw new IllegalArgumentException("Invalid Expression");
-			}
-			else {
-				Token prevToken = tokens.get(i - 1);
-				switch(prevToken.getType()) {
-				case ABSOLUTE_VALUE_BAR -> {
-					final Token prevNA;
-					int j = i - 2;
-					while(j >= 0 && tokens.get(j).getType() == TokenType.ABSOLUTE_VALUE_BAR)
-						j--;
-					if(j < 0) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						prevNA = tokens.get(j);
-						switch(prevNA.getType()) {
-						case NUMBER, CLOSE_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-						case BINARY_OPERATOR, OPEN_PARENTHESIS -> token.setType(TokenType.UNARY_OPERATOR);
-						case UNARY_OPERATOR -> {
-							if(isLeftAssociative(prevNA))
-								token.setType(TokenType.BINARY_OPERATOR);
-							else
-								token.setType(TokenType.UNARY_OPERATOR);
-						}
-						default -> throw new IllegalArgumentException("Unknown TokenType:" + prevNA.getType());
-						}
-					}
-				}
-				case NUMBER, CLOSE_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-				case OPEN_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-				case UNARY_OPERATOR -> {
-					if(isLeftAssociative(prevToken)) {
-						token.setType(TokenType.BINARY_OPERATOR);
-					}
-					else {
-						assert isRightAssociative(prevToken);
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-				}
-				default -> throw new IllegalArgumentException("Invalid expression");
-				}
-			}
-		}
-		assert token.getType() == TokenType.UNARY_OPERATOR || token.getType() == TokenType.BINARY_OPERATOR;
+	
+	/**
+	 * <p>Returns an approximation of the value of the given real-valued expression whose relative error is at most {@code tolerance} (as a
+	 * fraction, so {@code 0.05} is 5%).</p>
+	 * 
+	 * <p>The expression is first evaluated in {@code double} interval arithmetic. If the resulting interval is narrow enough that every number in
+	 * it is within {@code tolerance} of every other, its midpoint is returned. Otherwise (for example, if the interval contains zero, or if the
+	 * expression divides by something that might be zero) this method falls back to {@link #evaluateAsBigDecimalExact(String)}.</p>
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 * @throws ArithmeticException if the expression has an imaginary part.
+	 */
+	public static BigDecimal evaluateApproximate(final String expression, final BigDecimal tolerance) {
+		final DoubleInterval interval = CACHE.expressionFor(normalize(expression)).evalInterval();
+		if(interval.isWithinRelativeTolerance(tolerance.doubleValue()))
+			return BigDecimal.valueOf(interval.midpoint()).round(DEFAULT_RESULT_CONTEXT);
+		return evaluateAsBigDecimalExact(expression);
 	}
 	
-	/**<p>Given the list of tokens and the index of a token that is an absolute value bar, this method
-	 * figures out whether it is an opening or closing absolute value bar and updates its {@link TokenType type} (via {@link Token#setType(TokenType)}) accordingly.</p>
-	 * <p>Precondition: {@code tokens.get(i).getType() == TokenType.ABSOULTE_VALUE_BAR}</p>
+	/**
+	 * Returns the value of the given integer expression modulo {@code modulus}, as described in {@link Math#floorMod(long, long)}, computed with
+	 * {@link Modular} arithmetic on residues so that the cost does not depend on the size of the value (so {@code 123456789^987654321} is as
+	 * cheap as {@code 12^34}).
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 * @throws ArithmeticException if {@code modulus} is not positive, or if the expression is not built from integers with addition,
+	 * subtraction, multiplication, nonnegative integer powers, negation, absolute values, and factorials.
 	 */
-	private static void figureOutTypeOfAbsoluteValueBar(List<Token> tokens, int i) {
-		Token token = tokens.get(i);
-		assert token.getType() == TokenType.ABSOLUTE_VALUE_BAR;
-		if(i == 0)
-			token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-		else if(i == tokens.size() - 1)
-			token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-		else {
-			Token prev = tokens.get(i - 1);
-			switch(prev.getType()) {
-			case OPEN_ABSOLUTE_VALUE_BAR, OPEN_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-			case CLOSE_ABSOLUTE_VALUE_BAR, CLOSE_PARENTHESIS, NUMBER -> token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-			case UNARY_OPERATOR -> {
-				if(isLeftAssociativeUnaryOperator(prev)) {
-					token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-				}
-				else {
-					token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-				}
-			}
-			default -> throw new IllegalArgumentException("Invalid Expression: " + prev.getType());
-			}
-		}
-		assert token.getType() == TokenType.CLOSE_ABSOLUTE_VALUE_BAR || token.getType() == TokenType.OPEN_ABSOLUTE_VALUE_BAR;
+	public static long evaluateModulo(final String expression, final long modulus) {
+		if(modulus <= 0)
+			throw new ArithmeticException("The modulus must be positive: " + modulus);
+		return CACHE.expressionFor(normalize(expression)).evalModulo(modulus);
 	}
 	
-	private static int endOfComplexNumber(final String str, final int startIndex) {
-		if(str.charAt(startIndex) == 'i') {
-			return startIndex + 1;
-		}
-		int ind = startIndex;
-		boolean decimalPointFound = false;
-		if(isDecimalPoint(str.charAt(ind))) {
-			decimalPointFound = true;
-			ind++;
-		}
-		while(ind < str.length()) {
-			if(isDecimalPoint(str.charAt(ind))) {
-				if(decimalPointFound)
-					return -1;
-				decimalPointFound = true;
-				ind++;
-			}
-			else if(isDigit(str.charAt(ind))) {
-				ind++;
-			}
-			else {
-				break;
+	/**
+	 * Returns {@code evaluateExact(expression).remainder(divisor)}. If the expression can be {@link #evaluateModulo(String, long) evaluated
+	 * modulo} {@code |divisor|} and the sign of its value can be determined without computing it, the value is never computed.
+	 * @throws IllegalArgumentException if the expression is invalid or has an imaginary part.
+	 * @throws ArithmeticException if {@code divisor} is {@code 0} or the expression cannot be evaluated.
+	 */
+	public static ExactValue evaluateRemainder(final String expression, final long divisor) {
+		if(divisor == 0)
+			throw new ArithmeticException("Division by zero");
+		if(divisor != Long.MIN_VALUE) {
+			final long modulus = Math.abs(divisor);
+			final Expression tree = CACHE.expressionFor(normalize(expression));
+			try {
+				final ExactValue remainder = remainderOf(tree.evalModulo(modulus), modulus, tree.evalSignum());
+				if(remainder != null)
+					return remainder;
 			}
-		}
-		if(ind < str.length()) {
-			if(str.charAt(ind) == 'i') {
-				ind++;
+			catch(ArithmeticException e) {
+				//fall through, so that the exact evaluation can throw the real exception if there is one.
 			}
 		}
-		return ind;
+		return evaluateExact(expression).remainder(divisor);
 	}
 	
+	/* Helpers for Expression.evalModulo and Expression.evalSignum, which are also used by ExpressionTemplate. */
+	
 	/**
-	 * Converts the {@link List} of infix {@link Token Tokens} to a list of postfix tokens. A token with the type of {@link TokenType#ABSOLUTE_VALUE_BAR}
-	 * in the returned list should be treated, when the postfix tokens are being evaluated, as a unary operator that takes the absolute value of the previous number.
-	 * @param infixTokens
-	 * @return
+	 * Returns the remainder, as in {@link ExactValue#remainder(long)}, of a value with the given residue modulo {@code modulus} and the given
+	 * sign, or {@code null} if the sign is {@link DoubleInterval#UNKNOWN_SIGNUM unknown} and the remainder is not {@code 0}.
 	 */
-	private static List<Token> toPostfix(List<Token> infixTokens) {
-		List<Token> postfixTokens = new ArrayList<>();
-		Stack<Token> opStack = new Stack<>();
-		for(Token token : infixTokens) {
-			switch(token.getType()) {
-			case NUMBER -> postfixTokens.add(token);
-			case OPEN_PARENTHESIS, OPEN_ABSOLUTE_VALUE_BAR -> opStack.push(token);
-			case UNARY_OPERATOR, BINARY_OPERATOR -> {
-				while(!opStack.isEmpty() && !opStack.peek().getType().isOpeningSeparator() && 
-					(
-						precedenceOfOperator(opStack.peek()) > precedenceOfOperator(token) ||
-						(precedenceOfOperator(opStack.peek()) == precedenceOfOperator(token) && isLeftAssociative(token))
-					)
-				) {
-					postfixTokens.add(opStack.pop());
-				}
-				opStack.push(token);
-			}
-			case CLOSE_PARENTHESIS -> {
-				while(opStack.peek().getType() != TokenType.OPEN_PARENTHESIS)
-					postfixTokens.add(opStack.pop());
-				opStack.pop();
-			}
-			case CLOSE_ABSOLUTE_VALUE_BAR -> {
-				while(opStack.peek().getType() != TokenType.OPEN_ABSOLUTE_VALUE_BAR)
-					postfixTokens.add(opStack.pop());
-				opStack.pop();
-				postfixTokens.add(new Token("|", TokenType.ABSOLUTE_VALUE_BAR));
-			}
-			default -> throw new IllegalArgumentException("Invalid Expression");
-			}
+	static ExactValue remainderOf(final long residue, final long modulus, final int signum) {
+		if(residue == 0)
+			return ExactValue.of(0);
+		switch(signum) {
+			case 1: return ExactValue.of(residue);
+			case -1: return ExactValue.of(residue - modulus);
+			default: return null;
 		}
-		while(!opStack.isEmpty())
-			postfixTokens.add(opStack.pop());
-		return postfixTokens;
 	}
 	
 	/**
-	 * @param postfixTokens
-	 * @return
+	 * Returns the integer in the given interval.
+	 * @throws ArithmeticException if the interval does not hold exactly one integer that fits in a {@code long}.
 	 */
-	private static Expression makeTree(List<Token> postfixTokens) {
-		Stack<Expression> stack = new Stack<>();
-		for(Token token : postfixTokens) {
-			switch(token.getType()) {
-			case NUMBER -> stack.push(new ConstantExpression(new Complex(token.getRepresentation())));
-			case ABSOLUTE_VALUE_BAR -> stack.push(new AbsoluteValueOperator(stack.pop()));
-			case BINARY_OPERATOR -> {
-				Expression b = stack.pop(), a = stack.pop();
-				stack.push(fromOp(token, a, b));
-			}
-			case UNARY_OPERATOR -> stack.push(fromOp(token, stack.pop()));
-			default -> throw new IllegalArgumentException("Invalid expression");
-			}
-		}
-		if(stack.size() != 1)
-			throw new IllegalArgumentException("Invalid expression, Postfix tokens were: " + postfixTokens);
-		return stack.pop();
+	static long exactInteger(final DoubleInterval interval) {
+		if(!interval.isSingleLong())
+			throw new ArithmeticException("Not known to be an integer: " + interval);
+		return (long) interval.lo();
 	}
 	
-	private static int precedenceOfOperator(final Token token) {
-		if(token.getType() == TokenType.UNARY_OPERATOR)
-			return precedenceOfUnaryOperator(token);
-		else if(token.getType() == TokenType.BINARY_OPERATOR)
-			return precedenceOfBinaryOperator(token);
-		throw new IllegalArgumentException("The given token is not an operator");
+	/**
+	 * Returns the integer in the given interval, for use as an exponent in modular arithmetic.
+	 * @throws ArithmeticException if the interval does not hold exactly one nonnegative integer that fits in a {@code long}.
+	 */
+	static long exactExponent(final DoubleInterval interval) {
+		final long exponent = exactInteger(interval);
+		if(exponent < 0)
+			throw new ArithmeticException("Negative exponents are not integers in modular arithmetic: " + exponent);
+		return exponent;
 	}
 	
-	private static int precedenceOfUnaryOperator(final Token token) {
-		return unaryPrecedence.get(token.getRepresentation());
+	static int negateSignum(final int signum) {
+		return signum == DoubleInterval.UNKNOWN_SIGNUM ? signum : -signum;
 	}
 	
-	private static int precedenceOfBinaryOperator(final Token token) {
-		return binaryPrecedence.get(token.getRepresentation());
+	/** Returns the sign of a sum whose terms have the given signs, or {@link DoubleInterval#UNKNOWN_SIGNUM} if it depends on their sizes. */
+	static int signumOfSum(final int a, final int b) {
+		if(a == 0)
+			return b;
+		if(b == 0 || a == b)
+			return a;
+		return DoubleInterval.UNKNOWN_SIGNUM;
 	}
 	
-	private static boolean isDigit(char c) {
-		return c >= '0' && c <= '9';
+	static int signumOfProduct(final int a, final int b) {
+		if(a == 0 || b == 0)
+			return 0;
+		if(a == DoubleInterval.UNKNOWN_SIGNUM || b == DoubleInterval.UNKNOWN_SIGNUM)
+			return DoubleInterval.UNKNOWN_SIGNUM;
+		return a * b;
 	}
 	
-	private static boolean isDecimalPoint(char c) {
-		return c == DECIMAL_POINT;
+	/** Returns the sign of a power of a base with the given sign. {@code exponent} must be nonnegative, and {@code 0^0} is {@code 1}. */
+	static int signumOfPower(final int base, final long exponent) {
+		if(exponent == 0)
+			return 1;
+		if(base != -1)
+			return base;
+		return (exponent & 1) == 0 ? 1 : -1;
 	}
 	
 	/**
-	 * @throws IllegalArgumentException if the operator denoted by {@code operatorAsString} could not be a unary operator.
+	 * Returns the {@link ExpressionCache} used by the static {@code evaluate} methods of this class. Its size bound can be adjusted via
+	 * {@link ExpressionCache#setMaxSize(int)}.
 	 */
-	private static boolean wouldBeRightAssociativeIfItWereAUnaryOperator(String operatorAsString) {
-		if(unaryAssociativities.containsKey(operatorAsString))
-			return unaryAssociativities.get(operatorAsString).isRight();
-		throw new IllegalArgumentException(operatorAsString + " could not be a unary operator");
+	public static ExpressionCache getCache() {
+		return CACHE;
 	}
 	
 	/**
-	 * @throws IllegalArgumentException if the operator denoted by {@code operatorAsString} could not be a unary operator.
+	 * Returns the given expression with all whitespace removed. Expressions that are equal after normalization are parsed into the same tree.
 	 */
-	private static boolean wouldBeLeftAssociativeIfItWereAUnaryOperator(String operatorAsString) {
-		if(unaryAssociativities.containsKey(operatorAsString))
-			return unaryAssociativities.get(operatorAsString).isLeft();
-		throw new IllegalArgumentException(operatorAsString + " could not be a unary operator");
+	static String normalize(final String expression) {
+		int i = 0;
+		while(i < expression.length() && !isWhitespace(expression.charAt(i)))
+			i++;
+		if(i == expression.length())
+			return expression;
+		StringBuilder sb = new StringBuilder(expression.length());
+		sb.append(expression, 0, i);
+		for(; i < expression.length(); i++) {
+			final char c = expression.charAt(i);
+			if(!isWhitespace(c))
+				sb.append(c);
+		}
+		return sb.toString();
 	}
 	
-	private static boolean isLeftAssociative(Token token) {
-		return 	isLeftAssociativeBinaryOperator(token) || isLeftAssociativeUnaryOperator(token);
-	}
-
-	private static boolean isLeftAssociativeUnaryOperator(Token token) {
-		return token.getType() == TokenType.UNARY_OPERATOR && unaryAssociativities.get(token.getRepresentation()).isLeft();
-	}
-
-	private static boolean isLeftAssociativeBinaryOperator(Token token) {
-		return token.getType() == TokenType.BINARY_OPERATOR && binaryAssociativities.get(token.getRepresentation()).isLeft();
+	/** Parses the given {@link #normalize(String) normalized} expression into an immutable expression tree. */
+	static Expression parse(final String normalizedExpression) {
+		return new Parser(normalizedExpression, null).parseFully();
 	}
 	
-	private static boolean isRightAssociative(Token token) {
-		return 	isRightAssociativeBinaryOperator(token) ||
-				isRightAssociativeUnaryOperator(token);
-	}
-
-	private static boolean isRightAssociativeUnaryOperator(Token token) {
-		return token.getType() == TokenType.UNARY_OPERATOR && unaryAssociativities.get(token.getRepresentation()).isRight();
+	/**
+	 * Compiles the given template into an {@link ExpressionTemplate} whose variables are the given names, in order. A variable name is an ASCII
+	 * letter or underscore followed by any number of ASCII letters, digits, and underscores; it may not be {@code i}, which is the imaginary
+	 * unit, or the name of a function (such as {@code sqrt}).
+	 * @throws IllegalArgumentException if the template is invalid, if it uses a variable that is not given, or if a variable name is invalid or
+	 * repeated.
+	 */
+	public static ExpressionTemplate compile(final String template, final String... variables) {
+		final List<String> variableList = List.of(variables);
+		for(int i = 0; i < variables.length; i++) {
+			final String name = variables[i];
+			if(!isIdentifier(name) || name.equals(String.valueOf(IMAGINARY_UNIT)) || Operators.function(name) != Operators.NONE
+					|| variableList.indexOf(name) != i)
+				throw new IllegalArgumentException("Invalid or repeated variable name: " + name);
+		}
+		final Parser parser = new Parser(template, variableList);
+		return new ExpressionTemplate(template, variableList, parser.parseFully(), parser.occurrences);
 	}
 
-	private static boolean isRightAssociativeBinaryOperator(Token token) {
-		return token.getType() == TokenType.BINARY_OPERATOR && binaryAssociativities.get(token.getRepresentation()).isRight();
-	}
-	
-	private static boolean isOperator(final String s) {
-		final boolean result = isBinaryOperator(s) || isUnaryOperator(s);
-//		System.out.printf("\tisOperator(%s) == %b%n", s, result);
-		return result;
-	}
-	
-	private static boolean isBinaryOperator(final String s) {
-		return binaryPrecedence.containsKey(s);
+	/**
+	 * <p>Registers a function that every expression and template parsed from now on can call as {@code name(arg1, ..., argN)}, where {@code N} is
+	 * {@code arity}. The function receives its arguments as {@link Complex} values computed with {@link #INTERMEDIATE_MATH_CONTEXT 32 digits} of
+	 * precision, and should return its result to the same precision. Its result is treated like a constant written in the expression, so the
+	 * exact evaluation methods take it as exact if it is a real number with a terminating decimal expansion.</p>
+	 *
+	 * <p>The name follows the rules for variable names in {@link #compile(String, String...)}. Registered functions cannot be removed.</p>
+	 * @throws IllegalArgumentException if the name is not a valid identifier, is {@code i}, or is already the name of a function, or if
+	 * {@code arity} is not positive.
+	 * @throws NullPointerException if {@code function} is {@code null}.
+	 */
+	public static void registerFunction(final String name, final int arity, final Function<Complex[], Complex> function) {
+		Objects.requireNonNull(function);
+		if(!isIdentifier(name) || name.equals(String.valueOf(IMAGINARY_UNIT)))
+			throw new IllegalArgumentException("Invalid function name: " + name);
+		if(arity <= 0)
+			throw new IllegalArgumentException("The arity must be positive: " + arity);
+		Operators.registerFunction(name, arity, function);
 	}
 	
-	private static boolean isUnaryOperator(final String s) {
-		return unaryPrecedence.containsKey(s);
+	public static BigDecimal evaluateAsBigDecimalExact(final String expression) {
+		return evaluateAsComplex(expression).bigDecimalValueExact();
 	}
 	
-	private static Integer getBinaryPrecedence(final String op) {
-		return binaryPrecedence.get(op);
+	public static long evaluateAsLongExact(final String expression) {
+		return evaluateAsComplex(expression).longValueExact();
 	}
-	
-	private static Integer getUnaryPrecedence(final String op) {
-		return unaryPrecedence.get(op);
+
+	/**
+	 * <p>A single-pass precedence-climbing parser that builds an expression tree directly from a {@link CharSequence}. Whitespace between tokens
+	 * is skipped. Operators are resolved by character through the {@link Operators} tables, so parsing does not allocate anything other than
+	 * the nodes of the tree (and the text of identifiers and of any number that cannot be read as a {@code long}).</p>
+	 * 
+	 * <p>The grammar is the one described by the operator tables: a {@code '+'} or {@code '-'} is a right-associative (prefix) unary operator
+	 * where an operand is expected and a binary operator after an operand; {@code '!'} and {@code '%'} are left-associative (postfix) unary
+	 * operators; an absolute value bar opens an absolute value where an operand is expected and closes one after an operand. A function is
+	 * called by its name followed by its comma-separated arguments in parentheses.</p>
+	 */
+	private static final class Parser {
+		
+		/** Lower than the precedence of every operator. */
+		private static final int LOWEST_PRECEDENCE = 0;
+		/** Long values with at most this many digits cannot overflow. */
+		private static final int MAX_SAFE_LONG_DIGITS = 18;
+		
+		private final CharSequence input;
+		/** {@code null} if variables are not allowed. */
+		private final List<String> variables;
+		/** {@code (start, end, variable index)} triples for every variable read so far, or {@code null} if variables are not allowed. */
+		final IntList occurrences;
+		private int pos;
+		
+		Parser(final CharSequence input, final List<String> variables) {
+			this.input = input;
+			this.variables = variables;
+			this.occurrences = variables == null ? null : new IntList();
+			this.pos = 0;
+		}
+		
+		Expression parseFully() {
+			final Expression expr = parseExpression(LOWEST_PRECEDENCE);
+			skipWhitespace();
+			if(pos != input.length())
+				throw invalid("Unexpected character");
+			return expr;
+		}
+		
+		/**
+		 * Parses an expression, absorbing every operator that would be applied before the operator of precedence {@code minPrecedence}
+		 * that the expression is an operand of.
+		 */
+		private Expression parseExpression(final int minPrecedence) {
+			Expression left = parseOperand();
+			while(true) {
+				skipWhitespace();
+				if(pos == input.length())
+					return left;
+				final char c = input.charAt(pos);
+				final int postfix = Operators.postfix(c), binary = Operators.binary(c);
+				if(postfix != Operators.NONE) {
+					if(!absorbs(minPrecedence, postfix))
+						return left;
+					pos++;
+					left = applyPostfix(left, postfix);
+				}
+				else if(binary != Operators.NONE) {
+					if(!absorbs(minPrecedence, binary))
+						return left;
+					pos++;
+					left = Operators.newBinary(binary, left, parseExpression(Operators.precedence(binary)));
+				}
+				else if(c == CLOSE_PARENTHESIS || c == ABSOLUTE_VALUE_BAR || c == ARGUMENT_SEPARATOR) {
+					return left; //closes an enclosing group; the caller checks that it is the right one.
+				}
+				else {
+					throw invalid("Expected an operator");
+				}
+			}
+		}
+		
+		/**
+		 * Returns {@code true} if the operator with the given opcode, following an operand of an operator of precedence {@code minPrecedence}, is
+		 * applied first.
+		 */
+		private static boolean absorbs(final int minPrecedence, final int opcode) {
+			final int precedence = Operators.precedence(opcode);
+			return precedence > minPrecedence || precedence == minPrecedence && !Operators.isLeftAssociative(opcode);
+		}
+		
+		/**
+		 * Applies the postfix operator with the given opcode, which has just been read, to {@code operand}, after first applying the postfix
+		 * operators directly following it that bind more tightly. As in a shunting-yard conversion, a postfix operator in a run of them is applied
+		 * before the operators to its left of lower precedence (or of equal precedence, if it is right-associative), so {@code 5!%} is
+		 * {@code (5%)!} and {@code 5%!} is {@code (5%)!}.
+		 */
+		private Expression applyPostfix(Expression operand, final int opcode) {
+			while(true) {
+				skipWhitespace();
+				final int next = pos == input.length() ? Operators.NONE : Operators.postfix(input.charAt(pos));
+				if(next == Operators.NONE || !absorbs(Operators.precedence(opcode), next))
+					return Operators.newUnary(opcode, operand);
+				pos++;
+				operand = applyPostfix(operand, next);
+			}
+		}
+		
+		private Expression parseOperand() {
+			skipWhitespace();
+			if(pos == input.length())
+				throw invalid("Expected an operand");
+			final char c = input.charAt(pos);
+			if(c == OPEN_PARENTHESIS) {
+				pos++;
+				final Expression inner = parseExpression(LOWEST_PRECEDENCE);
+				expect(CLOSE_PARENTHESIS);
+				return inner;
+			}
+			if(c == ABSOLUTE_VALUE_BAR) {
+				pos++;
+				final Expression inner = parseExpression(LOWEST_PRECEDENCE);
+				expect(ABSOLUTE_VALUE_BAR);
+				return new AbsoluteValueOperator(inner);
+			}
+			final int prefix = Operators.prefix(c);
+			if(prefix != Operators.NONE) {
+				pos++;
+				return Operators.newUnary(prefix, parseExpression(Operators.precedence(prefix)));
+			}
+			if(isIdentifierStart(c))
+				return parseIdentifier();
+			if(isDigit(c) || isDecimalPoint(c))
+				return new ConstantExpression(parseNumber());
+			throw invalid("Expected an operand");
+		}
+		
+		/** Reads an identifier, which is the imaginary unit, a call to a function registered in {@link Operators}, or one of the {@link #variables}. */
+		private Expression parseIdentifier() {
+			final int start = pos;
+			while(pos < input.length() && isIdentifierPart(input.charAt(pos)))
+				pos++;
+			final String name = input.subSequence(start, pos).toString();
+			if(name.length() == 1 && isImaginaryUnit(name.charAt(0)))
+				return new ConstantExpression(Complex.I);
+			final int function = Operators.function(name);
+			if(function != Operators.NONE)
+				return parseArguments(function);
+			final int index = variables == null ? -1 : variables.indexOf(name);
+			if(index < 0) {
+				pos = start;
+				throw invalid("Unknown identifier " + name);
+			}
+			occurrences.add(start);
+			occurrences.add(pos);
+			occurrences.add(index);
+			return new VariableExpression(name, index);
+		}
+		
+		/** Reads the parenthesized arguments of a call to the function with the given opcode, whose name has just been read. */
+		private Expression parseArguments(final int function) {
+			expect(OPEN_PARENTHESIS);
+			final Expression[] args = new Expression[Operators.arity(function)];
+			for(int i = 0; i < args.length; i++) {
+				if(i > 0)
+					expect(ARGUMENT_SEPARATOR);
+				args[i] = parseExpression(LOWEST_PRECEDENCE);
+			}
+			expect(CLOSE_PARENTHESIS);
+			return Operators.newFunction(function, args);
+		}
+		
+		/** Reads a number made of digits with at most one decimal point, optionally followed by {@code i}. */
+		private Complex parseNumber() {
+			final int start = pos;
+			boolean decimalPointFound = false;
+			long value = 0;
+			for(; pos < input.length(); pos++) {
+				final char c = input.charAt(pos);
+				if(isDigit(c)) {
+					value = value * 10 + (c - '0');
+				}
+				else if(isDecimalPoint(c)) {
+					if(decimalPointFound)
+						throw invalid("Too many decimal points");
+					decimalPointFound = true;
+				}
+				else {
+					break;
+				}
+			}
+			if(pos < input.length() && isImaginaryUnit(input.charAt(pos)))
+				pos++;
+			else if(!decimalPointFound && pos - start <= MAX_SAFE_LONG_DIGITS)
+				return Complex.valueOf(value);
+			return new Complex(input.subSequence(start, pos).toString());
+		}
+		
+		private void expect(final char c) {
+			skipWhitespace();
+			if(pos == input.length() || input.charAt(pos) != c)
+				throw invalid("Expected '" + c + "'");
+			pos++;
+		}
+		
+		private void skipWhitespace() {
+			while(pos < input.length() && isWhitespace(input.charAt(pos)))
+				pos++;
+		}
+		
+		private IllegalArgumentException invalid(final String reason) {
+			return new IllegalArgumentException(String.format("Invalid expression (%s at index %d): %s", reason, pos, input));
+		}
+		
 	}
 	
-	private static boolean isGroupingSeparator(String s) {
-		return isParenthesis(s) || isAbsoluteValueBar(s);
+	/** Returns {@code true} for exactly the characters matched by the regex {@code \s}. */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
 	}
 	
-	private static boolean isAbsoluteValueBar(String s) {
-		return "|".equals(s);
+	private static boolean isIdentifierStart(char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_';
 	}
 	
-	private static boolean isParenthesis(String s) {
-		return isOpenParenthesis(s) || isCloseParenthesis(s);
+	private static boolean isIdentifierPart(char c) {
+		return isIdentifierStart(c) || isDigit(c);
 	}
 	
-	private static boolean isOpenParenthesis(String s) {
-		return "(".equals(s);
+	private static boolean isIdentifier(final String s) {
+		if(s.isEmpty() || !isIdentifierStart(s.charAt(0)))
+			return false;
+		for(int i = 1; i < s.length(); i++)
+			if(!isIdentifierPart(s.charAt(i)))
+				return false;
+		return true;
 	}
 	
-	private static boolean isCloseParenthesis(String s) {
-		return ")".equals(s);
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
 	}
 	
-	
-	private static UnaryOperator fromOp(final Token operator, final Expression expr) {
-		return unaryFactories.get(operator.getRepresentation()).apply(expr);
+	private static boolean isDecimalPoint(char c) {
+		return c == DECIMAL_POINT;
 	}
 	
-	private static BinaryOperator fromOp(final Token operator, final Expression left, final Expression right) {
-		return binaryFactories.get(operator.getRepresentation()).apply(left, right);
+	private static boolean isImaginaryUnit(char c) {
+		return c == IMAGINARY_UNIT;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,409 @@
+package math;
+
+import java.math.*;
+
+/**
+ * <p>The exact result of evaluating an expression with {@link Evaluator#evaluateExact(String)}, along with the {@link Tier} that produced it.</p>
+ *
+ * <p>Values are computed in the narrowest tier that can hold them. Integers that fit in a {@code long} are computed with {@code long} arithmetic
+ * ({@link Math#addExact(long, long)} and friends); on overflow or non-integer division the computation is promoted to an exact
+ * {@link BigFraction}. Only values with an imaginary part, and powers that may be irrational, fall back to {@link Complex} arithmetic, which
+ * rounds. A {@link BigFraction} result that is an integer small enough to fit in a {@code long} is demoted back to {@link Tier#LONG}.</p>
+ *
+ * <p>{@code ExactValue} objects are immutable.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ExactValue {
+
+	/** The representations an {@link ExactValue} may have, from narrowest to widest. */
+	public enum Tier {
+		/** An integer computed exactly with {@code long} arithmetic. */
+		LONG,
+		/** A rational number computed exactly as a {@link BigFraction}. */
+		FRACTION,
+		/** A {@link Complex} number. Values in this tier may have been rounded. */
+		COMPLEX;
+	}
+
+	/**
+	 * Powers whose result would need more than (roughly) this many bits in its numerator or denominator are computed in {@link Tier#COMPLEX}
+	 * instead, so that an exponent like {@code 9^999999} does not build an enormous {@link BigInteger}.
+	 */
+	private static final long MAX_EXACT_POWER_BITS = 1 << 16;
+	/** Logarithms whose base or argument has more than this many bits in its numerator or denominator are not checked for being rational. */
+	private static final int MAX_EXACT_LOG_BITS = 1 << 10;
+	private static final BigInteger B100 = BigInteger.valueOf(100);
+	private static final BigDecimal BD100 = BigDecimal.valueOf(100);
+
+	private final Tier tier;
+	/** Only meaningful if {@code tier == Tier.LONG}. */
+	private final long longValue;
+	/** Non-null if and only if {@code tier == Tier.FRACTION}. */
+	private final BigFraction fraction;
+	/** Non-null if and only if {@code tier == Tier.COMPLEX}. */
+	private final Complex complex;
+
+	private ExactValue(final Tier tier, final long longValue, final BigFraction fraction, final Complex complex) {
+		this.tier = tier;
+		this.longValue = longValue;
+		this.fraction = fraction;
+		this.complex = complex;
+	}
+
+	static ExactValue of(final long value) {
+		return new ExactValue(Tier.LONG, value, null, null);
+	}
+
+	/** Returns an {@link ExactValue} in {@link Tier#LONG} if the given fraction is an integer that fits in a {@code long}. */
+	static ExactValue of(final BigFraction value) {
+		if(value.isInteger() && value.getNumerator().bitLength() < Long.SIZE)
+			return of(value.isNegative() ? -value.getNumerator().longValue() : value.getNumerator().longValue());
+		return new ExactValue(Tier.FRACTION, 0, value, null);
+	}
+
+	static ExactValue of(final BigInteger value) {
+		return value.bitLength() < Long.SIZE ? of(value.longValue()) : of(BigFraction.of(value, BigInteger.ONE));
+	}
+
+	/** Returns an {@link ExactValue} in {@link Tier#COMPLEX}, regardless of the value of {@code value}. */
+	static ExactValue inexact(final Complex value) {
+		return new ExactValue(Tier.COMPLEX, 0, null, value);
+	}
+
+	/**
+	 * Returns an {@link ExactValue} with the same value as the given {@link Complex} number, in the narrowest tier that can hold it. The given
+	 * number is assumed to be exact (for example, a constant that appears in an expression).
+	 */
+	static ExactValue fromConstant(final Complex value) {
+		if(value.hasImaginaryPart())
+			return inexact(value);
+		final BigDecimal real = value.realPart();
+		if(BigNumbers.isInteger(real))
+			return of(real.toBigIntegerExact());
+		return of(BigFraction.from(real));
+	}
+
+	/** Returns the {@link Tier} that produced this value. */
+	public Tier tier() {
+		return tier;
+	}
+
+	/** Returns {@code true} if this value is known to be exact, that is, if it is not in {@link Tier#COMPLEX}. */
+	public boolean isExact() {
+		return tier != Tier.COMPLEX;
+	}
+
+	/**
+	 * Returns this value as a {@code long}.
+	 * @throws ArithmeticException if this value is not in {@link Tier#LONG}.
+	 */
+	public long longValueExact() {
+		if(tier != Tier.LONG)
+			throw new ArithmeticException(String.format("%s is not a long", this));
+		return longValue;
+	}
+
+	/**
+	 * Returns this value as a {@link BigFraction}.
+	 * @throws ArithmeticException if this value is in {@link Tier#COMPLEX}.
+	 */
+	public BigFraction toBigFraction() {
+		switch(tier) {
+			case LONG: return BigFraction.of(longValue, 1);
+			case FRACTION: return fraction;
+			default: throw new ArithmeticException(String.format("%s is not known to be rational", this));
+		}
+	}
+
+	/** Returns this value as a {@link Complex} number, rounded using the given {@link MathContext}. */
+	public Complex toComplex(final MathContext mc) {
+		switch(tier) {
+			case LONG: return new Complex(new BigDecimal(longValue, mc));
+			case FRACTION: return new Complex(new BigDecimal(signedNumerator(fraction)).divide(new BigDecimal(fraction.getDenominator()), mc));
+			default: return complex.round(mc);
+		}
+	}
+
+	/**
+	 * Returns {@code (this % divisor)}, as described in {@link BigDecimal#remainder(BigDecimal)}: the result has the same sign as {@code this}.
+	 * This is <i>not</i> equivalent to the modulo operation. The remainder is exact unless this value is in {@link Tier#COMPLEX}.
+	 * @throws ArithmeticException if {@code divisor} is {@code 0}.
+	 * @throws IllegalArgumentException if this value has an imaginary part.
+	 */
+	public ExactValue remainder(final long divisor) {
+		if(divisor == 0)
+			throw new ArithmeticException("Division by zero");
+		switch(tier) {
+			case LONG: return of(longValue % divisor);
+			case FRACTION:
+				final BigInteger d = fraction.getDenominator();
+				return of(BigFraction.of(signedNumerator(fraction).remainder(d.multiply(BigInteger.valueOf(divisor))), d));
+			default: return inexact(complex.remainder(divisor));
+		}
+	}
+
+	/**
+	 * Returns this value modulo {@code modulus}, as described in {@link Math#floorMod(long, long)}. {@code modulus} must be positive.
+	 * @throws ArithmeticException if this value is not known to be an integer.
+	 */
+	long residue(final long modulus) {
+		if(tier == Tier.LONG)
+			return Math.floorMod(longValue, modulus);
+		if(tier == Tier.FRACTION && fraction.getDenominator().equals(BigInteger.ONE))
+			return signedNumerator(fraction).mod(BigInteger.valueOf(modulus)).longValue();
+		throw new ArithmeticException(String.format("%s is not known to be an integer", this));
+	}
+
+	/* Arithmetic used by the nodes of Evaluator. mc is only used by Tier.COMPLEX. */
+
+	ExactValue add(final ExactValue o, final MathContext mc) {
+		if(tier == Tier.LONG && o.tier == Tier.LONG) {
+			try {
+				return of(Math.addExact(longValue, o.longValue));
+			}
+			catch(ArithmeticException e) {
+				return of(BigInteger.valueOf(longValue).add(BigInteger.valueOf(o.longValue)));
+			}
+		}
+		if(isExact() && o.isExact())
+			return of(toBigFraction().add(o.toBigFraction()));
+		return inexact(asComplex(mc).add(o.asComplex(mc), mc));
+	}
+
+	ExactValue subtract(final ExactValue o, final MathContext mc) {
+		if(tier == Tier.LONG && o.tier == Tier.LONG) {
+			try {
+				return of(Math.subtractExact(longValue, o.longValue));
+			}
+			catch(ArithmeticException e) {
+				return of(BigInteger.valueOf(longValue).subtract(BigInteger.valueOf(o.longValue)));
+			}
+		}
+		if(isExact() && o.isExact())
+			return of(toBigFraction().subtract(o.toBigFraction()));
+		return inexact(asComplex(mc).subtract(o.asComplex(mc), mc));
+	}
+
+	ExactValue multiply(final ExactValue o, final MathContext mc) {
+		if(tier == Tier.LONG && o.tier == Tier.LONG) {
+			try {
+				return of(Math.multiplyExact(longValue, o.longValue));
+			}
+			catch(ArithmeticException e) {
+				return of(BigInteger.valueOf(longValue).multiply(BigInteger.valueOf(o.longValue)));
+			}
+		}
+		if(isExact() && o.isExact())
+			return of(toBigFraction().multiply(o.toBigFraction()));
+		return inexact(asComplex(mc).multiply(o.asComplex(mc), mc));
+	}
+
+	ExactValue divide(final ExactValue o, final MathContext mc) {
+		if(o.tier == Tier.LONG && o.longValue == 0)
+			throw new ArithmeticException("Division by zero");
+		if(tier == Tier.LONG && o.tier == Tier.LONG) {
+			if(longValue % o.longValue == 0 && !(longValue == Long.MIN_VALUE && o.longValue == -1))
+				return of(longValue / o.longValue);
+			return of(BigFraction.of(longValue, o.longValue));
+		}
+		if(isExact() && o.isExact())
+			return of(toBigFraction().divide(o.toBigFraction()));
+		return inexact(asComplex(mc).divide(o.asComplex(mc), mc));
+	}
+
+	/**
+	 * Exact if this value is exact and {@code power} is an integer that fits in an {@code int}, unless the result would be enormous (see
+	 * {@link #MAX_EXACT_POWER_BITS}). Otherwise the power is computed as described in {@link Complex#pow(Complex, MathContext)}.
+	 */
+	ExactValue pow(final ExactValue power, final MathContext mc) {
+		if(isExact() && power.tier == Tier.LONG && power.longValue == (int) power.longValue) {
+			final int n = (int) power.longValue;
+			if(tier == Tier.LONG && n >= 0) {
+				final ExactValue result = longPow(longValue, n);
+				if(result != null)
+					return result;
+			}
+			final BigFraction base = toBigFraction();
+			if(base.isZero() && n < 0)
+				throw new ArithmeticException("Division by zero");
+			final long bits = Math.max(base.getNumerator().bitLength(), base.getDenominator().bitLength());
+			if(bits * Math.abs((long) n) <= MAX_EXACT_POWER_BITS)
+				return of(base.pow(n));
+		}
+		return inexact(asComplex(mc).pow(power.asComplex(mc), mc));
+	}
+
+	/** Returns {@code base^n} in {@link Tier#LONG}, or {@code null} if it overflows. {@code n} must be nonnegative. */
+	private static ExactValue longPow(long base, int n) {
+		long result = 1;
+		try {
+			while(true) {
+				if((n & 1) != 0)
+					result = Math.multiplyExact(result, base);
+				n >>>= 1;
+				if(n == 0)
+					return of(result);
+				base = Math.multiplyExact(base, base);
+			}
+		}
+		catch(ArithmeticException e) {
+			return null;
+		}
+	}
+
+	ExactValue negate(final MathContext mc) {
+		switch(tier) {
+			case LONG: return longValue == Long.MIN_VALUE ? of(BigInteger.valueOf(longValue).negate()) : of(-longValue);
+			case FRACTION: return of(fraction.negate());
+			default: return inexact(complex.negate(mc));
+		}
+	}
+
+	ExactValue abs(final MathContext mc) {
+		switch(tier) {
+			case LONG: return longValue < 0 ? negate(mc) : this;
+			case FRACTION: return of(fraction.abs());
+			default: return inexact(complex.abs(mc));
+		}
+	}
+
+	/**
+	 * Returns the factorial of this value, which must be a nonnegative integer that fits in an {@code int}.
+	 * @throws ArithmeticException if this value is not an integer that fits in an {@code int}.
+	 */
+	ExactValue factorial() {
+		if(tier == Tier.COMPLEX)
+			return inexact(Complex.factorial(complex.intValueExact()));
+		if(tier != Tier.LONG)
+			throw new ArithmeticException(String.format("Cannot take the factorial of %s", this));
+		if(longValue >= 0 && longValue <= Combinatorics.LONG_MAX_FACTORIAL)
+			return of(Combinatorics.factorialExact((int) longValue));
+		return of(Combinatorics.factorial(Math.toIntExact(longValue)));
+	}
+
+	/** Returns this value divided by {@code 100}. */
+	ExactValue percent(final MathContext mc) {
+		switch(tier) {
+			case LONG: return longValue % 100 == 0 ? of(longValue / 100) : of(BigFraction.of(BigInteger.valueOf(longValue), B100));
+			case FRACTION: return of(fraction.divide(BigFraction.of(B100, BigInteger.ONE)));
+			default: return inexact(complex.divide(BD100, mc));
+		}
+	}
+
+	/** Returns the principal square root of this value. See {@link #root(ExactValue, MathContext)}. */
+	ExactValue sqrt(final MathContext mc) {
+		return root(of(2), mc);
+	}
+	
+	/**
+	 * Returns the {@code index}th root of this value. The root is exact if this value is exact, {@code index} is a positive integer, and this
+	 * value is a (real) {@code index}th power of a rational number. Otherwise the root is computed as described in
+	 * {@link Complex#root(Complex, MathContext)}.
+	 */
+	ExactValue root(final ExactValue index, final MathContext mc) {
+		if(isExact() && index.tier == Tier.LONG && index.longValue > 0 && index.longValue <= Integer.MAX_VALUE) {
+			final int n = (int) index.longValue;
+			final BigFraction value = toBigFraction();
+			if(!value.isNegative() || n % 2 != 0) {
+				final BigInteger numerator = BigNumbers.rootExact(value.getNumerator(), n);
+				final BigInteger denominator = numerator == null ? null : BigNumbers.rootExact(value.getDenominator(), n);
+				if(denominator != null)
+					return of(BigFraction.of(value.isNegative() ? numerator.negate() : numerator, denominator));
+			}
+		}
+		return inexact(asComplex(mc).root(index.asComplex(mc), mc));
+	}
+	
+	/**
+	 * Returns the logarithm of this value with the given base. The logarithm is exact if this value and the base are exact and the logarithm is
+	 * rational. Otherwise it is computed as described in {@link Complex#log(Complex, MathContext)}.
+	 */
+	ExactValue log(final ExactValue base, final MathContext mc) {
+		if(isExact() && base.isExact()) {
+			final BigFraction exponent = exactLog(base.toBigFraction(), toBigFraction());
+			if(exponent != null)
+				return of(exponent);
+		}
+		return inexact(asComplex(mc).log(base.asComplex(mc), mc));
+	}
+	
+	/**
+	 * Returns log<sub>{@code base}</sub>({@code x}) if it is rational, otherwise {@code null}. Also returns {@code null} if the logarithm is
+	 * undefined or if either argument is too large to check (see {@link #MAX_EXACT_LOG_BITS}).
+	 * 
+	 * <p>If {@code base} is written as <i>c</i><sup><i>s</i></sup> with <i>s</i> as large as possible, the logarithm is rational if and only
+	 * if {@code x} is an integer power <i>c</i><sup><i>t</i></sup> of <i>c</i>, in which case it is <i>t</i>/<i>s</i>.</p>
+	 */
+	private static BigFraction exactLog(final BigFraction base, final BigFraction x) {
+		if(!base.isPositive() || !x.isPositive() || base.equals(BigFraction.ONE))
+			return null;
+		if(x.equals(BigFraction.ONE))
+			return BigFraction.ZERO;
+		final int baseBits = Math.max(base.getNumerator().bitLength(), base.getDenominator().bitLength());
+		if(baseBits > MAX_EXACT_LOG_BITS || Math.max(x.getNumerator().bitLength(), x.getDenominator().bitLength()) > MAX_EXACT_LOG_BITS)
+			return null;
+		BigFraction c = base;
+		int s = 1;
+		for(int n = baseBits; n >= 2; n--) {
+			final BigInteger numerator = BigNumbers.rootExact(base.getNumerator(), n);
+			final BigInteger denominator = numerator == null ? null : BigNumbers.rootExact(base.getDenominator(), n);
+			if(denominator != null) {
+				c = BigFraction.of(numerator, denominator);
+				s = n;
+				break;
+			}
+		}
+		final double logC = log(c), t = Math.rint(log(x) / logC);
+		if(t == 0 || Math.abs(t) * baseBits / s > MAX_EXACT_LOG_BITS || !c.pow((int) t).equals(x))
+			return null;
+		return BigFraction.of((long) t, s);
+	}
+	
+	/** Returns an approximation of the natural logarithm of {@code f}, which must be positive. */
+	private static double log(final BigFraction f) {
+		return BigNumbers.log(f.getNumerator()) - BigNumbers.log(f.getDenominator());
+	}
+	
+	/**
+	 * Returns this value modulo {@code divisor}; the result has the same sign as {@code divisor}, as in {@link Math#floorMod(long, long)}. The
+	 * result is exact unless either value is in {@link Tier#COMPLEX}.
+	 * @throws ArithmeticException if {@code divisor} is zero.
+	 */
+	ExactValue mod(final ExactValue divisor, final MathContext mc) {
+		if(divisor.tier == Tier.LONG && divisor.longValue == 0)
+			throw new ArithmeticException("Division by zero");
+		if(tier == Tier.LONG && divisor.tier == Tier.LONG)
+			return of(Math.floorMod(longValue, divisor.longValue));
+		if(isExact() && divisor.isExact()) {
+			final BigFraction a = toBigFraction(), b = divisor.toBigFraction(), quotient = a.divide(b);
+			final BigInteger[] qr = signedNumerator(quotient).divideAndRemainder(quotient.getDenominator());
+			final BigInteger floor = qr[1].signum() < 0 ? qr[0].subtract(BigInteger.ONE) : qr[0];
+			return of(a.subtract(b.multiply(BigFraction.of(floor, BigInteger.ONE))));
+		}
+		return inexact(asComplex(mc).mod(divisor.asComplex(mc), mc));
+	}
+	
+	/** Returns this value as a {@link Complex} number, rounding only if it is a {@link BigFraction}. */
+	private Complex asComplex(final MathContext mc) {
+		switch(tier) {
+			case LONG: return Complex.valueOf(longValue);
+			case FRACTION: return toComplex(mc);
+			default: return complex;
+		}
+	}
+
+	private static BigInteger signedNumerator(final BigFraction f) {
+		return f.isNegative() ? f.getNumerator().negate() : f.getNumerator();
+	}
+
+	@Override
+	public String toString() {
+		switch(tier) {
+			case LONG: return String.format("%d (%s)", longValue, tier);
+			case FRACTION: return String.format("%s (%s)", fraction, tier);
+			default: return String.format("%s (%s)", complex, tier);
+		}
+	}
+
+}
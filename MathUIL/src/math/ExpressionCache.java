@@ -0,0 +1,218 @@
+package math;
+
+import java.math.MathContext;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+
+import math.Evaluator.Expression;
+
+/**
+ * <p>A bounded cache of parsed expressions used by {@link Evaluator}. Each entry maps the normalized text of an expression (the expression with
+ * all whitespace removed) to its immutable expression tree, along with the result of evaluating that tree under every {@link MathContext} it has
+ * been evaluated with so far.</p>
+ *
+ * <p>An {@code ExpressionCache} holds at most {@link #maxSize()} entries, though concurrent insertions may briefly exceed that bound before
+ * they are evicted. Eviction is approximately least recently used: every lookup stamps its entry with the value of a clock that only advances
+ * when an entry is inserted, so entries used since the same insertion are tied. When the cache grows past its bound, the entries with the
+ * oldest stamps are evicted in a batch of about a sixteenth of the cache, so that most insertions do not evict anything. A cache with a
+ * maximum size of {@code 0} stores nothing, so every lookup is a miss.</p>
+ *
+ * <p>{@code ExpressionCaches} are safe for use by multiple concurrent threads, and lookups that hit never lock: the entries are kept in a
+ * {@link ConcurrentHashMap}, and an entry's stamp is only written the first time it is used after the clock advances. Parsing happens outside
+ * of any lock, so two threads that miss on the same expression at the same time may both parse it; only one of the resulting trees is kept.
+ * Only eviction is serialized.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ExpressionCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private static final class CachedExpression {
+
+		private final Expression expression;
+		private final Map<MathContext, Complex> results;
+		/** {@code null} until first computed. Racy, but {@link ExactValue} is immutable and every computation gives an equal result. */
+		private volatile ExactValue exactResult;
+		/** The value of {@link ExpressionCache#clock} when this entry was last used. */
+		private volatile long lastUsed;
+
+		CachedExpression(final Expression expression, final long lastUsed) {
+			this.expression = expression;
+			this.results = new ConcurrentHashMap<>(2);
+			this.lastUsed = lastUsed;
+		}
+
+		/** Only writes {@link #lastUsed} if it changes, so that threads sharing a hot entry do not contend on it. */
+		void touch(final long now) {
+			if(lastUsed < now)
+				lastUsed = now;
+		}
+
+		Complex evaluate(final MathContext resultContext) {
+			Complex result = results.get(resultContext);
+			if(result == null) {
+				result = expression.eval().round(resultContext);
+				results.putIfAbsent(resultContext, result);
+			}
+			return result;
+		}
+
+		ExactValue evaluateExact() {
+			ExactValue result = exactResult;
+			if(result == null)
+				exactResult = result = expression.evalExact();
+			return result;
+		}
+
+	}
+
+	private final ConcurrentHashMap<String, CachedExpression> entries;
+	/** Advanced by every insertion. Read, but not written, by every hit. */
+	private final AtomicLong clock;
+	/** Held while evicting, so that concurrent insertions do not evict the same entries twice. */
+	private final Object evictionLock;
+	private final LongAdder hits, misses;
+	private volatile int maxSize;
+
+	/** Creates a new {@link ExpressionCache} that holds at most {@link #DEFAULT_MAX_SIZE} entries.*/
+	public ExpressionCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link ExpressionCache} that holds at most {@code maxSize} entries.
+	 * @throws IllegalArgumentException if {@code maxSize < 0}.
+	 */
+	public ExpressionCache(final int maxSize) {
+		checkMaxSize(maxSize);
+		this.maxSize = maxSize;
+		this.entries = new ConcurrentHashMap<>();
+		this.clock = new AtomicLong();
+		this.evictionLock = new Object();
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+	}
+
+	private static void checkMaxSize(final int maxSize) {
+		if(maxSize < 0)
+			throw new IllegalArgumentException("maxSize < 0");
+	}
+
+	/**
+	 * Returns the result of evaluating the given expression, rounded using the given {@link MathContext}. The expression is only parsed if it
+	 * is not already in this cache, and it is only evaluated if it has not already been evaluated with {@code resultContext}.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 */
+	public Complex evaluate(final String expression, final MathContext resultContext) {
+		return entryFor(Evaluator.normalize(expression)).evaluate(resultContext);
+	}
+
+	/**
+	 * Returns the result of {@link Evaluator#evaluateExact(String) evaluating the given expression exactly}. The expression is only parsed if it
+	 * is not already in this cache, and it is only evaluated once.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 */
+	public ExactValue evaluateExact(final String expression) {
+		return entryFor(Evaluator.normalize(expression)).evaluateExact();
+	}
+
+	/**
+	 * Returns the immutable expression tree for the given {@link Evaluator#normalize(String) normalized} expression, parsing it if it is not
+	 * already in this cache.
+	 */
+	Expression expressionFor(final String normalizedExpression) {
+		return entryFor(normalizedExpression).expression;
+	}
+
+	private CachedExpression entryFor(final String normalizedExpression) {
+		final long now = clock.get();
+		CachedExpression entry = entries.get(normalizedExpression);
+		if(entry != null) {
+			hits.increment();
+			entry.touch(now);
+			return entry;
+		}
+		misses.increment();
+		final CachedExpression parsed = new CachedExpression(Evaluator.parse(normalizedExpression), clock.incrementAndGet());
+		entry = entries.putIfAbsent(normalizedExpression, parsed);
+		if(entry != null) {
+			entry.touch(now);
+			return entry;
+		}
+		if(entries.size() > maxSize)
+			evict(maxSize);
+		return parsed;
+	}
+
+	/**
+	 * Evicts the least recently used entries until this cache holds at most {@code max - max / 16} of them, or does nothing if it already holds
+	 * at most {@code max}.
+	 */
+	private void evict(final int max) {
+		synchronized(evictionLock) {
+			if(entries.size() <= max)
+				return;
+			final List<Map.Entry<String, CachedExpression>> candidates = new ArrayList<>(entries.entrySet());
+			final int excess = candidates.size() - (max - (max >> 4));
+			if(excess <= 0)
+				return;
+			final long[] stamps = new long[candidates.size()];
+			for(int i = 0; i < stamps.length; i++)
+				stamps[i] = candidates.get(i).getValue().lastUsed;
+			Arrays.sort(stamps);
+			final long cutoff = stamps[excess - 1];
+			int removed = 0;
+			for(Map.Entry<String, CachedExpression> candidate : candidates) { //Ties at the cutoff are removed in iteration order.
+				if(removed == excess)
+					break;
+				if(candidate.getValue().lastUsed <= cutoff && entries.remove(candidate.getKey(), candidate.getValue()))
+					removed++;
+			}
+		}
+	}
+
+	/** Returns the number of entries currently in this cache. */
+	public int size() {
+		return entries.size();
+	}
+
+	public int maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum number of entries this cache may hold. If the cache currently holds more than {@code newMaxSize} entries, the least
+	 * recently used entries are evicted immediately.
+	 * @throws IllegalArgumentException if {@code newMaxSize < 0}.
+	 */
+	public void setMaxSize(final int newMaxSize) {
+		checkMaxSize(newMaxSize);
+		maxSize = newMaxSize;
+		evict(newMaxSize);
+	}
+
+	/** Returns the number of lookups that found their expression already parsed. */
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	/** Returns the number of lookups that had to parse their expression. */
+	public long missCount() {
+		return misses.sum();
+	}
+
+	/** Removes every entry from this cache and resets the {@link #hitCount() hit} and {@link #missCount() miss} counters. */
+	public void clear() {
+		entries.clear();
+		hits.reset();
+		misses.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ExpressionCache[size=%d, maxSize=%d, hits=%d, misses=%d]", size(), maxSize(), hitCount(), missCount());
+	}
+
+}
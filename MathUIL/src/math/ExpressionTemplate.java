@@ -0,0 +1,475 @@
+package math;
+
+import java.math.*;
+import java.util.*;
+
+import static math.Operators.*;
+
+import math.Evaluator.*;
+import utils.IntList;
+
+/**
+ * <p>An expression with named variables, such as {@code a*b+c}, that has been {@link Evaluator#compile(String, String...) compiled} once into
+ * an immutable, flat program. The program can then be evaluated against any number of {@code long[]} or {@link Complex Complex[]} bindings
+ * without reparsing. The {@code i}th binding is the value of the {@code i}th {@link #variables() variable}.</p>
+ *
+ * <p>The program is a sequence of {@code int} instructions in postfix order, evaluated with an operand stack whose size is known at compile
+ * time. {@link #evaluateExact(long...)} first runs the program on a {@code long} stack with {@link Math#addExact(long, long)} and friends; if
+ * a value overflows or is not an integer, it runs the program again using {@link ExactValue ExactValues}, so its result matches
+ * {@link Evaluator#evaluateExact(String)} on the {@link #toExpression(long...) substituted expression}.</p>
+ *
+ * <p>{@code ExpressionTemplates} are immutable and safe for use by multiple concurrent threads.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ExpressionTemplate {
+
+	/*
+	 * Every other instruction is the opcode of an operator or function, as registered in Operators. These two are negative, so that they never
+	 * collide with an opcode, and are followed by the index of the constant or variable to push. No instruction is emitted for
+	 * Operators.IDENTITY.
+	 */
+	static final int PUSH_CONSTANT = Operators.NONE - 1, PUSH_VARIABLE = Operators.NONE - 2;
+
+	private static final BigDecimal B100 = BigDecimal.valueOf(100);
+
+	private final String text;
+	private final List<String> variables;
+	private final int[] code;
+	private final Complex[] constants;
+	private final ExactValue[] exactConstants;
+	private final int maxStackSize;
+	/** {@code (start, end, variable)} triples giving the location in {@link #text} of every occurrence of a variable, in order. */
+	private final int[] occurrences;
+
+	ExpressionTemplate(final String text, final List<String> variables, final Expression tree, final IntList occurrences) {
+		this.text = text;
+		this.variables = variables;
+		final Compiler compiler = new Compiler();
+		compiler.emit(tree);
+		this.code = compiler.code.toArray();
+		this.constants = compiler.constants.toArray(new Complex[0]);
+		this.exactConstants = new ExactValue[constants.length];
+		for(int i = 0; i < constants.length; i++)
+			exactConstants[i] = ExactValue.fromConstant(constants[i]);
+		this.maxStackSize = compiler.maxStackSize;
+		this.occurrences = occurrences.toArray();
+	}
+
+	private static final class Compiler {
+
+		final IntList code = new IntList();
+		final List<Complex> constants = new ArrayList<>();
+		int stackSize = 0, maxStackSize = 0;
+
+		void emit(final Expression expr) {
+			if(expr instanceof BinaryOperator) {
+				final BinaryOperator b = (BinaryOperator) expr;
+				emit(b.left);
+				emit(b.right);
+				code.add(b.opcode());
+				stackSize--;
+			}
+			else if(expr instanceof UnaryOperator) {
+				final UnaryOperator u = (UnaryOperator) expr;
+				emit(u.expr);
+				if(u.opcode() != IDENTITY)
+					code.add(u.opcode());
+			}
+			else if(expr instanceof FunctionCall) {
+				final FunctionCall f = (FunctionCall) expr;
+				for(final Expression arg : f.args)
+					emit(arg);
+				code.add(f.opcode());
+				stackSize -= f.args.length - 1;
+			}
+			else if(expr instanceof VariableExpression) {
+				push(PUSH_VARIABLE, ((VariableExpression) expr).index());
+			}
+			else {
+				constants.add(expr.eval());
+				push(PUSH_CONSTANT, constants.size() - 1);
+			}
+		}
+
+		private void push(final int opcode, final int index) {
+			code.add(opcode);
+			code.add(index);
+			maxStackSize = Math.max(maxStackSize, ++stackSize);
+		}
+
+	}
+
+	/** Returns the names of the variables of this template, in the order their bindings are given. */
+	public List<String> variables() {
+		return variables;
+	}
+
+	public int variableCount() {
+		return variables.size();
+	}
+
+	private void checkBindings(final int bindingCount) {
+		if(bindingCount != variableCount())
+			throw new IllegalArgumentException(String.format("Expected %d bindings, got %d", variableCount(), bindingCount));
+	}
+
+	/**
+	 * Returns the exact value of this template with the given bindings, as described in {@link Evaluator#evaluateExact(String)}.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}.
+	 * @throws ArithmeticException if the expression divides by zero or takes the factorial of a non-integer.
+	 */
+	public ExactValue evaluateExact(final long... bindings) {
+		return evaluateExact(bindings, null);
+	}
+	
+	/**
+	 * Equivalent to {@link #evaluateExact(long...)}, but uses {@code scratch} as the operand stack if it is at least {@link #maxStackSize()} long,
+	 * so that repeated evaluations on one thread do not allocate.
+	 */
+	ExactValue evaluateExact(final long[] bindings, final long[] scratch) {
+		checkBindings(bindings.length);
+		final long[] stack = scratch != null && scratch.length >= maxStackSize ? scratch : new long[maxStackSize];
+		if(evaluateLong(bindings, stack))
+			return ExactValue.of(stack[0]);
+		return evaluateExactValues(bindings);
+	}
+	
+	/**
+	 * Returns {@code evaluateExact(bindings).remainder(divisor)}. If every intermediate value fits in a {@code long}, the remainder is taken
+	 * of the {@code long} result; otherwise, if the template can be {@link #evaluateModulo(long, long...) evaluated modulo} {@code |divisor|}
+	 * and the sign of its value can be determined without computing it, the value is never computed.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}, or if the value has an imaginary part.
+	 * @throws ArithmeticException if {@code divisor} is {@code 0} or the template cannot be evaluated.
+	 */
+	public ExactValue remainder(final long[] bindings, final long divisor) {
+		checkBindings(bindings.length);
+		if(divisor == 0)
+			throw new ArithmeticException("Division by zero");
+		final long[] stack = new long[maxStackSize];
+		if(evaluateLong(bindings, stack))
+			return ExactValue.of(stack[0] % divisor);
+		if(divisor != Long.MIN_VALUE) {
+			final long modulus = Math.abs(divisor);
+			final int[] signs = new int[maxStackSize];
+			if(evaluateModular(bindings, modulus, stack, signs)) {
+				final ExactValue remainder = Evaluator.remainderOf(stack[0], modulus, signs[0]);
+				if(remainder != null)
+					return remainder;
+			}
+		}
+		return evaluateExactValues(bindings).remainder(divisor);
+	}
+	
+	/**
+	 * Returns the value of this template with the given bindings modulo {@code modulus}, as described in
+	 * {@link Evaluator#evaluateModulo(String, long)}.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}.
+	 * @throws ArithmeticException if {@code modulus} is not positive, or if the template cannot be evaluated in modular arithmetic.
+	 */
+	public long evaluateModulo(final long modulus, final long... bindings) {
+		checkBindings(bindings.length);
+		if(modulus <= 0)
+			throw new ArithmeticException("The modulus must be positive: " + modulus);
+		final long[] residues = new long[maxStackSize];
+		if(!evaluateModular(bindings, modulus, residues, new int[maxStackSize]))
+			throw new ArithmeticException("Cannot be evaluated in modular arithmetic: " + this);
+		return residues[0];
+	}
+	
+	/**
+	 * Runs the program on residues modulo {@code modulus}, tracking the sign of every intermediate value (as described in
+	 * {@link Evaluator.Expression#evalSignum()}) and an interval containing it, from which exponents and the arguments of factorials are read.
+	 * Returns {@code false} if an instruction is not supported in modular arithmetic, leaving the result in {@code residues[0]} and its sign in
+	 * {@code signs[0]}.
+	 */
+	private boolean evaluateModular(final long[] bindings, final long modulus, final long[] residues, final int[] signs) {
+		final DoubleInterval[] intervals = new DoubleInterval[maxStackSize];
+		int top = -1;
+		try {
+			for(int pc = 0; pc < code.length; pc++) {
+				switch(code[pc]) {
+					case PUSH_CONSTANT:
+						final int index = code[++pc];
+						top++;
+						residues[top] = exactConstants[index].residue(modulus);
+						intervals[top] = DoubleInterval.of(constants[index]);
+						signs[top] = intervals[top].signum();
+						break;
+					case PUSH_VARIABLE:
+						final long value = bindings[code[++pc]];
+						top++;
+						residues[top] = Math.floorMod(value, modulus);
+						intervals[top] = DoubleInterval.of(BigDecimal.valueOf(value));
+						signs[top] = Long.signum(value);
+						break;
+					case ADD:
+						top--;
+						residues[top] = Modular.add(residues[top], residues[top + 1], modulus);
+						intervals[top] = intervals[top].add(intervals[top + 1]);
+						signs[top] = signumOrElse(Evaluator.signumOfSum(signs[top], signs[top + 1]), intervals[top]);
+						break;
+					case SUBTRACT:
+						top--;
+						residues[top] = Modular.subtract(residues[top], residues[top + 1], modulus);
+						intervals[top] = intervals[top].subtract(intervals[top + 1]);
+						signs[top] = signumOrElse(Evaluator.signumOfSum(signs[top], Evaluator.negateSignum(signs[top + 1])), intervals[top]);
+						break;
+					case MULTIPLY:
+						top--;
+						residues[top] = Modular.multiply(residues[top], residues[top + 1], modulus);
+						intervals[top] = intervals[top].multiply(intervals[top + 1]);
+						signs[top] = Evaluator.signumOfProduct(signs[top], signs[top + 1]);
+						break;
+					case POWER:
+						top--;
+						final long exponent = Evaluator.exactExponent(intervals[top + 1]);
+						residues[top] = Modular.pow(residues[top], exponent, modulus);
+						intervals[top] = intervals[top].pow(intervals[top + 1]);
+						signs[top] = Evaluator.signumOfPower(signs[top], exponent);
+						break;
+					case NEGATE:
+						residues[top] = Modular.negate(residues[top], modulus);
+						intervals[top] = intervals[top].negate();
+						signs[top] = Evaluator.negateSignum(signs[top]);
+						break;
+					case ABSOLUTE_VALUE:
+						if(signs[top] == DoubleInterval.UNKNOWN_SIGNUM)
+							return false;
+						if(signs[top] < 0)
+							residues[top] = Modular.negate(residues[top], modulus);
+						intervals[top] = intervals[top].abs();
+						signs[top] = Math.abs(signs[top]);
+						break;
+					case FACTORIAL:
+						residues[top] = Modular.factorial(Evaluator.exactInteger(intervals[top]), modulus);
+						intervals[top] = intervals[top].factorial();
+						signs[top] = 1;
+						break;
+					case DIVIDE: case PERCENT: case SQRT: case ROOT: case LOG: case MOD: return false;
+					default:
+						checkRegisteredFunction(code[pc]);
+						return false;
+				}
+			}
+		}
+		catch(ArithmeticException e) {
+			return false;
+		}
+		return true;
+	}
+	
+	private static int signumOrElse(final int signum, final DoubleInterval interval) {
+		return signum == DoubleInterval.UNKNOWN_SIGNUM ? interval.signum() : signum;
+	}
+	
+	/** Returns the size of the operand stack needed to evaluate this template. */
+	int maxStackSize() {
+		return maxStackSize;
+	}
+
+	/** Returns {@code false} if any intermediate value is not an integer that fits in a {@code long}, leaving the result in {@code stack[0]}. */
+	private boolean evaluateLong(final long[] bindings, final long[] stack) {
+		int top = -1;
+		try {
+			for(int pc = 0; pc < code.length; pc++) {
+				switch(code[pc]) {
+					case PUSH_CONSTANT:
+						final ExactValue constant = exactConstants[code[++pc]];
+						if(constant.tier() != ExactValue.Tier.LONG)
+							return false;
+						stack[++top] = constant.longValueExact();
+						break;
+					case PUSH_VARIABLE: stack[++top] = bindings[code[++pc]]; break;
+					case ADD: top--; stack[top] = Math.addExact(stack[top], stack[top + 1]); break;
+					case SUBTRACT: top--; stack[top] = Math.subtractExact(stack[top], stack[top + 1]); break;
+					case MULTIPLY: top--; stack[top] = Math.multiplyExact(stack[top], stack[top + 1]); break;
+					case DIVIDE:
+						top--;
+						final long divisor = stack[top + 1];
+						if(divisor == 0 || stack[top] % divisor != 0 || stack[top] == Long.MIN_VALUE && divisor == -1)
+							return false;
+						stack[top] /= divisor;
+						break;
+					case POWER:
+						top--;
+						final long n = stack[top + 1];
+						if(n < 0 || n > Integer.MAX_VALUE)
+							return false;
+						stack[top] = powExact(stack[top], (int) n);
+						break;
+					case NEGATE: stack[top] = Math.negateExact(stack[top]); break;
+					case ABSOLUTE_VALUE: stack[top] = Math.absExact(stack[top]); break;
+					case FACTORIAL:
+						if(stack[top] < 0 || stack[top] > Combinatorics.LONG_MAX_FACTORIAL)
+							return false;
+						stack[top] = Combinatorics.factorialExact((int) stack[top]);
+						break;
+					case PERCENT:
+						if(stack[top] % 100 != 0)
+							return false;
+						stack[top] /= 100;
+						break;
+					case SQRT:
+						stack[top] = sqrtExact(stack[top]);
+						if(stack[top] < 0)
+							return false;
+						break;
+					case MOD:
+						top--;
+						if(stack[top + 1] == 0)
+							return false;
+						stack[top] = Math.floorMod(stack[top], stack[top + 1]);
+						break;
+					case ROOT: case LOG: return false;
+					default:
+						checkRegisteredFunction(code[pc]);
+						return false;
+				}
+			}
+		}
+		catch(ArithmeticException e) {
+			return false;
+		}
+		return true;
+	}
+
+	/** Returns {@code base^n}. {@code n} must be nonnegative. */
+	private static long powExact(long base, int n) {
+		long result = 1;
+		while(true) {
+			if((n & 1) != 0)
+				result = Math.multiplyExact(result, base);
+			n >>>= 1;
+			if(n == 0)
+				return result;
+			base = Math.multiplyExact(base, base);
+		}
+	}
+
+	/** Returns the square root of {@code x} if it is a perfect square, otherwise {@code -1}. */
+	private static long sqrtExact(final long x) {
+		if(x < 0)
+			return -1;
+		long root = (long) Math.sqrt(x);
+		while(root > 0 && root > x / root) //the double square root may be off by one in either direction.
+			root--;
+		while(root + 1 <= x / (root + 1))
+			root++;
+		return root * root == x ? root : -1;
+	}
+	
+	private ExactValue evaluateExactValues(final long[] bindings) {
+		final MathContext mc = Evaluator.INTERMEDIATE_MATH_CONTEXT;
+		final ExactValue[] stack = new ExactValue[maxStackSize];
+		int top = -1;
+		for(int pc = 0; pc < code.length; pc++) {
+			switch(code[pc]) {
+				case PUSH_CONSTANT: stack[++top] = exactConstants[code[++pc]]; break;
+				case PUSH_VARIABLE: stack[++top] = ExactValue.of(bindings[code[++pc]]); break;
+				case ADD: top--; stack[top] = stack[top].add(stack[top + 1], mc); break;
+				case SUBTRACT: top--; stack[top] = stack[top].subtract(stack[top + 1], mc); break;
+				case MULTIPLY: top--; stack[top] = stack[top].multiply(stack[top + 1], mc); break;
+				case DIVIDE: top--; stack[top] = stack[top].divide(stack[top + 1], mc); break;
+				case POWER: top--; stack[top] = stack[top].pow(stack[top + 1], mc); break;
+				case NEGATE: stack[top] = stack[top].negate(mc); break;
+				case ABSOLUTE_VALUE: stack[top] = stack[top].abs(mc); break;
+				case FACTORIAL: stack[top] = stack[top].factorial(); break;
+				case PERCENT: stack[top] = stack[top].percent(mc); break;
+				case SQRT: stack[top] = stack[top].sqrt(mc); break;
+				case ROOT: top--; stack[top] = stack[top + 1].root(stack[top], mc); break;
+				case LOG: top--; stack[top] = stack[top + 1].log(stack[top], mc); break;
+				case MOD: top--; stack[top] = stack[top].mod(stack[top + 1], mc); break;
+				default:
+					final int arity = Operators.arity(checkRegisteredFunction(code[pc]));
+					final Complex[] args = new Complex[arity];
+					top -= arity - 1;
+					for(int i = 0; i < arity; i++)
+						args[i] = stack[top + i].toComplex(mc);
+					stack[top] = ExactValue.fromConstant(Operators.apply(code[pc], args));
+			}
+		}
+		return stack[0];
+	}
+
+	/**
+	 * Returns the value of this template with the given bindings, rounded using {@link Evaluator#DEFAULT_RESULT_CONTEXT}.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}.
+	 */
+	public Complex evaluate(final Complex... bindings) {
+		return evaluate(bindings, Evaluator.DEFAULT_RESULT_CONTEXT);
+	}
+
+	/**
+	 * Returns the value of this template with the given bindings, rounded using the given {@link MathContext}. The result is the same as that of
+	 * {@link Evaluator#evaluateAsComplex(String, MathContext)}.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}.
+	 */
+	public Complex evaluate(final Complex[] bindings, final MathContext resultContext) {
+		checkBindings(bindings.length);
+		final MathContext mc = Evaluator.INTERMEDIATE_MATH_CONTEXT;
+		final Complex[] stack = new Complex[maxStackSize];
+		int top = -1;
+		for(int pc = 0; pc < code.length; pc++) {
+			switch(code[pc]) {
+				case PUSH_CONSTANT: stack[++top] = constants[code[++pc]]; break;
+				case PUSH_VARIABLE: stack[++top] = bindings[code[++pc]]; break;
+				case ADD: top--; stack[top] = stack[top].add(stack[top + 1], mc); break;
+				case SUBTRACT: top--; stack[top] = stack[top].subtract(stack[top + 1], mc); break;
+				case MULTIPLY: top--; stack[top] = stack[top].multiply(stack[top + 1], mc); break;
+				case DIVIDE: top--; stack[top] = stack[top].divide(stack[top + 1], mc); break;
+				case POWER: top--; stack[top] = stack[top].pow(stack[top + 1], mc); break;
+				case NEGATE: stack[top] = stack[top].negate(mc); break;
+				case ABSOLUTE_VALUE: stack[top] = stack[top].abs(mc); break;
+				case FACTORIAL: stack[top] = Complex.factorial(stack[top].intValueExact()); break;
+				case PERCENT: stack[top] = stack[top].divide(B100, mc); break;
+				case SQRT: stack[top] = stack[top].sqrt(mc); break;
+				case ROOT: top--; stack[top] = stack[top + 1].root(stack[top], mc); break;
+				case LOG: top--; stack[top] = stack[top + 1].log(stack[top], mc); break;
+				case MOD: top--; stack[top] = stack[top].mod(stack[top + 1], mc); break;
+				default:
+					final int arity = Operators.arity(checkRegisteredFunction(code[pc]));
+					top -= arity - 1;
+					stack[top] = Operators.apply(code[pc], Arrays.copyOfRange(stack, top, top + arity));
+			}
+		}
+		return stack[0].round(resultContext);
+	}
+	
+	/**
+	 * Returns {@code opcode} if it is a function registered with {@link Evaluator#registerFunction(String, int, java.util.function.Function)}.
+	 * @throws IllegalStateException otherwise.
+	 */
+	private static int checkRegisteredFunction(final int opcode) {
+		if(!Operators.isRegisteredFunction(opcode))
+			throw new IllegalStateException("Unknown opcode: " + opcode);
+		return opcode;
+	}
+
+	/**
+	 * Returns the text of this template with every variable replaced by its binding. Negative bindings are put in parentheses, so the returned
+	 * expression always has the same value as this template.
+	 * @throws IllegalArgumentException if the number of bindings is not {@link #variableCount()}.
+	 */
+	public String toExpression(final long... bindings) {
+		checkBindings(bindings.length);
+		final StringBuilder sb = new StringBuilder(text.length() + occurrences.length * 2);
+		int last = 0;
+		for(int i = 0; i < occurrences.length; i += 3) {
+			sb.append(text, last, occurrences[i]);
+			final long value = bindings[occurrences[i + 2]];
+			if(value < 0)
+				sb.append('(').append(value).append(')');
+			else
+				sb.append(value);
+			last = occurrences[i + 1];
+		}
+		return sb.append(text, last, text.length()).toString();
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+}
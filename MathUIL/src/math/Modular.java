@@ -0,0 +1,116 @@
+package math;
+
+/**
+ * <p>Arithmetic on residues modulo a positive {@code long} modulus <i>m</i>. Every argument named {@code a} or {@code b} must already be
+ * {@link #reduce(long, long) reduced}, that is, at least {@code 0} and less than <i>m</i>, and every result is reduced. No method overflows,
+ * whatever the modulus, and none computes the value it is reducing.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class Modular {
+
+	/** Below this modulus, the product of two residues fits in a {@code long}: 3037000499<sup>2</sup> &lt; 2<sup>63</sup>. */
+	private static final long MAX_DIRECT_MULTIPLY_MODULUS = 3_037_000_499L;
+
+	private Modular() {}
+
+	private static void checkModulus(final long m) {
+		if(m <= 0)
+			throw new ArithmeticException("The modulus must be positive: " + m);
+	}
+
+	/**
+	 * Returns {@code x} modulo {@code m}, as described in {@link Math#floorMod(long, long)}; the result is never negative.
+	 * @throws ArithmeticException if {@code m} is not positive.
+	 */
+	public static long reduce(final long x, final long m) {
+		checkModulus(m);
+		return Math.floorMod(x, m);
+	}
+
+	/** Returns {@code (a + b) mod m}. */
+	public static long add(final long a, final long b, final long m) {
+		final long difference = a - (m - b); //a + b - m, which cannot overflow.
+		return difference < 0 ? difference + m : difference;
+	}
+
+	/** Returns {@code (a - b) mod m}. */
+	public static long subtract(final long a, final long b, final long m) {
+		final long difference = a - b;
+		return difference < 0 ? difference + m : difference;
+	}
+
+	/** Returns {@code (-a) mod m}. */
+	public static long negate(final long a, final long m) {
+		return a == 0 ? 0 : m - a;
+	}
+
+	/** Returns {@code (a * b) mod m}. */
+	public static long multiply(long a, long b, final long m) {
+		if(m <= MAX_DIRECT_MULTIPLY_MODULUS)
+			return a * b % m;
+		/* Double-and-add, which never needs more than 64 bits. */
+		long result = 0;
+		if(a < b) {
+			final long temp = a;
+			a = b;
+			b = temp;
+		}
+		for(; b > 0; b >>>= 1) {
+			if((b & 1) != 0)
+				result = add(result, a, m);
+			a = add(a, a, m);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns {@code (a^exponent) mod m}, computed by repeated squaring. {@code 0^0} is {@code 1 mod m}.
+	 * @throws ArithmeticException if {@code exponent} is negative and {@code a} has no inverse modulo {@code m}.
+	 */
+	public static long pow(long a, long exponent, final long m) {
+		if(exponent < 0) {
+			a = inverse(a, m);
+			exponent = -exponent; //Long.MIN_VALUE stays negative, and is then read as 2^63 by the unsigned shift below.
+		}
+		long result = 1 % m;
+		for(; exponent != 0; exponent >>>= 1) {
+			if((exponent & 1) != 0)
+				result = multiply(result, a, m);
+			a = multiply(a, a, m);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the inverse of {@code a} modulo {@code m}, as described in {@link NumberTheory#modInverse(long, long)}.
+	 * @throws ArithmeticException if {@code a} is not relatively prime to {@code m}.
+	 */
+	public static long inverse(final long a, final long m) {
+		return NumberTheory.modInverse(a, m);
+	}
+
+	/**
+	 * Returns {@code (a * b^-1) mod m}.
+	 * @throws ArithmeticException if {@code b} is not relatively prime to {@code m}.
+	 */
+	public static long divide(final long a, final long b, final long m) {
+		return multiply(a, inverse(b, m), m);
+	}
+
+	/**
+	 * Returns {@code n! mod m}, in <i>O</i>(min(<i>n</i>, <i>m</i>)) time; it is {@code 0} if {@code n >= m}.
+	 * @throws ArithmeticException if {@code n} is negative.
+	 */
+	public static long factorial(final long n, final long m) {
+		if(n < 0)
+			throw new ArithmeticException("Cannot take the factorial of a negative number: " + n);
+		if(n >= m)
+			return 0;
+		long result = 1 % m;
+		for(long i = 2; i <= n; i++)
+			result = multiply(result, i, m);
+		return result;
+	}
+
+}
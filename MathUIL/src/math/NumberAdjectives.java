@@ -1,6 +1,7 @@
 package math;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * @author Sam Hooper
@@ -11,7 +12,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() < n * 2;
+			return divisorSum(n) < n * 2;
 		}
 		
 	},
@@ -19,7 +20,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() == n * 2;
+			return divisorSum(n) == n * 2;
 		}
 		
 	},
@@ -27,7 +28,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() > n * 2;
+			return divisorSum(n) > n * 2;
 		}
 		
 	},
@@ -35,14 +36,10 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			Set<Integer> seen = new HashSet<>();
-			while(n != 1) {
-				if(seen.contains(n))
-					return false;
-				seen.add(n);
-				n = Utils.digits(n).map(x -> x * x).sum();
-			}
-			return true;
+			/* Every unhappy number eventually reaches the cycle 4, 16, 37, 58, 89, 145, 42, 20, 4. */
+			while(n > 1 && n != 4)
+				n = digitSquareSum(n);
+			return n == 1;
 		}
 		
 	},
@@ -115,13 +112,198 @@ public enum NumberAdjectives {
 	
 	public abstract boolean describes(int n);
 	
+	/**
+	 * The greatest number whose {@link #mask(int) mask} is stored in the {@link Table}. It is {@code 10,000} unless the system property
+	 * {@code math.NumberAdjectives.max} is set to a greater value.
+	 */
+	public static final int TABLE_MAX = Math.max(10_000, Integer.getInteger("math.NumberAdjectives.max", 10_000));
+	
+	/** All of the adjectives, in {@link #ordinal() ordinal} order. */
+	private static final NumberAdjectives[] VALUES = values();
+	
+	/** The masks of every number from {@code 1} to {@link #TABLE_MAX}, built in parallel the first time one of them is needed. */
+	private static final class Table {
+		
+		static final int[] MASKS = buildTable();
+		
+	}
+	
+	/**
+	 * Returns the masks of every number from {@code 1} to {@link #TABLE_MAX}. This is not done in the static initializer of {@link Table}, since
+	 * the worker threads would block until that initializer finished.
+	 */
+	private static int[] buildTable() {
+		ArithmeticFunctions.upTo(Math.min(TABLE_MAX, ArithmeticFunctions.LIMIT)); //grow the shared tables once, up front.
+		final int[] masks = new int[TABLE_MAX + 1];
+		IntStream.rangeClosed(1, TABLE_MAX).parallel().forEach(n -> masks[n] = computeMask(n));
+		return masks;
+	}
+	
+	/**
+	 * <p>An inverted index from masks to the numbers in a range that have them. The numbers are partitioned into groups, one for each distinct
+	 * {@link NumberAdjectives#mask(int) mask}, and can be looked up by their position within a group or within the complement of a group.</p>
+	 *
+	 * <p>{@code MaskIndexes} are immutable.</p>
+	 */
+	public static final class MaskIndex {
+		
+		private final int low, high;
+		/** The numbers, ordered by group. Group {@code g} is {@code numbers[start[g]]} to {@code numbers[start[g + 1] - 1]}. */
+		private final int[] numbers, start, groupMasks;
+		
+		/**
+		 * Creates the index of every number from {@code low} to {@code high}, inclusive.
+		 * @throws IllegalArgumentException if {@code low > high}.
+		 */
+		public MaskIndex(int low, int high) {
+			if(low > high)
+				throw new IllegalArgumentException(String.format("low (%d) > high (%d)", low, high));
+			this.low = low;
+			this.high = high;
+			final int[] masks = new int[high - low + 1], counts = new int[1 << VALUES.length];
+			for(int n = low; n <= high; n++)
+				counts[masks[n - low] = mask(n)]++;
+			int groups = 0;
+			for(int count : counts)
+				if(count > 0)
+					groups++;
+			groupMasks = new int[groups];
+			start = new int[groups + 1];
+			final int[] offsets = new int[counts.length];
+			for(int mask = 0, g = 0; mask < counts.length; mask++) {
+				if(counts[mask] > 0) {
+					groupMasks[g] = mask;
+					offsets[mask] = start[g];
+					start[g + 1] = start[g] + counts[mask];
+					g++;
+				}
+			}
+			numbers = new int[masks.length];
+			for(int n = low; n <= high; n++)
+				numbers[offsets[masks[n - low]]++] = n;
+		}
+		
+		public int low() {
+			return low;
+		}
+		
+		public int high() {
+			return high;
+		}
+		
+		/** Returns the number of numbers in the range. */
+		public int size() {
+			return numbers.length;
+		}
+		
+		/** Returns the number of groups, which is the number of distinct masks in the range. */
+		public int groups() {
+			return groupMasks.length;
+		}
+		
+		/** Returns the mask shared by the numbers in group {@code g}. */
+		public int groupMask(int g) {
+			return groupMasks[g];
+		}
+		
+		/** Returns the number of numbers in group {@code g}. */
+		public int groupSize(int g) {
+			return start[g + 1] - start[g];
+		}
+		
+		/** Returns the {@code j}th smallest number in group {@code g}, where {@code 0 <= j < groupSize(g)}. */
+		public int member(int g, int j) {
+			return numbers[start[g] + j];
+		}
+		
+		/** Returns the {@code j}th number that is not in group {@code g}, where {@code 0 <= j < size() - groupSize(g)}. */
+		public int nonMember(int g, int j) {
+			return numbers[j < start[g] ? j : j + groupSize(g)];
+		}
+		
+	}
+	
+	/** Returns the bit that represents this adjective in a mask: {@code 1 << ordinal()}. */
+	public int bit() {
+		return 1 << ordinal();
+	}
+	
+	/**
+	 * Returns the mask of the adjectives that describe {@code n}. This is an array read if {@code 1 <= n <= TABLE_MAX}.
+	 */
+	public static int mask(int n) {
+		return n >= 1 && n <= TABLE_MAX ? Table.MASKS[n] : computeMask(n);
+	}
+	
+	private static int computeMask(int n) {
+		int mask = 0;
+		for(NumberAdjectives adj : VALUES)
+			if(adj.describes(n))
+				mask |= adj.bit();
+		return mask;
+	}
+	
 	public static EnumSet<NumberAdjectives> describe(int n) {
+		return toSet(mask(n));
+	}
+	
+	/** Returns the mask of the given adjectives. */
+	public static int maskOf(Collection<NumberAdjectives> adjectives) {
+		int mask = 0;
+		for(NumberAdjectives adj : adjectives)
+			mask |= adj.bit();
+		return mask;
+	}
+	
+	/** Returns a new {@link EnumSet} of the adjectives in the given mask. */
+	public static EnumSet<NumberAdjectives> toSet(int mask) {
 		EnumSet<NumberAdjectives> result = EnumSet.noneOf(NumberAdjectives.class);
-		for(NumberAdjectives adj : NumberAdjectives.values())
-			if(adj.describes(n))
-				result.add(adj);
+		for(; mask != 0; mask &= mask - 1)
+			result.add(VALUES[Integer.numberOfTrailingZeros(mask)]);
+		return result;
+	}
+	
+	/** Returns {@code true} if the given mask contains {@code adj}. */
+	public static boolean contains(int mask, NumberAdjectives adj) {
+		return (mask & adj.bit()) != 0;
+	}
+	
+	/** Returns the number of adjectives in the given mask. */
+	public static int size(int mask) {
+		return Integer.bitCount(mask);
+	}
+	
+	/** Returns the mask of the adjectives that are in every one of the given masks, or {@code 0} if there are none. */
+	public static int intersection(int... masks) {
+		if(masks.length == 0)
+			return 0;
+		int result = -1;
+		for(int mask : masks)
+			result &= mask;
 		return result;
 	}
+	
+	/** Returns the mask of the adjectives that are in any of the given masks. */
+	public static int union(int... masks) {
+		int result = 0;
+		for(int mask : masks)
+			result |= mask;
+		return result;
+	}
+	
+	/** Returns the mask of the adjectives in {@code mask} that are not in {@code removed}. */
+	public static int difference(int mask, int removed) {
+		return mask & ~removed;
+	}
+	
+	/** Returns the adjectives in the given mask, in lower case and {@link #ordinal() ordinal} order, separated by {@code ", "}. */
+	public static String format(int mask) {
+		StringJoiner j = new StringJoiner(", ");
+		for(; mask != 0; mask &= mask - 1)
+			j.add(VALUES[Integer.numberOfTrailingZeros(mask)].toString().toLowerCase());
+		return j.toString();
+	}
+	
 	/**
 	 * Returns the nth s-gonal number.
 	 */
@@ -145,16 +327,38 @@ public enum NumberAdjectives {
 	 * @return
 	 */
 	public static int politeness(int n) {
-		return (int) Utils.factorsUnsorted(n).stream().filter(x -> x > 1 && (x & 1) == 0).count();
+		int count = 0;
+		for(final int d : PrimeSieve.divisors(n))
+			if(d > 1 && (d & 1) == 0)
+				count++;
+		return count;
+	}
+	
+	private static int digitSquareSum(int n) {
+		int sum = 0;
+		for(; n > 0; n /= 10) {
+			final int digit = n % 10;
+			sum += digit * digit;
+		}
+		return sum;
+	}
+	
+	private static long divisorSum(int n) {
+		if(n >= 1 && n <= ArithmeticFunctions.LIMIT)
+			return ArithmeticFunctions.upTo(n).sigma(n);
+		long sum = 0;
+		for(final int d : PrimeSieve.divisors(n))
+			sum += d;
+		return sum;
 	}
 	
 	private static int digitsInPrimeFactorization(int n) {
-		SortedMap<Integer, Integer> map = Utils.primeFactorization(n);
+		final PrimeSieve.Factorization factorization = PrimeSieve.factor(n);
 		int total = 0;
-		for(Map.Entry<Integer, Integer> e : map.entrySet()) {
-			total += e.getKey();
-			if(e.getValue() > 1)
-				total += e.getValue();
+		for(int i = 0; i < factorization.size(); i++) {
+			total += factorization.prime(i);
+			if(factorization.exponent(i) > 1)
+				total += factorization.exponent(i);
 		}
 		return total;
 	}
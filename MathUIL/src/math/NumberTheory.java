@@ -0,0 +1,115 @@
+package math;
+
+import java.math.BigInteger;
+
+/**
+ * <p>Greatest common divisors, least common multiples, and modular inverses. The {@code int} and {@code long} methods use the binary GCD
+ * algorithm, which takes time proportional to the number of bits of the arguments rather than to their values, and never allocate. Every
+ * method accepts negative arguments and zero; results that do not fit in the return type throw an {@link ArithmeticException} instead of
+ * overflowing.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class NumberTheory {
+
+	private NumberTheory() {}
+
+	/**
+	 * Returns the greatest common divisor of {@code |a|} and {@code |b|}. {@code gcd(0, b)} is {@code |b|}, and {@code gcd(0, 0)} is {@code 0}.
+	 * @throws ArithmeticException if the result is {@code 2}<sup>{@code 31}</sup>, which is not an {@code int}.
+	 */
+	public static int gcd(final int a, final int b) {
+		return Math.toIntExact(gcd((long) a, (long) b));
+	}
+
+	/**
+	 * Returns the greatest common divisor of {@code |a|} and {@code |b|}. {@code gcd(0, b)} is {@code |b|}, and {@code gcd(0, 0)} is {@code 0}.
+	 * @throws ArithmeticException if the result is {@code 2}<sup>{@code 63}</sup>, which is not a {@code long}.
+	 */
+	public static long gcd(long a, long b) {
+		/* Math.abs(Long.MIN_VALUE) is Long.MIN_VALUE, which is 2^63 when read as unsigned, so everything below uses unsigned operations. */
+		a = Math.abs(a);
+		b = Math.abs(b);
+		if(a == 0 || b == 0)
+			return checkGcd(a | b);
+		final int shift = Long.numberOfTrailingZeros(a | b);
+		a >>>= Long.numberOfTrailingZeros(a);
+		do {
+			b >>>= Long.numberOfTrailingZeros(b);
+			if(Long.compareUnsigned(a, b) > 0) {
+				final long temp = a;
+				a = b;
+				b = temp;
+			}
+			b -= a; //both are odd, so the difference is even.
+		} while(b != 0);
+		return checkGcd(a << shift);
+	}
+
+	private static long checkGcd(final long gcd) {
+		if(gcd < 0)
+			throw new ArithmeticException("The GCD is 2^63, which overflows a long");
+		return gcd;
+	}
+
+	/** Returns the greatest common divisor of {@code |a|} and {@code |b|}, as described in {@link BigInteger#gcd(BigInteger)}. */
+	public static BigInteger gcd(final BigInteger a, final BigInteger b) {
+		return a.gcd(b);
+	}
+
+	/**
+	 * Returns {@code {g, x, y}} where {@code g} is {@link #gcd(long, long) gcd(a, b)} and {@code a*x + b*y == g}. The coefficients are the
+	 * ones produced by the extended Euclidean algorithm, so {@code |x| <= |b / g|} and {@code |y| <= |a / g|}.
+	 * @throws ArithmeticException if the result overflows a {@code long}, which can only happen if an argument is {@link Long#MIN_VALUE}.
+	 */
+	public static long[] extendedGcd(final long a, final long b) {
+		long oldR = a, r = b, oldS = 1, s = 0, oldT = 0, t = 1;
+		while(r != 0) {
+			final long q = oldR / r;
+			long temp = r;
+			r = Math.subtractExact(oldR, Math.multiplyExact(q, r));
+			oldR = temp;
+			temp = s;
+			s = Math.subtractExact(oldS, Math.multiplyExact(q, s));
+			oldS = temp;
+			temp = t;
+			t = Math.subtractExact(oldT, Math.multiplyExact(q, t));
+			oldT = temp;
+		}
+		if(oldR < 0)
+			return new long[] {Math.negateExact(oldR), Math.negateExact(oldS), Math.negateExact(oldT)};
+		return new long[] {oldR, oldS, oldT};
+	}
+
+	/**
+	 * Returns the least common multiple of {@code |a|} and {@code |b|}, which is {@code 0} if either is {@code 0}.
+	 * @throws ArithmeticException if the result overflows an {@code int}.
+	 */
+	public static int lcm(final int a, final int b) {
+		return Math.toIntExact(lcm((long) a, (long) b));
+	}
+
+	/**
+	 * Returns the least common multiple of {@code |a|} and {@code |b|}, which is {@code 0} if either is {@code 0}.
+	 * @throws ArithmeticException if the result overflows a {@code long}.
+	 */
+	public static long lcm(final long a, final long b) {
+		if(a == 0 || b == 0)
+			return 0;
+		return Math.multiplyExact(Math.absExact(a / gcd(a, b)), Math.absExact(b));
+	}
+
+	/**
+	 * Returns the <i>x</i> with {@code 0 <= x < m} such that {@code a*x} is congruent to {@code 1} modulo {@code m}.
+	 * @throws ArithmeticException if {@code m} is not positive or {@code a} is not relatively prime to {@code m}.
+	 */
+	public static long modInverse(final long a, final long m) {
+		if(m <= 0)
+			throw new ArithmeticException("The modulus must be positive: " + m);
+		final long[] gxy = extendedGcd(Math.floorMod(a, m), m);
+		if(gxy[0] != 1)
+			throw new ArithmeticException(String.format("%d has no inverse modulo %d", a, m));
+		return Math.floorMod(gxy[1], m);
+	}
+
+}
@@ -0,0 +1,249 @@
+package math;
+
+import java.util.*;
+import java.util.function.*;
+
+import math.Evaluator.*;
+
+/**
+ * <p>The registry of the operators and functions understood by {@link Evaluator}. Each one is registered once and is identified everywhere else
+ * (by the parser, by the nodes of expression trees, and by the programs of {@link ExpressionTemplate ExpressionTemplates}) by a small
+ * {@code int} opcode. Everything known about an opcode is stored in primitive or reference arrays indexed by that opcode, so resolving an
+ * operator never hashes or compares {@code Strings}.</p>
+ *
+ * <p>Operators are single ASCII characters and are resolved through arrays indexed by {@code char}. Functions are called as
+ * {@code name(arg1, arg2, ...)} and are resolved by name once, while parsing. The built-in functions are:
+ * <ul>
+ * <li>{@code sqrt(x)}, the principal square root of <i>x</i>.</li>
+ * <li>{@code root(n, x)}, the real <i>n</i>th root of <i>x</i>; <i>n</i> must be a positive integer.</li>
+ * <li>{@code log(b, x)}, log<sub><i>b</i></sub>(<i>x</i>), the logarithm of <i>x</i> with base <i>b</i>.</li>
+ * <li>{@code mod(a, b)}, <i>a</i> modulo <i>b</i>; the result has the same sign as <i>b</i>, as in {@link Math#floorMod(long, long)}.</li>
+ * <li>{@code abs(x)}, the absolute value of <i>x</i>, which can also be written {@code |x|}.</li>
+ * </ul>
+ * More functions can be registered at any time with {@link Evaluator#registerFunction(String, int, Function)}; they are given the opcodes
+ * after {@link #BUILTIN_COUNT}, and the tables grow to fit them.</p>
+ *
+ * <p>The tables are an immutable {@link Table} snapshot that is replaced, under a lock, by each registration, so lookups never lock.</p>
+ * @author Sam Hooper
+ *
+ */
+final class Operators {
+
+	private Operators() {}
+
+	/* Opcodes of the built-in operators and functions. */
+	static final int ADD = 0, SUBTRACT = 1, MULTIPLY = 2, DIVIDE = 3, POWER = 4;
+	static final int NEGATE = 5, IDENTITY = 6, FACTORIAL = 7, PERCENT = 8, ABSOLUTE_VALUE = 9;
+	static final int SQRT = 10, ROOT = 11, LOG = 12, MOD = 13;
+	/** The number of built-in opcodes. Every registered function has an opcode at least this. */
+	static final int BUILTIN_COUNT = 14;
+	/** Returned by the lookup methods of this class if there is no such operator or function. */
+	static final int NONE = -1;
+
+	/* Associativity flags. An operator that is associative both ways has both flags. */
+	private static final byte LEFT = 1, RIGHT = 2, BOTH = LEFT | RIGHT;
+
+	/** The operator tables indexed by {@code char} have this size; every operator is a single ASCII character. */
+	private static final int CHAR_TABLE_SIZE = 128;
+
+	/** Every array indexed by opcode has a length of {@link #count}. Never modified once published in {@link #table}. */
+	private static final class Table {
+
+		final int count;
+		final int[] precedence;
+		final byte[] associativity;
+		final int[] arity;
+		/** The symbol of each operator, or the name of each function. */
+		final String[] symbol;
+		final BiFunction<Expression, Expression, Expression>[] binaryFactory;
+		final Function<Expression, Expression>[] unaryFactory;
+		final Function<Expression[], Expression>[] functionFactory;
+		/** The implementation of each function registered with {@link Evaluator#registerFunction(String, int, Function)}, otherwise {@code null}. */
+		final Function<Complex[], Complex>[] implementation;
+		final int[] binaryByChar, prefixByChar, postfixByChar;
+		final Map<String, Integer> functionByName;
+
+		@SuppressWarnings({"unchecked", "rawtypes"}) //generic array creation; the arrays never escape this class.
+		Table(final int count) {
+			this.count = count;
+			precedence = new int[count];
+			associativity = new byte[count];
+			arity = new int[count];
+			symbol = new String[count];
+			binaryFactory = new BiFunction[count];
+			unaryFactory = new Function[count];
+			functionFactory = new Function[count];
+			implementation = new Function[count];
+			binaryByChar = new int[CHAR_TABLE_SIZE];
+			prefixByChar = new int[CHAR_TABLE_SIZE];
+			postfixByChar = new int[CHAR_TABLE_SIZE];
+			Arrays.fill(binaryByChar, NONE);
+			Arrays.fill(prefixByChar, NONE);
+			Arrays.fill(postfixByChar, NONE);
+			functionByName = new HashMap<>();
+		}
+
+		/** Returns a copy of this table with room for {@code newCount} opcodes. */
+		Table grow(final int newCount) {
+			final Table t = new Table(newCount);
+			System.arraycopy(precedence, 0, t.precedence, 0, count);
+			System.arraycopy(associativity, 0, t.associativity, 0, count);
+			System.arraycopy(arity, 0, t.arity, 0, count);
+			System.arraycopy(symbol, 0, t.symbol, 0, count);
+			System.arraycopy(binaryFactory, 0, t.binaryFactory, 0, count);
+			System.arraycopy(unaryFactory, 0, t.unaryFactory, 0, count);
+			System.arraycopy(functionFactory, 0, t.functionFactory, 0, count);
+			System.arraycopy(implementation, 0, t.implementation, 0, count);
+			System.arraycopy(binaryByChar, 0, t.binaryByChar, 0, CHAR_TABLE_SIZE);
+			System.arraycopy(prefixByChar, 0, t.prefixByChar, 0, CHAR_TABLE_SIZE);
+			System.arraycopy(postfixByChar, 0, t.postfixByChar, 0, CHAR_TABLE_SIZE);
+			t.functionByName.putAll(functionByName);
+			return t;
+		}
+
+	}
+
+	/** Guarded by {@link #LOCK} for writes. */
+	private static volatile Table table;
+	private static final Object LOCK = new Object();
+
+	static {
+		final Table t = new Table(BUILTIN_COUNT);
+		registerBinary(t, ADD, '+', 1, BOTH, AdditionOperation::new);
+		registerBinary(t, SUBTRACT, '-', 1, LEFT, SubtractionOperation::new);
+		registerBinary(t, MULTIPLY, '*', 2, BOTH, MultiplicationOperation::new);
+		registerBinary(t, DIVIDE, '/', 2, LEFT, DivisionOperation::new);
+		registerBinary(t, POWER, '^', 1, RIGHT, ExponentiationOperation::new);
+
+		registerUnary(t, NEGATE, '-', 2, RIGHT, UnaryMinus::new);
+		registerUnary(t, IDENTITY, '+', 2, RIGHT, UnaryPlus::new);
+		registerUnary(t, FACTORIAL, '!', 4, LEFT, Factorial::new);
+		registerUnary(t, PERCENT, '%', 5, LEFT, Percent::new);
+
+		registerFunction(t, ABSOLUTE_VALUE, "abs", 1, args -> new AbsoluteValueOperator(args[0]));
+		registerFunction(t, SQRT, "sqrt", 1, args -> new SquareRoot(args[0]));
+		registerFunction(t, ROOT, "root", 2, args -> new NthRoot(args[0], args[1]));
+		registerFunction(t, LOG, "log", 2, args -> new Logarithm(args[0], args[1]));
+		registerFunction(t, MOD, "mod", 2, args -> new Modulo(args[0], args[1]));
+		table = t;
+	}
+
+	private static void register(final Table t, final int opcode, final String symbol, final int arity, final int precedence,
+			final byte associativity) {
+		if(t.symbol[opcode] != null)
+			throw new IllegalStateException("Opcode already registered: " + opcode);
+		t.symbol[opcode] = symbol;
+		t.arity[opcode] = arity;
+		t.precedence[opcode] = precedence;
+		t.associativity[opcode] = associativity;
+	}
+
+	private static void registerBinary(final Table t, final int opcode, final char symbol, final int precedence, final byte associativity,
+			final BiFunction<Expression, Expression, Expression> factory) {
+		register(t, opcode, String.valueOf(symbol), 2, precedence, associativity);
+		t.binaryFactory[opcode] = factory;
+		t.binaryByChar[symbol] = opcode;
+	}
+
+	/** A right-associative unary operator is a prefix operator; a left-associative one is a postfix operator. */
+	private static void registerUnary(final Table t, final int opcode, final char symbol, final int precedence, final byte associativity,
+			final Function<Expression, Expression> factory) {
+		register(t, opcode, String.valueOf(symbol), 1, precedence, associativity);
+		t.unaryFactory[opcode] = factory;
+		if((associativity & RIGHT) != 0)
+			t.prefixByChar[symbol] = opcode;
+		else
+			t.postfixByChar[symbol] = opcode;
+	}
+
+	private static void registerFunction(final Table t, final int opcode, final String name, final int arity,
+			final Function<Expression[], Expression> factory) {
+		register(t, opcode, name, arity, 0, (byte) 0);
+		t.functionFactory[opcode] = factory;
+		t.functionByName.put(name, opcode);
+	}
+
+	/**
+	 * Registers a function with the given name, arity, and implementation, and returns its opcode. The caller has checked that the name is a
+	 * valid identifier.
+	 * @throws IllegalArgumentException if a function with the given name is already registered.
+	 */
+	static int registerFunction(final String name, final int arity, final Function<Complex[], Complex> implementation) {
+		synchronized(LOCK) {
+			if(table.functionByName.containsKey(name))
+				throw new IllegalArgumentException("A function with this name is already registered: " + name);
+			final int opcode = table.count;
+			final Table t = table.grow(opcode + 1);
+			registerFunction(t, opcode, name, arity, args -> new RegisteredFunctionCall(opcode, args));
+			t.implementation[opcode] = implementation;
+			table = t;
+			return opcode;
+		}
+	}
+
+	/** Returns the opcode of the binary operator with the given symbol, or {@link #NONE}. */
+	static int binary(final char c) {
+		return c < CHAR_TABLE_SIZE ? table.binaryByChar[c] : NONE;
+	}
+
+	/** Returns the opcode of the prefix unary operator with the given symbol, or {@link #NONE}. */
+	static int prefix(final char c) {
+		return c < CHAR_TABLE_SIZE ? table.prefixByChar[c] : NONE;
+	}
+
+	/** Returns the opcode of the postfix unary operator with the given symbol, or {@link #NONE}. */
+	static int postfix(final char c) {
+		return c < CHAR_TABLE_SIZE ? table.postfixByChar[c] : NONE;
+	}
+
+	/** Returns the opcode of the function with the given name, or {@link #NONE}. */
+	static int function(final String name) {
+		return table.functionByName.getOrDefault(name, NONE);
+	}
+
+	static int precedence(final int opcode) {
+		return table.precedence[opcode];
+	}
+
+	static boolean isLeftAssociative(final int opcode) {
+		return (table.associativity[opcode] & LEFT) != 0;
+	}
+
+	static boolean isRightAssociative(final int opcode) {
+		return (table.associativity[opcode] & RIGHT) != 0;
+	}
+
+	/** Returns the number of operands of the given operator, or the number of arguments of the given function. */
+	static int arity(final int opcode) {
+		return table.arity[opcode];
+	}
+
+	/** Returns the symbol of the given operator, or the name of the given function. */
+	static String symbol(final int opcode) {
+		return table.symbol[opcode];
+	}
+
+	/** Returns {@code true} if the given opcode is a function registered with {@link Evaluator#registerFunction(String, int, Function)}. */
+	static boolean isRegisteredFunction(final int opcode) {
+		return opcode >= BUILTIN_COUNT && opcode < table.count;
+	}
+
+	/** Applies the {@link #isRegisteredFunction(int) registered function} with the given opcode. */
+	static Complex apply(final int opcode, final Complex[] args) {
+		return table.implementation[opcode].apply(args);
+	}
+
+	static Expression newBinary(final int opcode, final Expression left, final Expression right) {
+		return table.binaryFactory[opcode].apply(left, right);
+	}
+
+	static Expression newUnary(final int opcode, final Expression operand) {
+		return table.unaryFactory[opcode].apply(operand);
+	}
+
+	/** The length of {@code args} must be the {@link #arity(int) arity} of the function. */
+	static Expression newFunction(final int opcode, final Expression[] args) {
+		return table.functionFactory[opcode].apply(args);
+	}
+
+}
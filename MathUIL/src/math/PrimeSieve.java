@@ -0,0 +1,242 @@
+package math;
+
+import java.util.Arrays;
+
+/**
+ * <p>Factors {@code ints} and enumerates their divisors using a table of smallest prime factors, so that factoring {@code n} takes
+ * <i>O</i>(log <i>n</i>) divisions instead of the <i>O</i>(&radic;<i>n</i>) of trial division.</p>
+ *
+ * <p>The table is built with a linear sieve and is grown lazily: it starts out small, and is rebuilt with at least double the size whenever a
+ * larger number is queried, up to {@link #LIMIT}. Numbers greater than {@link #LIMIT} are factored by trial division instead. The limit can be
+ * set with the system property {@code math.PrimeSieve.limit}; it must be at least {@link #MIN_SIZE}.</p>
+ *
+ * <p>This class is safe for use by multiple concurrent threads. The table is only ever replaced (never modified once published) by a
+ * synchronized method, and readers see either the old table or the new one.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class PrimeSieve {
+
+	/** The initial size of the table. */
+	public static final int MIN_SIZE = 1 << 10;
+	/** The largest allowed {@link #LIMIT}. */
+	private static final int MAX_LIMIT = 1 << 30;
+	/** Numbers greater than this are not stored in the table and are factored by trial division. */
+	public static final int LIMIT = Math.min(MAX_LIMIT, Math.max(MIN_SIZE, Integer.getInteger("math.PrimeSieve.limit", 1 << 22)));
+
+	/** An {@code int} has at most this many distinct prime factors, since 2*3*5*7*11*13*17*19*23*29 > {@link Integer#MAX_VALUE}. */
+	private static final int MAX_DISTINCT_PRIME_FACTORS = 9;
+
+	/** {@code spf[n]} is the smallest prime factor of {@code n}, for {@code 2 <= n < spf.length}. */
+	private static volatile int[] spf = sieve(MIN_SIZE);
+
+	private PrimeSieve() {}
+
+	/**
+	 * <p>The prime factorization of a positive integer, as two parallel arrays of distinct primes, in ascending order, and their exponents.
+	 * The factorization of {@code 1} has no primes.</p>
+	 *
+	 * <p>{@code Factorizations} are immutable.</p>
+	 */
+	public static final class Factorization {
+
+		private static final int[] EMPTY = {};
+		private static final Factorization ONE = new Factorization(1, EMPTY, EMPTY);
+
+		private final int n;
+		private final int[] primes, exponents;
+
+		private Factorization(final int n, final int[] primes, final int[] exponents) {
+			this.n = n;
+			this.primes = primes;
+			this.exponents = exponents;
+		}
+
+		/** Returns the number that this is the factorization of. */
+		public int value() {
+			return n;
+		}
+
+		/** Returns the number of distinct prime factors. */
+		public int size() {
+			return primes.length;
+		}
+
+		/** Returns the {@code i}th smallest distinct prime factor. */
+		public int prime(final int i) {
+			return primes[i];
+		}
+
+		/** Returns the exponent of {@link #prime(int) prime(i)}. */
+		public int exponent(final int i) {
+			return exponents[i];
+		}
+
+		/** Returns a copy of the distinct prime factors, in ascending order. */
+		public int[] primes() {
+			return primes.clone();
+		}
+
+		/** Returns a copy of the exponents of the {@link #primes()}. */
+		public int[] exponents() {
+			return exponents.clone();
+		}
+
+		/** Returns the number of positive divisors, which is the length of {@link #divisors()}. */
+		public int divisorCount() {
+			int count = 1;
+			for(final int e : exponents)
+				count *= e + 1;
+			return count;
+		}
+
+		/** Returns the positive divisors, in ascending order. */
+		public int[] divisors() {
+			final int[] divisors = new int[divisorCount()];
+			divisors[0] = 1;
+			int size = 1;
+			for(int i = 0; i < primes.length; i++) {
+				final int oldSize = size;
+				int power = 1;
+				for(int e = 1; e <= exponents[i]; e++) {
+					power *= primes[i];
+					for(int j = 0; j < oldSize; j++)
+						divisors[size++] = divisors[j] * power;
+				}
+			}
+			Arrays.sort(divisors);
+			return divisors;
+		}
+
+		@Override
+		public String toString() {
+			if(primes.length == 0)
+				return "1";
+			final StringBuilder sb = new StringBuilder();
+			for(int i = 0; i < primes.length; i++) {
+				if(i > 0)
+					sb.append(" * ");
+				sb.append(primes[i]);
+				if(exponents[i] > 1)
+					sb.append('^').append(exponents[i]);
+			}
+			return sb.toString();
+		}
+
+	}
+
+	/** Returns a table of the smallest prime factors of the integers less than {@code size}, computed with a linear sieve. */
+	private static int[] sieve(final int size) {
+		final int[] table = new int[size];
+		final int[] primes = new int[maxPrimeCount(size)];
+		int count = 0;
+		for(int i = 2; i < size; i++) {
+			if(table[i] == 0) {
+				table[i] = i;
+				primes[count++] = i;
+			}
+			/* Every composite is crossed off exactly once, by its smallest prime factor. */
+			final int max = (size - 1) / i;
+			for(int j = 0; j < count && primes[j] <= table[i] && primes[j] <= max; j++)
+				table[i * primes[j]] = primes[j];
+		}
+		return table;
+	}
+
+	/** Returns an upper bound on the number of primes less than {@code size}, using pi(x) < 1.25506 x / ln(x) for x > 1. */
+	private static int maxPrimeCount(final int size) {
+		return size < 64 ? size : (int) (1.25506 * size / Math.log(size)) + 1;
+	}
+
+	/** Returns a table that includes {@code n}, growing the shared table if necessary. Requires {@code n <= LIMIT}. */
+	private static int[] table(final int n) {
+		final int[] table = spf;
+		return n < table.length ? table : grow(n);
+	}
+
+	private static synchronized int[] grow(final int n) {
+		int[] table = spf;
+		if(n < table.length)
+			return table;
+		final long size = Math.max(n + 1L, (long) table.length << 1);
+		table = sieve((int) Math.min(size, LIMIT + 1L));
+		spf = table;
+		return table;
+	}
+
+	/**
+	 * Returns the smallest prime factor of {@code n}.
+	 * @throws IllegalArgumentException if {@code n < 2}.
+	 */
+	public static int smallestPrimeFactor(final int n) {
+		if(n < 2)
+			throw new IllegalArgumentException("n must be at least 2: " + n);
+		if(n <= LIMIT)
+			return table(n)[n];
+		if((n & 1) == 0)
+			return 2;
+		for(int d = 3; d <= n / d; d += 2)
+			if(n % d == 0)
+				return d;
+		return n;
+	}
+
+	/** Returns {@code true} if {@code n} is prime. */
+	public static boolean isPrime(final int n) {
+		return n >= 2 && smallestPrimeFactor(n) == n;
+	}
+
+	/**
+	 * Returns the prime factorization of {@code n}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static Factorization factor(int n) {
+		if(n <= 0)
+			throw new IllegalArgumentException("n must be greater than 0");
+		if(n == 1)
+			return Factorization.ONE;
+		final int value = n;
+		final int[] primes = new int[MAX_DISTINCT_PRIME_FACTORS], exponents = new int[MAX_DISTINCT_PRIME_FACTORS];
+		int count = 0;
+		if(n <= LIMIT) {
+			final int[] table = table(n);
+			while(n > 1) {
+				final int p = table[n];
+				int e = 0;
+				do {
+					n /= p;
+					e++;
+				} while(n % p == 0);
+				primes[count] = p;
+				exponents[count++] = e;
+			}
+		}
+		else {
+			for(int p = 2; p <= n / p; p += p == 2 ? 1 : 2) {
+				if(n % p == 0) {
+					int e = 0;
+					do {
+						n /= p;
+						e++;
+					} while(n % p == 0);
+					primes[count] = p;
+					exponents[count++] = e;
+				}
+			}
+			if(n > 1) {
+				primes[count] = n;
+				exponents[count++] = 1;
+			}
+		}
+		return new Factorization(value, Arrays.copyOf(primes, count), Arrays.copyOf(exponents, count));
+	}
+
+	/**
+	 * Returns the positive divisors of {@code n}, in ascending order.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static int[] divisors(final int n) {
+		return factor(n).divisors();
+	}
+
+}
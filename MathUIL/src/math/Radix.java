@@ -0,0 +1,298 @@
+package math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * <p>Converts integers and terminating fractions to and from strings in a radix between {@link #MIN_RADIX} and {@link #MAX_RADIX} (inclusive).
+ * Digits greater than nine are written as upper case letters and may be read in either case. A number may have a leading {@code '-'} and a
+ * radix point ({@code '.'}), and the digits on either side of the radix point may be omitted, but not both.</p>
+ *
+ * <p>A fraction in lowest terms terminates in radix <i>r</i> if and only if every prime factor of its denominator divides <i>r</i>, so this
+ * class decides whether a fraction terminates, and how many digits it needs after the radix point, by comparing the prime factors of the
+ * denominator with those of the radix, never by searching for a power of the radix.</p>
+ *
+ * <p>There is one instance per radix, returned by {@link #of(int)}. Each has a table of the smaller powers of its radix that is grown on demand
+ * and is safe for use by multiple concurrent threads: reads do not lock, and the table is only ever replaced (never modified once published) by a
+ * synchronized method.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class Radix {
+
+	public static final int MIN_RADIX = 2, MAX_RADIX = 16;
+
+	/** The initial size of each table of powers. */
+	private static final int MIN_POWERS = 16;
+	/** Powers greater than this are not cached, since the table would take space quadratic in its length. */
+	private static final int MAX_CACHED_POWER = 1 << 10;
+	private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+	/** {@code DIGIT_VALUES[c]} is the value of the digit {@code c}, or {@code -1} if {@code c} is not a digit in any supported radix. */
+	private static final byte[] DIGIT_VALUES = new byte['f' + 1];
+	private static final Radix[] RADIXES = new Radix[MAX_RADIX + 1];
+
+	static {
+		Arrays.fill(DIGIT_VALUES, (byte) -1);
+		for(int d = 0; d < DIGITS.length; d++) {
+			DIGIT_VALUES[DIGITS[d]] = (byte) d;
+			DIGIT_VALUES[Character.toLowerCase(DIGITS[d])] = (byte) d;
+		}
+		for(int radix = MIN_RADIX; radix <= MAX_RADIX; radix++)
+			RADIXES[radix] = new Radix(radix);
+	}
+
+	private final int radix;
+	/** The prime factors of the radix, and for each prime {@code p}, {@code exponents[p]} is the power of {@code p} in the radix. */
+	private final int[] primes, exponents = new int[MAX_RADIX + 1];
+	/** Every number with at most this many digits in this radix fits in a {@code long}. */
+	private final int safeDigits;
+	private final BigInteger bigRadix;
+	/** {@code powers[n]} is {@code radix^n}. */
+	private volatile BigInteger[] powers;
+
+	private Radix(final int radix) {
+		this.radix = radix;
+		final PrimeSieve.Factorization factorization = PrimeSieve.factor(radix);
+		primes = factorization.primes();
+		for(int i = 0; i < primes.length; i++)
+			exponents[primes[i]] = factorization.exponent(i);
+		int digits = 0;
+		for(long limit = Long.MAX_VALUE / radix; limit > 0; limit /= radix)
+			digits++;
+		safeDigits = digits;
+		bigRadix = BigInteger.valueOf(radix);
+		final BigInteger[] table = new BigInteger[MIN_POWERS];
+		table[0] = BigInteger.ONE;
+		for(int n = 1; n < MIN_POWERS; n++)
+			table[n] = table[n - 1].multiply(bigRadix);
+		powers = table;
+	}
+
+	/**
+	 * Returns the {@link Radix} for the given radix.
+	 * @throws IllegalArgumentException if {@code radix} is less than {@link #MIN_RADIX} or greater than {@link #MAX_RADIX}.
+	 */
+	public static Radix of(final int radix) {
+		if(radix < MIN_RADIX || radix > MAX_RADIX)
+			throw new IllegalArgumentException("Unsupported radix: " + radix);
+		return RADIXES[radix];
+	}
+
+	public int radix() {
+		return radix;
+	}
+
+	/** Returns the value of the digit {@code c} in this radix, or {@code -1} if {@code c} is not a digit in this radix. */
+	public int digit(final char c) {
+		final int value = c < DIGIT_VALUES.length ? DIGIT_VALUES[c] : -1;
+		return value < radix ? value : -1;
+	}
+
+	/**
+	 * Returns the character for the digit with the given value.
+	 * @throws IllegalArgumentException if {@code value} is negative or not less than this radix.
+	 */
+	public char forDigit(final int value) {
+		if(value < 0 || value >= radix)
+			throw new IllegalArgumentException(String.format("Not a digit in radix %d: %d", radix, value));
+		return DIGITS[value];
+	}
+
+	/**
+	 * Returns {@code radix^n}.
+	 * @throws ArithmeticException if {@code n} is negative.
+	 */
+	public BigInteger pow(final int n) {
+		if(n < 0)
+			throw new ArithmeticException("Negative exponent: " + n);
+		if(n > MAX_CACHED_POWER)
+			return bigRadix.pow(n);
+		final BigInteger[] table = powers;
+		return n < table.length ? table[n] : growPowers(n)[n];
+	}
+
+	private synchronized BigInteger[] growPowers(final int n) {
+		BigInteger[] table = powers;
+		if(n < table.length)
+			return table;
+		final int oldLength = table.length;
+		table = Arrays.copyOf(table, Math.min(MAX_CACHED_POWER + 1, Math.max(n + 1, oldLength << 1)));
+		for(int i = oldLength; i < table.length; i++)
+			table[i] = table[i - 1].multiply(bigRadix);
+		powers = table;
+		return table;
+	}
+
+	/**
+	 * Returns the least <i>n</i> such that {@code denominator} divides {@code radix^n}, which is the number of digits after the radix point of
+	 * any fraction in lowest terms with that denominator, or {@code -1} if there is no such <i>n</i> (because the fraction does not terminate).
+	 * @throws IllegalArgumentException if {@code denominator} is not positive.
+	 */
+	public int fractionDigits(BigInteger denominator) {
+		if(denominator.signum() <= 0)
+			throw new IllegalArgumentException("The denominator must be positive: " + denominator);
+		int digits = 0;
+		if(denominator.bitLength() < Integer.SIZE && denominator.intValue() <= PrimeSieve.LIMIT) {
+			final PrimeSieve.Factorization factorization = PrimeSieve.factor(denominator.intValue());
+			for(int i = 0; i < factorization.size(); i++) {
+				final int p = factorization.prime(i);
+				if(p > MAX_RADIX || exponents[p] == 0)
+					return -1;
+				digits = Math.max(digits, ceilDiv(factorization.exponent(i), exponents[p]));
+			}
+			return digits;
+		}
+		for(final int p : primes) {
+			int e;
+			if(p == 2) {
+				e = denominator.getLowestSetBit();
+				denominator = denominator.shiftRight(e);
+			}
+			else {
+				final BigInteger bigP = BigInteger.valueOf(p);
+				for(e = 0; ; e++) {
+					final BigInteger[] qr = denominator.divideAndRemainder(bigP);
+					if(qr[1].signum() != 0)
+						break;
+					denominator = qr[0];
+				}
+			}
+			digits = Math.max(digits, ceilDiv(e, exponents[p]));
+		}
+		return denominator.equals(BigInteger.ONE) ? digits : -1;
+	}
+
+	private static int ceilDiv(final int a, final int b) {
+		return (a + b - 1) / b;
+	}
+
+	/** Returns {@code true} if a fraction in lowest terms with the given denominator can be written with finitely many digits in this radix. */
+	public boolean terminates(final BigInteger denominator) {
+		return fractionDigits(denominator) >= 0;
+	}
+
+	/** Returns {@code true} if {@code s} is an integer in this radix: an optional {@code '-'} followed by one or more digits. */
+	public boolean isInteger(final CharSequence s) {
+		final int start = s.length() > 0 && s.charAt(0) == '-' ? 1 : 0;
+		if(start == s.length())
+			return false;
+		for(int i = start; i < s.length(); i++)
+			if(digit(s.charAt(i)) < 0)
+				return false;
+		return true;
+	}
+
+	/** Returns {@code true} if {@code s} is a number in this radix, as described in the {@link Radix class documentation}. */
+	public boolean isNumber(final CharSequence s) {
+		final int start = s.length() > 0 && s.charAt(0) == '-' ? 1 : 0;
+		boolean point = false, digits = false;
+		for(int i = start; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if(c == '.') {
+				if(point)
+					return false;
+				point = true;
+			}
+			else if(digit(c) < 0)
+				return false;
+			else
+				digits = true;
+		}
+		return digits;
+	}
+
+	/**
+	 * Returns the value of the given integer in this radix.
+	 * @throws NumberFormatException if {@code s} is not {@link #isInteger(CharSequence) an integer} in this radix.
+	 */
+	public BigInteger parseInteger(final String s) {
+		if(!isInteger(s))
+			throw new NumberFormatException(String.format("Not an integer in radix %d: %s", radix, s));
+		return parseDigits(s, s.charAt(0) == '-');
+	}
+
+	/**
+	 * Returns the value of the given number in this radix.
+	 * @throws NumberFormatException if {@code s} is not {@link #isNumber(CharSequence) a number} in this radix.
+	 */
+	public BigFraction parse(final String s) {
+		if(!isNumber(s))
+			throw new NumberFormatException(String.format("Not a number in radix %d: %s", radix, s));
+		final boolean negative = s.charAt(0) == '-';
+		final int point = s.indexOf('.');
+		if(point < 0)
+			return BigFraction.of(parseDigits(s, negative), BigInteger.ONE);
+		final String digits = s.substring(0, point) + s.substring(point + 1);
+		return BigFraction.of(parseDigits(digits, negative), pow(s.length() - point - 1));
+	}
+
+	/** Returns the value of {@code digits}, which are all digits in this radix except for a leading {@code '-'} if {@code negative}. */
+	private BigInteger parseDigits(final String digits, final boolean negative) {
+		final int start = negative ? 1 : 0;
+		if(digits.length() - start > safeDigits)
+			return new BigInteger(digits, radix);
+		long value = 0;
+		for(int i = start; i < digits.length(); i++)
+			value = value * radix + digit(digits.charAt(i));
+		return BigInteger.valueOf(negative ? -value : value);
+	}
+
+	/** Returns {@code value} in this radix. */
+	public String toString(final long value) {
+		if(value == 0)
+			return "0";
+		final char[] chars = new char[Long.SIZE + 1];
+		int i = chars.length;
+		for(long v = value; v != 0; v /= radix)
+			chars[--i] = DIGITS[Math.abs((int) (v % radix))];
+		if(value < 0)
+			chars[--i] = '-';
+		return new String(chars, i, chars.length - i);
+	}
+
+	/** Returns {@code value} in this radix. */
+	public String toString(final BigInteger value) {
+		if(value.bitLength() < Long.SIZE)
+			return toString(value.longValue());
+		final char[] chars = value.toString(radix).toCharArray();
+		for(int i = 0; i < chars.length; i++)
+			if(chars[i] >= 'a')
+				chars[i] = DIGITS[DIGIT_VALUES[chars[i]]];
+		return new String(chars);
+	}
+
+	/**
+	 * Returns {@code fraction} in this radix. An integer has no radix point, and the integral part of any other number is omitted if it is
+	 * {@code 0}, so one half in radix 10 is {@code ".5"}.
+	 * @throws IllegalArgumentException if {@code fraction} does not {@link #terminates(BigInteger) terminate} in this radix.
+	 */
+	public String format(final BigFraction fraction) {
+		final BigInteger denominator = fraction.getDenominator();
+		final int digits = fractionDigits(denominator);
+		if(digits < 0)
+			throw new IllegalArgumentException(String.format("%s does not terminate in radix %d", fraction, radix));
+		final String magnitude = toString(fraction.getNumerator().multiply(pow(digits).divide(denominator)));
+		final String sign = fraction.isNegative() ? "-" : "";
+		if(digits == 0)
+			return sign + magnitude;
+		final int integralLength = magnitude.length() - digits;
+		if(integralLength <= 0)
+			return sign + "." + "0".repeat(-integralLength) + magnitude;
+		return sign + magnitude.substring(0, integralLength) + "." + magnitude.substring(integralLength);
+	}
+
+	/**
+	 * Returns the integer {@code number}, written in radix {@code fromRadix}, in this radix.
+	 * @throws IllegalArgumentException if {@code fromRadix} is unsupported.
+	 * @throws NumberFormatException if {@code number} is not an integer in radix {@code fromRadix}.
+	 */
+	public String convert(final String number, final int fromRadix) {
+		return toString(of(fromRadix).parseInteger(number));
+	}
+
+	@Override
+	public String toString() {
+		return "Radix[" + radix + "]";
+	}
+
+}
@@ -40,13 +40,11 @@ public class RepeatingDecimal {
 		this(new BigDecimal(terminatingPart), repeatingPart);
 	}
 	
+	/**
+	 * Returns the exact value of this {@link RepeatingDecimal}, as described in {@link DecimalExpansion#valueOf(String, String, int)}.
+	 */
 	public BigFraction toBigFraction() {
-		final String plain = getTerminatingPart().toPlainString();
-		int dotIndex = plain.indexOf('.');
-		BigFraction terminating = BigFraction.from(plain);
-		BigFraction repeating = BigFraction.of(new BigInteger(getRepeatingPart()),
-				new BigInteger("9".repeat(getRepeatingPart().length()) + "0".repeat(dotIndex < 0 ? 0 : plain.length() - dotIndex - 1)));
-		return terminating.add(repeating);
+		return DecimalExpansion.valueOf(getTerminatingPart().toPlainString(), getRepeatingPart(), 10);
 	}
 
 	public BigDecimal getTerminatingPart() {
@@ -49,8 +49,7 @@ public class Utils {
 	/**Euler's number <i>e</i> raised to <i>pi</i>, rounded to 10 digits after the decimal. */
 	public static final BigDecimal E_TO_PI = new BigDecimal("23.1406926328");
 	
-	public static final int MIN_RADIX = 2, MAX_RADIX = 16;
-	public static final List<Character> RADIX_CHARS = List.of('0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F');
+	public static final int MIN_RADIX = Radix.MIN_RADIX, MAX_RADIX = Radix.MAX_RADIX;
 	
 	private static final BigDecimal PI_INTERMEDIATE = new BigDecimal("3.14159265358979");
 	private static final BigDecimal E_INTERMEDIATE = new BigDecimal("2.71828182845905");
@@ -120,25 +119,21 @@ public class Utils {
 		return !isNegative(n);
 	}
 	
+	/** Returns {@link NumberTheory#gcd(int, int) NumberTheory.gcd(a, b)}, but does not accept zero. */
 	public static int gcd(int a, int b) {
 		if(a == 0 || b == 0)
 			throw new IllegalArgumentException("numbers cannot be zero");
-		if(b > a) {
-			int temp = a;
-			a = b;
-			b = temp;
-		}
-		while(a != b) {
-			if(a > b)
-				a = a - b;
-			else
-				b = b - a;
-		}
-		return a;
+		return NumberTheory.gcd(a, b);
 	}
 	
+	/**
+	 * Returns {@link NumberTheory#lcm(int, int) NumberTheory.lcm(a, b)}, but does not accept zero.
+	 * @throws ArithmeticException if the result overflows an {@code int}.
+	 */
 	public static int lcm(int a, int b) {
-		return a * b / gcd(a, b);
+		if(a == 0 || b == 0)
+			throw new IllegalArgumentException("numbers cannot be zero");
+		return NumberTheory.lcm(a, b);
 	}
 	
 	
@@ -214,25 +209,13 @@ public class Utils {
 	}
 	
 	/**
-	 * {@code radix} must be between {@link #MIN_RADIX} and {@link #MAX_RADIX} (inclusive).
+	 * {@code radix} must be between {@link #MIN_RADIX} and {@link #MAX_RADIX} (inclusive). Equivalent to {@link Radix#isInteger(CharSequence)}.
 	 * @param s
 	 * @param radix
 	 * @return
 	 */
 	public static boolean isInteger(String s, final int radix) {
-		if(radix < MIN_RADIX || radix > MAX_RADIX)
-			throw new IllegalArgumentException("Radix " + radix + " is unsupported");
-		if(s.isEmpty())
-			return false;
-		int i = s.charAt(0) == '-' ? 1 : 0;
-		if(i == s.length())
-			return false;
-		s = s.toUpperCase();
-		List<Character> subList = RADIX_CHARS.subList(0, radix);
-		for(int j = i; j < s.length(); j++)
-			if(!subList.contains(s.charAt(j)))
-				return false;
-		return true;
+		return Radix.of(radix).isInteger(s);
 	}
 	
 	/**
@@ -287,49 +270,27 @@ public class Utils {
 	
 	/**
 	 * Returns an {@link IntList} containing the factors of {@code n}. The elements in the returned list are unique but are in no particular order.
+	 * Use {@link PrimeSieve#divisors(int)} to get them in a primitive array instead.
 	 * @throws IllegalArgumentException if {@code n <= 0}.
 	 */
 	public static IntList factorsUnsorted(final int n) {
-		if(n <= 0)
-			throw new IllegalArgumentException("n must be greater than 0");
-		IntList facs = new IntList();
-		final int sqrt = (int) Math.sqrt(n);
-		for(int i = 1; i <= sqrt; i++) {
-			if(n % i == 0) {
-				facs.add(i);
-				if(i != n / i) {
-					facs.add(n / i);
-				}
-			}
-		}
-		return facs;
+		return new IntList(PrimeSieve.divisors(n));
 	}
 	
 	/**
 	 * Returns a {@link SortedMap} where the keys are the prime factors of {@code n} and the values are the powers of those factors.
 	 * For example, {@code primeFactorization(12)} would produce the map:
 	 * <pre><code>{2=2, 3=1}</code></pre>
-	 * to represent 2^2 * 3^1.  
-	 * @param n
-	 * @return
+	 * to represent 2^2 * 3^1. Use {@link PrimeSieve#factor(int)} to get the factorization in primitive arrays instead.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
 	 */
 	public static SortedMap<Integer, Integer> primeFactorization(int n) {
+		final PrimeSieve.Factorization factorization = PrimeSieve.factor(n);
 		SortedMap<Integer, Integer> map = new TreeMap<>();
-        while (n % 2 == 0) {
-        	map.put(2, map.getOrDefault(2, 0) + 1);
-            n /= 2; 
-        }
-  
-		for (int i = 3; i <= (int) Math.sqrt(n); i += 2)  { 
-            while (n % i == 0) { 
-                map.put(i, map.getOrDefault(i, 0) + 1);
-                n /= i; 
-            } 
-        }
-        if(n > 2)
-        	map.put(n, 1);
-        return map;
-    }
+		for(int i = 0; i < factorization.size(); i++)
+			map.put(factorization.prime(i), factorization.exponent(i));
+		return map;
+	}
 	
 	public static IntStream digits(int n) {
 		int[] arr = new int[magnitude(n)];
@@ -340,30 +301,21 @@ public class Utils {
 		return Arrays.stream(arr);
 	}
 	
-	private static final ArrayList<BigInteger> MEMOIZED_FACTORIALS = new ArrayList<>(16);
-	
-	static {
-		MEMOIZED_FACTORIALS.add(BigInteger.ONE);
-		MEMOIZED_FACTORIALS.add(BigInteger.ONE);
-		MEMOIZED_FACTORIALS.add(BigInteger.TWO);
-	}
 	/**
-	 * Returns n factorial, or <i>n!</i>
+	 * Returns n factorial, or <i>n!</i>. Equivalent to {@link Combinatorics#factorial(int)}.
 	 */
 	public static BigInteger factorial(int n) {
-		while(MEMOIZED_FACTORIALS.size() <= n)
-			MEMOIZED_FACTORIALS.add(BigInteger.valueOf(MEMOIZED_FACTORIALS.size()).multiply(MEMOIZED_FACTORIALS.get(MEMOIZED_FACTORIALS.size() - 1)));
-		return MEMOIZED_FACTORIALS.get(n);
+		return Combinatorics.factorial(n);
 	}
 	
+	/** Equivalent to {@link Combinatorics#nPr(int, int)}. */
 	public static BigInteger nPr(final int n, final int r) {
-		if(n < 0 || r < 0 || r > n)
-			throw new IllegalArgumentException(String.format("Invalid arguments: n=%d, r=%d", n, r));
-		return factorial(n).divide(factorial(n - r));
+		return Combinatorics.nPr(n, r);
 	}
 	
+	/** Equivalent to {@link Combinatorics#nCr(int, int)}. */
 	public static BigInteger nCr(final int n, final int r) {
-		return nPr(n, r).divide(factorial(r));
+		return Combinatorics.nCr(n, r);
 	}
 	
 	/**
@@ -371,57 +323,28 @@ public class Utils {
 	 * be capitalized.
 	 */
 	public static String convertBase(String number, int startRadix, int endRadix) {
-		return new BigInteger(number, startRadix).toString(endRadix).toUpperCase();
+		return Radix.of(endRadix).convert(number, startRadix);
 	}
 	
 	/**
 	 * {@code number} may have a radix point (that is, it need not be an integer). The radix point is assumed to be the period
-	 * character ('.').
+	 * character ('.'). Equivalent to {@link Radix#parse(String)}.
 	 * @param number
 	 * @param radix
 	 * @return
 	 */
 	public static BigFraction toBase10Fraction(String number, int radix) {
-		int dotIndex = number.indexOf('.');
-		if(dotIndex < 0)
-			return BigFraction.of(new BigInteger(number, radix), BigInteger.ONE);
-		number = Strings.stripTrailing(number, '0'); //we know it has a decimal point, so this is okay.
-		BigFraction integral = dotIndex == 0 ? BigFraction.ZERO : BigFraction.of(new BigInteger(number.substring(0, dotIndex), radix), BigInteger.ONE);
-		if(dotIndex == number.length() - 1)
-			return integral;
-		String afterDot = number.substring(dotIndex + 1);
-		BigFraction frac = BigFraction.of(new BigInteger(afterDot, radix), BigInteger.valueOf(radix).pow(afterDot.length()));
-		return integral.add(frac);
+		return Radix.of(radix).parse(number);
 	}
 	
 	/**
 	 * Converts the given {@link BigFraction} to a {@code String} in the given radix. {@code endRadix} must be between {@link #MIN_RADIX} and
 	 * {@link #MAX_RADIX} (inclusive). {@code fraction} must be equivalent to a fraction whose denominator is an integer power of {@code endRadix},
-	 * or an {@link IllegalArgumentException} is thrown.
+	 * or an {@link IllegalArgumentException} is thrown. Equivalent to {@link Radix#format(BigFraction)}.
 	 * @return
 	 */
 	public static String toDecimal(final BigFraction fraction, final int endRadix) {
-		if(endRadix < MIN_RADIX || endRadix > MAX_RADIX)
-			throw new IllegalArgumentException("Unsupported radix: " + endRadix);
-		if(fraction.isZero())
-			return "0";
-		BigInteger oldNum = fraction.getNumerator();
-		BigInteger oldDenom = fraction.getDenominator();
-		BigInteger endRadixAsBigInteger = BigInteger.valueOf(endRadix);
-		BigInteger newDenom = oldDenom;
-		int multiple = 1;
-		while(!isIntegerPower(newDenom, endRadixAsBigInteger) && multiple < endRadix) {
-			newDenom = newDenom.add(oldDenom);
-			multiple++;
-		}
-		if(!isIntegerPower(newDenom, endRadixAsBigInteger))
-			throw new UnsupportedOperationException("Only fractions with a denominator that is an integer power of the radix are supported");
-		BigInteger newNum = oldNum.multiply(BigInteger.valueOf(multiple));
-		String numToRadix = newNum.toString(endRadix);
-		int log = log(BigInteger.valueOf(endRadix), newDenom);
-		if(numToRadix.length() - log < 0)
-			numToRadix = "0".repeat(log - numToRadix.length()) + numToRadix;
-		return (fraction.isNegative() ? "-" : "") + new StringBuilder(numToRadix).insert(numToRadix.length() - log, '.').toString();
+		return Radix.of(endRadix).format(fraction);
 	}
 	
 	/**
@@ -433,24 +356,32 @@ public class Utils {
 			throw new ArithmeticException();
 		if(b.compareTo(BigInteger.ONE) == 0)
 			throw new ArithmeticException();
-		if(a.compareTo(BigInteger.ONE) == 0)
+		final int log = exactLog(b, a);
+		if(log < 0)
+			throw new ArithmeticException();
+		return log;
+	}
+	
+	/**
+	 * Returns log<sub>{@code b}</sub>{@code (a)} if it is an {@code int}, otherwise {@code -1}. {@code a} must be positive and {@code b} must be
+	 * greater than one. The logarithm is estimated from the binary logarithms of the arguments and then verified with a single exact power.
+	 */
+	private static int exactLog(final BigInteger b, final BigInteger a) {
+		if(a.equals(BigInteger.ONE))
 			return 0;
-		
-		BigInteger pow = b;
-		int multiple = 1;
-		while(true) {
-			int comp = pow.compareTo(a);
-			if(comp > 0)
-				throw new ArithmeticException();
-			if(comp == 0)
-				return multiple;
-			else {
-				pow = pow.multiply(b);
-				multiple++;
-				if(multiple < 0) //it overflowed
-					throw new ArithmeticException();
-			}
-		}
+		if(a.compareTo(b) < 0)
+			return -1;
+		final double estimate = log2(a) / log2(b);
+		if(estimate >= Integer.MAX_VALUE)
+			return -1;
+		final int log = (int) Math.round(estimate);
+		return b.pow(log).equals(a) ? log : -1;
+	}
+	
+	/** Returns the binary logarithm of {@code x}, which must be positive. */
+	private static double log2(final BigInteger x) {
+		final int shift = Math.max(0, x.bitLength() - Long.SIZE + 1);
+		return shift + Math.log(x.shiftRight(shift).doubleValue()) / Math.log(2);
 	}
 	
 	/**
@@ -466,14 +397,9 @@ public class Utils {
 			return BigNumbers.isZero(x) || x.compareTo(BigInteger.ONE) == 0;
 		else if(BigNumbers.isZero(x))
 			return false;
-		while(true) {
-			BigInteger[] divMod = x.divideAndRemainder(y);
-			if(BigNumbers.isZero(divMod[1]))
-				x = divMod[0];
-			else
-				break;
-		}
-		return x.compareTo(BigInteger.ONE) == 0;
+		if(y.equals(BigInteger.ONE))
+			return x.equals(BigInteger.ONE);
+		return exactLog(y, x) >= 0;
 	}
 	
 	/**
@@ -30,6 +30,11 @@ import utils.Strings;
 public class Builder {
 	
 	public static final BigDecimal DEFAULT_APPROXIMATION_PERCENT = new BigDecimal("0.05");
+	/**
+	 * The results of approximation problems built from expressions are computed to within this fraction of the approximation percent, so that
+	 * the error in the result moves the boundary between correct and incorrect answers by a negligible amount.
+	 */
+	private static final BigDecimal EXPRESSION_RESULT_TOLERANCE = new BigDecimal("1E-6");
 	
 	/**
 	 * <p>A call to <pre><code>{@code approximation(html, result)}</code></pre> is equivalent to:
@@ -48,6 +53,25 @@ public class Builder {
 		return of(htmlFormattedText).setApproximate(true).setApproximationPercent(approximationPercent).addResult(result).build();
 	}
 	
+	/**
+	 * <p>A call to <pre><code>{@code approximationOfExpression(html, expression)}</code></pre> is equivalent to:
+	 * <pre><code>approximationOfExpression(DEFAULT_APPROXIMATION_PERCENT, html, expression)</code></pre></p>
+	 */
+	public static NumericProblem approximationOfExpression(final String htmlFormattedText, final String expression) {
+		return approximationOfExpression(DEFAULT_APPROXIMATION_PERCENT, htmlFormattedText, expression);
+	}
+	
+	/**
+	 * <p>Returns an {@link #approximation(BigDecimal, String, BigDecimal) approximation} whose correct answer is the value of the given
+	 * expression. Since the answer only needs to be known to within a small fraction of {@code approximationPercent}, the expression is evaluated
+	 * with {@link Evaluator#evaluateApproximate(String, BigDecimal)}.</p>
+	 */
+	public static NumericProblem approximationOfExpression(final BigDecimal approximationPercent, final String htmlFormattedText,
+			final String expression) {
+		final BigDecimal tolerance = approximationPercent.multiply(EXPRESSION_RESULT_TOLERANCE);
+		return approximation(approximationPercent, htmlFormattedText, Evaluator.evaluateApproximate(expression, tolerance));
+	}
+	
 	/** 
 	 * <p>Returns a {@link Problem} whose correct answer is <code>result.{@link String#strip() strip()}</code>. The method
 	 * {@link Problem#isCorrect(String) isCorrect(String)} on the given {@code Problem} returns {@code true} if and only if
@@ -243,29 +267,23 @@ public class Builder {
 	/**
 	 * <p>{@code number} must be real number greater than or equal to zero.
 	 * {@code baseOfNumber} must be between {@link Utils#MIN_RADIX} and {@link Utils#MAX_RADIX} (inclusive).
-	 * This method does not verify that {@code number} is a valid number in the specified radix.</p>
+	 * An answer is correct if it is {@link Radix#isNumber(CharSequence) a number} in the specified radix with the same value as {@code number}, so
+	 * leading and trailing zeros and the case of any letters do not matter.</p>
 	 * <p>Returns {@code this}.</p>
 	 * @param number
 	 * @param baseOfNumber
 	 * @throws NullPointerException if {@code number} is {@code null}
+	 * @throws NumberFormatException if {@code number} is not a valid number in the specified radix.
 	 */
 	public Builder addBaseResult(String number, final int baseOfNumber) {
 		Objects.requireNonNull(number);
-		if(baseOfNumber < Utils.MIN_RADIX || baseOfNumber > Utils.MAX_RADIX)
-			throw new IllegalArgumentException("Invalid radix: " + baseOfNumber);
-		number = Strings.stripLeading(number, '0');
-		if(number.contains("."))
-			number = Strings.stripTrailing(number, '0');
-		final String result = number;
-		resultMap.put(result, str -> {
+		final Radix radix = Radix.of(baseOfNumber);
+		final BigFraction result = radix.parse(number);
+		resultMap.put(radix.format(result), str -> {
 			if(isApproximate())
 				throw new UnsupportedOperationException("Base questions with approximate answers are not supported");
-			else {
-				String formattedAnswer = Strings.stripLeading(str, '0');
-				if(formattedAnswer.contains("."))
-					formattedAnswer = Strings.stripTrailing(formattedAnswer, '0');
-				return formattedAnswer.equalsIgnoreCase(result);
-			}
+			else
+				return radix.isNumber(str) && radix.parse(str).equals(result);
 		});
 		return this;
 	}
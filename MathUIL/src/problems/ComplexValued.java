@@ -36,7 +36,7 @@ public abstract class ComplexValued implements Problem {
 	}
 	
 	public ComplexValued(final long result) {
-		this.result = new Complex(result);
+		this.result = Complex.valueOf(result);
 	}
 	
 	/**
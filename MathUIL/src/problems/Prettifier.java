@@ -6,6 +6,8 @@ import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import math.*;
+import utils.CharList;
+import utils.function.CharFunction;
 
 /**
  * @author Sam Hooper
@@ -310,6 +312,25 @@ public class Prettifier {
 		return sb.append("</mrow></mfenced>").toString();
 	}
 	
+	/**
+	 * Returns a MathML formatted set representation of the given {@link CharList}, in the same format as {@link #set(Collection, Function)}. The
+	 * order of the elements in the formatted set will be the same as their order in the list.
+	 */
+	public static String set(final CharList set, CharFunction<String> function) {
+		StringBuilder sb = new StringBuilder("<mfenced open=\"{\" close=\"}\">");
+		if(set.size() == 0)
+			return sb.append("<mrow/></mfenced>").toString();
+		if(set.size() == 1)
+			return sb.append(function.applyChar(set.get(0))).append("</mfenced>").toString();
+		sb.append("<mrow>");
+		for(int i = 0; i < set.size(); i++) {
+			if(i > 0)
+				sb.append(op(','));
+			sb.append(function.applyChar(set.get(i)));
+		}
+		return sb.append("</mrow></mfenced>").toString();
+	}
+	
 	public static String union(final String set1, final String set2) {
 		return set1 + SET_UNION + set2;
 	}
@@ -23,10 +23,15 @@ import utils.refs.*;
 public interface Problem {
 	
 
-	public static final IntSupplier DIGIT_SUPPLIER = () -> (int) (Math.random() * 10);
+	public static final IntSupplier DIGIT_SUPPLIER = () -> intExclusive(10);
 	public static final CharSupplier DIGIT_SUPPLIER_AS_CHAR = () -> (char) intInclusive('0', '9');
 	
-	public static final Random RAND = new Random();
+	/**
+	 * Returns the {@link RandomSource} that problems generated on the calling thread draw from. Equivalent to {@link RandomSource#current()}.
+	 */
+	public static RandomSource randomSource() {
+		return RandomSource.current();
+	}
 	
 	public static boolean within(final BigDecimal bound, final BigDecimal target, final BigDecimal guess) {
 		final BigDecimal boundPercent = target.multiply(bound).abs();
@@ -35,7 +40,7 @@ public interface Problem {
 	}
 	
 	public static double random() {
-		return RAND.nextDouble();
+		return RandomSource.current().nextDouble();
 	}
 	
 	public static int intExclusive(MutableIntRef max) {
@@ -49,15 +54,34 @@ public interface Problem {
 		return intInclusive(0, max - 1);
 	}
 	public static int intInclusive(int min, int max) {
-		if(min > max)
-			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
-		return (int) Math.floor((Math.random() * (max - min + 1)  + min));
+		return RandomSource.current().nextIntInclusive(min, max);
 	}
 	
 	public static long longInclusive(long min, long max) {
-		if(min > max)
-			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
-		return (long) Math.floor(Math.random() * (max - min + 1)  + min);
+		return RandomSource.current().nextLongInclusive(min, max);
+	}
+	
+	/**
+	 * Returns an {@code int} between {@code min} and {@code max}, inclusive, other than {@code excluded}. Every such {@code int} is equally
+	 * likely.
+	 * @throws IllegalArgumentException if there is no such {@code int}.
+	 */
+	public static int intInclusiveExcept(int min, int max, int excluded) {
+		if(excluded < min || excluded > max)
+			return intInclusive(min, max);
+		if(min == max)
+			throw new IllegalArgumentException(String.format("There is no int other than %d between %d and %d", excluded, min, max));
+		final int result = intInclusive(min, max - 1);
+		return result >= excluded ? result + 1 : result;
+	}
+	
+	/** Returns an array of {@code count} {@code ints}, each between {@code min} and {@code max}, inclusive. */
+	public static int[] intsInclusive(int count, int min, int max) {
+		final RandomSource random = RandomSource.current();
+		final int[] result = new int[count];
+		for(int i = 0; i < count; i++)
+			result[i] = random.nextIntInclusive(min, max);
+		return result;
 	}
 	
 	public static int intInclusive(IntRange range) {
@@ -77,24 +101,31 @@ public interface Problem {
 	}
 	
 	public static int intWithDigits(final int digits) {
+		return intWithDigits(digits, RandomSource.current());
+	}
+	
+	/** Like {@link #intWithDigits(int)}, but draws the digits from {@code random} instead of the {@link RandomSource#current() current} source. */
+	public static int intWithDigits(final int digits, final RandomSource random) {
 		int num = 0;
 		for(int i = 0, add = 1; i < digits; i++, add *= 10)
-			num += DIGIT_SUPPLIER.getAsInt() * add;
+			num += random.nextInt(10) * add;
 		return num;
 	}
 	
 	public static String stringOfDigits(final int digits) {
+		final RandomSource random = RandomSource.current();
 		char[] dig = new char[digits];
 		for(int i = 0; i < dig.length; i++)
-			dig[i] = DIGIT_SUPPLIER_AS_CHAR.getAsChar();
+			dig[i] = (char) ('0' + random.nextInt(10));
 		return new String(dig);
 	}
 	
 	public static String stringOfDigits(final int digits, final int radix) {
+		final Radix r = Radix.of(radix);
+		final RandomSource random = RandomSource.current();
 		char[] dig = new char[digits];
-		List<Character> subList = Utils.RADIX_CHARS.subList(0, radix);
 		for(int i = 0; i < dig.length; i++)
-			dig[i] = Colls.getRandom(subList);
+			dig[i] = r.forDigit(random.nextInt(radix));
 		return new String(dig);
 	}
 	
@@ -109,10 +140,10 @@ public interface Problem {
 	}
 	
 	/**
-	 * Returns {@code 0} if the given {@link IntList} is empty.
+	 * Returns {@code 0} if the given {@link IntList} is empty. The sum is accumulated in a {@code long}.
 	 */
 	public static long sum(IntList terms) {
-		int sum = 0;
+		long sum = 0;
 		for(int i = 0; i < terms.size(); i++)
 			sum += terms.get(i);
 		return sum;
@@ -122,17 +153,17 @@ public interface Problem {
 	 * Returns {@code 1} if the given {@link List} is empty.
 	 */
 	public static long product(List<Integer> terms) {
-		int product = 1;
+		long product = 1;
 		for(Integer i : terms)
 			product *= i.intValue();
 		return product;
 	}
 	
 	/**
-	 * Returns {@code 1} if the given {@link IntList} is empty.
+	 * Returns {@code 1} if the given {@link IntList} is empty. The product is accumulated in a {@code long}.
 	 */
 	public static long product(IntList terms) {
-		int product = 1;
+		long product = 1;
 		for(int i = 0; i < terms.size(); i++)
 			product *= terms.get(i);
 		return product;
@@ -152,7 +183,7 @@ public interface Problem {
 		StringBuilder result = new StringBuilder();
 		for(int i = 0; i < terms - 1; i++) {
 			result.append(Problem.intWithDigits(Problem.intInclusive(minDigits, maxDigits)));
-			result.append(' ').append(operators.get((int) (Math.random() * operators.size()))).append(' ');
+			result.append(' ').append(Colls.getRandom(operators)).append(' ');
 		}
 		result.append(Problem.intWithDigits(Problem.intInclusive(minDigits, maxDigits)));
 		return result.toString();
@@ -181,7 +212,7 @@ public interface Problem {
 	public static <T> List<T> shuffled(T... items) {
 		 List<T> list = new ArrayList<>(items.length);
 		 Collections.addAll(list, items);
-		 Collections.shuffle(list, RAND);
+		 RandomSource.current().shuffle(list);
 		 return list;
 	}
 	
@@ -189,7 +220,7 @@ public interface Problem {
 	 * Returns a random permutation of the given two {@code int}s.
 	 */
 	public static int[] shuffled(final int a, final int b) {
-		return Math.random() < 0.5 ? new int[] {a, b} : new int[] {b, a};
+		return RandomSource.current().nextBoolean() ? new int[] {a, b} : new int[] {b, a};
 	}
 	
 	/**
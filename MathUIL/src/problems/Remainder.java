@@ -17,7 +17,7 @@ public class Remainder extends ComplexValued {
 	private final String display;
 	
 	public Remainder(long operand, long divisor) {
-		super(new Complex(operand % divisor));
+		super(Complex.valueOf(operand % divisor));
 		display = Prettifier.pretty(operand + "/" + divisor) + REMAINDER_OF_STRING;
 	}
 	
@@ -42,9 +42,18 @@ public class Remainder extends ComplexValued {
 	 * This does <b>NOT</b> add parentheses around {@code expression}.
 	 */
 	public Remainder(String expression, long divisor) {
-		super(Evaluator.evaluateAsBigDecimalExact(expression).remainder(BigDecimal.valueOf(divisor)));
+		super(Evaluator.evaluateRemainder(expression, divisor).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT));
 		display = Prettifier.pretty(expression + "/" + divisor) + REMAINDER_OF_STRING;
 	}
+	
+	/**
+	 * The expression is the given template with its variables replaced by the given bindings; the template is not reparsed. This does <b>NOT</b>
+	 * add parentheses around the expression.
+	 */
+	public Remainder(ExpressionTemplate expression, long[] bindings, long divisor) {
+		super(expression.remainder(bindings, divisor).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT));
+		display = Prettifier.pretty(expression.toExpression(bindings) + "/" + divisor) + REMAINDER_OF_STRING;
+	}
 
 	@Override
 	public String displayString() {
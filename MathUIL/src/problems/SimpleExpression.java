@@ -1,7 +1,7 @@
 package problems;
 
-import java.math.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import math.*;
 import suppliers.*;
@@ -16,11 +16,21 @@ import utils.refs.IntRange;
  */
 public class SimpleExpression extends ComplexValued {
 	
+	/** Maps a number of terms to the template that multiplies that many terms. */
+	private static final Map<Integer, ExpressionTemplate> PRODUCT_TEMPLATES = new ConcurrentHashMap<>();
+	
 	public static SimpleExpression multiplyTerms(int... terms) {
-		StringJoiner j = new StringJoiner("*");
-		for(int term : terms)
-			j.add(String.valueOf(term));
-		return new SimpleExpression(j.toString());
+		final long[] bindings = new long[terms.length];
+		for(int i = 0; i < terms.length; i++)
+			bindings[i] = terms[i];
+		return new SimpleExpression(PRODUCT_TEMPLATES.computeIfAbsent(terms.length, SimpleExpression::productTemplate), bindings);
+	}
+	
+	private static ExpressionTemplate productTemplate(final int termCount) {
+		final String[] variables = new String[termCount];
+		for(int i = 0; i < termCount; i++)
+			variables[i] = "x" + i;
+		return Evaluator.compile(String.join("*", variables), variables);
 	}
 	
 	public static SimpleExpression of(int minTerms, int maxTerms, int minDigits, int maxDigits, String... ops) {
@@ -48,11 +58,28 @@ public class SimpleExpression extends ComplexValued {
 	 * Creates a new {@link SimpleExpression} where the user must evaluate the given expression.
 	 * @param expression the expression that this {@link SimpleExpression} must represent. The expression must use +,-,*,/, and ^ symbols
 	 * to represent mathematical operators.
+	 * @throws ArithmeticException if the value of the expression has an imaginary part.
 	 */
 	public SimpleExpression(String expression) {
-		super(new Complex(Evaluator.evaluateAsBigDecimalExact(expression)));
+		super(requireReal(Evaluator.evaluateExact(expression).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT)));
 		display = Problem.prettyExpression(expression);
 	}
+	
+	/**
+	 * Creates a new {@link SimpleExpression} where the user must evaluate the given template with its variables replaced by the given bindings.
+	 * The template is not reparsed.
+	 * @throws ArithmeticException if the value of the expression has an imaginary part.
+	 */
+	public SimpleExpression(ExpressionTemplate template, long... bindings) {
+		super(requireReal(template.evaluateExact(bindings).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT)));
+		display = Problem.prettyExpression(template.toExpression(bindings));
+	}
+	
+	private static Complex requireReal(final Complex value) {
+		if(value.hasImaginaryPart())
+			throw new ArithmeticException("The value of a SimpleExpression must be real: " + value);
+		return value;
+	}
 
 	@Override
 	public String displayString() {
@@ -0,0 +1,19 @@
+package suppliers;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>Gives a {@link ProblemSupplier} class a display name other than the one derived from its class name. The default
+ * {@link ProblemSupplier#getName()} returns this name, and the supplier index generated at compile time records it, so that the name is known
+ * without creating the supplier.</p>
+ * @author Sam Hooper
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DisplayName {
+	
+	String value();
+	
+}
@@ -0,0 +1,19 @@
+package suppliers;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>Marks the classes that the {@link SupplierIndex} generated at compile time lists. It is {@link Inherited inherited}, so every
+ * {@link SettingsProblemSupplier} is marked; a {@link ProblemSupplier} or {@link ProblemSupplierHost} that does not extend
+ * {@code SettingsProblemSupplier} must be marked itself. Of the marked classes, only the public, concrete, top-level ones in the subpackages of
+ * {@code suppliers} are indexed.</p>
+ * @author Sam Hooper
+ *
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Indexed {
+	
+}
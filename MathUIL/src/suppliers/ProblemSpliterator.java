@@ -0,0 +1,66 @@
+package suppliers;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import problems.Problem;
+
+/**
+ * <p>A {@link Spliterator} over a fixed number of {@link Problem Problems} generated by a {@link ProblemSupplier}. It splits in halves, down to
+ * {@link #BATCH_SIZE}, so that a parallel stream spreads the work across threads, and {@link #forEachRemaining(Consumer)} generates its problems
+ * with {@link ProblemSupplier#generate(int)}, {@code BATCH_SIZE} at a time, so that suppliers with a batched path use it.</p>
+ * @author Sam Hooper
+ *
+ */
+final class ProblemSpliterator implements Spliterator<Problem> {
+	
+	/** The number of problems generated by each call to {@link ProblemSupplier#generate(int)}, and the smallest spliterator that will split. */
+	static final int BATCH_SIZE = 64;
+	
+	private final ProblemSupplier supplier;
+	private long remaining;
+	
+	ProblemSpliterator(final ProblemSupplier supplier, final long count) {
+		this.supplier = supplier;
+		this.remaining = count;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super Problem> action) {
+		if(remaining <= 0)
+			return false;
+		remaining--;
+		action.accept(supplier.get());
+		return true;
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super Problem> action) {
+		while(remaining > 0) {
+			final int batch = (int) Math.min(remaining, BATCH_SIZE);
+			remaining -= batch;
+			for(final Problem p : supplier.generate(batch))
+				action.accept(p);
+		}
+	}
+	
+	@Override
+	public Spliterator<Problem> trySplit() {
+		if(remaining < 2 * BATCH_SIZE)
+			return null;
+		final long half = remaining >>> 1;
+		remaining -= half;
+		return new ProblemSpliterator(supplier, half);
+	}
+	
+	@Override
+	public long estimateSize() {
+		return remaining;
+	}
+	
+	@Override
+	public int characteristics() {
+		return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+	
+}
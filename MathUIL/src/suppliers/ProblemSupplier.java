@@ -3,6 +3,7 @@ package suppliers;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.*;
 
 import base.*;
 import problems.*;
@@ -61,13 +62,62 @@ public interface ProblemSupplier extends Supplier<Problem> {
 	@Override
 	public Problem get();
 	
+	/**
+	 * Returns a new array of {@code n} {@link Problem Problems} generated by this {@link ProblemSupplier}, as if by calling {@link #get()}
+	 * {@code n} times. The default implementation does exactly that. Suppliers that can share work between the problems of a batch, such as
+	 * reading their settings or looking up a template once, may override this method.
+	 * @throws IllegalArgumentException if {@code n} is negative.
+	 */
+	default Problem[] generate(int n) {
+		if(n < 0)
+			throw new IllegalArgumentException("n < 0");
+		final Problem[] problems = new Problem[n];
+		for(int i = 0; i < n; i++)
+			problems[i] = get();
+		return problems;
+	}
+	
+	/**
+	 * Returns a {@link Spliterator} over {@code count} {@link Problem Problems} generated by this {@link ProblemSupplier}. It splits for
+	 * parallel streams and uses {@link #generate(int)} to generate problems in batches.
+	 * @throws IllegalArgumentException if {@code count} is negative.
+	 */
+	default Spliterator<Problem> spliterator(long count) {
+		if(count < 0)
+			throw new IllegalArgumentException("count < 0");
+		return new ProblemSpliterator(this, count);
+	}
+	
+	/**
+	 * Returns a sequential {@link Stream} of {@code count} {@link Problem Problems} generated by this {@link ProblemSupplier}. The stream may be
+	 * made {@link Stream#parallel() parallel} only if this supplier's {@link #get()} and {@link #generate(int)} are safe to call from multiple
+	 * threads at once, which is not true of a supplier in {@link SupplierMode#STACKED STACKED} mode.
+	 * @throws IllegalArgumentException if {@code count} is negative.
+	 */
+	default Stream<Problem> stream(long count) {
+		return StreamSupport.stream(spliterator(count), false);
+	}
+	
 	/** Returns an unmodifiable view. */
 	default List<Ref> settings() {
 		return Collections.emptyList();
 	}
 	
+	/**
+	 * Returns the name of this {@link ProblemSupplier} that is displayed to the user. By default, it is the {@link DisplayName} of this
+	 * supplier's class, if it has one, and is otherwise derived from the class name.
+	 */
 	default String getName() {
-		return getNameFromClass(getClass());
+		return getName(getClass());
+	}
+	
+	/**
+	 * Returns the name that the {@link #getName() default getName()} gives every supplier of the given class, which is known without creating
+	 * one: the class's {@link DisplayName}, if it has one, and otherwise a name derived from the class name.
+	 */
+	static String getName(final Class<? extends ProblemSupplier> clazz) {
+		final DisplayName displayName = clazz.getAnnotation(DisplayName.class);
+		return displayName != null ? displayName.value() : getNameFromClass(clazz);
 	}
 	
 	/** Returns {@code true} if this {@link ProblemSupplier} supports the given {@link SupplierMode} under any {@link #settings()}.
@@ -119,7 +169,8 @@ public interface ProblemSupplier extends Supplier<Problem> {
 	}
 	
 	/** Called to notify this {@link ProblemSupplier} that its {@link #settings()} have changed in some way. <b>Any method
-	 * that overrides this must immediately call {@code super.settingsChanged()}.</b>*/
+	 * that overrides this must immediately call {@code super.settingsChanged()}, unless it keeps its current mode valid under the new
+	 * settings itself.</b>*/
 	default void settingsChanged() {
 		setMode(SupplierMode.RANDOM);
 	}
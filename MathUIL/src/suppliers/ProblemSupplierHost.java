@@ -1,17 +1,19 @@
 package suppliers;
 
-import java.util.Set;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /** 
  * 
  * <p>A class or interface that "hosts" several {@link ProblemSupplier}{@code s} should extend/implement this interface and provide those {@code ProblemSuppliers}
- * by <b>hiding the getFatories() method with a new method of the same signature that returns a {@link Set} of the {@code ProblemSuppliers} being hosted.</b> </p>
+ * by <b>hiding the getFatories() method with a new method of the same signature that returns a {@link Map} from the
+ * {@link ProblemSupplier#getName() display name} of each {@code ProblemSupplier} being hosted to its factory.</b> The names are given up front so
+ * that the suppliers do not have to be created until they are used.</p>
  * @author Sam Hooper
  * */
 public interface ProblemSupplierHost {
 	
-	static Set<Supplier<? extends ProblemSupplier>> getFactories() {
+	static Map<String, Supplier<? extends ProblemSupplier>> getFactories() {
 		throw new UnsupportedOperationException(String.format("This method must be hidden"));
 	}
 	
@@ -1,28 +1,39 @@
 package suppliers;
 
-import java.util.*;
-
 import problems.Problem;
 import utils.EnumSetView;
 import utils.refs.*;
 
 /**
- * 
+ * <p>A {@link ProblemSupplier} that supports {@link SupplierMode#RANDOM} and, under some settings, {@link SupplierMode#STACKED}.</p>
+ *
+ * <p>A subclass describes the finite set of problems it draws from in {@code STACKED} mode as a {@link #stackedSpace() StackedSpace} and a
+ * function from each point of it to its {@link #stackedProblem(int[]) problem}. The problems are only created when they are drawn, and the
+ * deck of indices is a {@link StackedDeck}, so entering {@code STACKED} mode takes constant time however large the set is.</p>
+ *
+ * <p>A change of settings that leaves {@code STACKED} mode supported does not leave it. Instead, the deck is rebuilt for the new space with
+ * every solved problem that is still in it marked solved, found by carrying each solved point from the old space to the new one. Problems
+ * added by the change start unsolved without being visited, so the cost is proportional to the number of solved problems, not to the size
+ * of either space.</p>
  * @author Sam Hooper
  */
 public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 
 	private static final EnumSetView<SupplierMode> RANDOM_AND_STACKED = EnumSetView.of(SupplierMode.RANDOM, SupplierMode.STACKED);
 	
-	protected final MutableIntRef stackedProblemsMaxIndex;
-	protected int lastStackedProblemsIndex;
-	protected List<Problem> stackedProblems;
+	private final MutableIntRef stackedUnsolved;
+	/** The position in {@link #deck} of the last problem drawn in {@code STACKED} mode, or {@code -1} if it has been solved. */
+	private int lastStackedPosition;
+	private StackedDeck deck;
+	/** The space {@link #deck} was built for, or {@code null} if there is no deck. */
+	private StackedSpace space;
 	private final MutableBooleanRef stackedSupported;
 	
 	public RandomAndStackedSupplier() {
-		stackedProblemsMaxIndex = new MutableIntRef(-1);
-		lastStackedProblemsIndex = -1;
-		stackedProblems = null;
+		stackedUnsolved = new MutableIntRef(-1);
+		lastStackedPosition = -1;
+		deck = null;
+		space = null;
 		stackedSupported = new MutableBooleanRef(false);
 	}
 
@@ -42,19 +53,15 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 		if(getMode() != SupplierMode.STACKED) {
 			throw new UnsupportedOperationException(String.format("Not in " + SupplierMode.STACKED.getDisplayName() + " mode"));
 		}
-		return stackedProblemsMaxIndex;
+		return stackedUnsolved;
 	}
 	
 	@Override
 	public void strictlySolved(Problem p) {
-		if(currentProblemMode == SupplierMode.STACKED) {
-			if(stackedProblemsMaxIndex.get() <= 1) {
-				stackedProblemsMaxIndex.set(stackedProblems.size());
-			}
-			else {
-				stackedProblemsMaxIndex.decrement();
-				Collections.swap(stackedProblems, lastStackedProblemsIndex, stackedProblemsMaxIndex.get());
-			} 
+		if(currentProblemMode == SupplierMode.STACKED && deck != null && lastStackedPosition >= 0) {
+			deck.solve(lastStackedPosition);
+			lastStackedPosition = -1;
+			stackedUnsolved.set(deck.unsolved());
 		}
 	}
 	
@@ -69,8 +76,8 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 	}
 	
 	private Problem getStacked() {
-		lastStackedProblemsIndex = Problem.intExclusive(stackedProblemsMaxIndex);
-		return stackedProblems.get(lastStackedProblemsIndex);
+		lastStackedPosition = deck.drawPosition();
+		return stackedProblem(space.point(deck.indexAt(lastStackedPosition)));
 	}
 	
 	@Override
@@ -92,10 +99,40 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 		return mode == SupplierMode.RANDOM || mode == SupplierMode.STACKED && supportsStacked();
 	}
 	
+	/**
+	 * Stays in {@link SupplierMode#STACKED} mode if it is still supported, carrying the solved problems into the new deck as described in the
+	 * {@link RandomAndStackedSupplier class documentation}. Otherwise, calls {@code super.settingsChanged()}.
+	 */
 	@Override
 	public void settingsChanged() {
-		super.settingsChanged();
-		stackedSupported.set(supportsStacked());
+		final boolean supported = supportsStacked();
+		if(getMode() == SupplierMode.STACKED && supported)
+			updateDeck(stackedSpace());
+		else
+			super.settingsChanged();
+		stackedSupported.set(supported);
+	}
+	
+	private void updateDeck(final StackedSpace newSpace) {
+		if(newSpace.equals(space))
+			return;
+		final StackedSpace oldSpace = space;
+		final StackedDeck oldDeck = deck, newDeck = new StackedDeck(newSpace.size());
+		oldDeck.forEachSolved(oldIndex -> {
+			final int newIndex = newSpace.indexOf(oldSpace.point(oldIndex));
+			if(newIndex >= 0)
+				newDeck.solveIndex(newIndex);
+		});
+		int newLast = -1;
+		if(lastStackedPosition >= 0) {
+			final int newIndex = newSpace.indexOf(oldSpace.point(oldDeck.indexAt(lastStackedPosition)));
+			if(newIndex >= 0 && !newDeck.isSolved(newIndex))
+				newLast = newDeck.positionOf(newIndex);
+		}
+		deck = newDeck;
+		space = newSpace;
+		lastStackedPosition = newLast;
+		stackedUnsolved.set(deck.unsolved());
 	}
 
 	protected abstract Problem getRandom();
@@ -104,19 +141,34 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 	 * current settings, {@code false} otherwise.*/
 	protected abstract boolean supportsStacked();
 	
-	protected abstract List<Problem> generateAllPossibleProblems();
+	/**
+	 * Returns the space of problems drawn from in {@link SupplierMode#STACKED} mode under the current settings. It is only called if
+	 * {@link #supportsStacked()} is {@code true}.
+	 */
+	protected abstract StackedSpace stackedSpace();
+	
+	/**
+	 * Returns the problem for the given point of the {@link #stackedSpace()}. Distinct points must give distinct problems, and a point must give
+	 * the same problem under any settings that include it.
+	 */
+	protected abstract Problem stackedProblem(int[] point);
 	
 	@Override
 	public boolean setMode(SupplierMode newMode) {
 		if(getMode() == newMode)
 			return false;
 		if(!supportsUnderCurrentSettings(newMode))
-			throw new UnsupportedOperationException(String.format("%s is unsupported under the current settings"));
+			throw new UnsupportedOperationException(String.format("%s is unsupported under the current settings", newMode));
 		switch(newMode) {
-			case RANDOM -> stackedProblems = null; //set to null to conserve memory
+			case RANDOM -> { //set to null to conserve memory
+				deck = null;
+				space = null;
+			}
 			case STACKED -> {
-				stackedProblems = generateAllPossibleProblems();
-				stackedProblemsMaxIndex.set(stackedProblems.size());
+				space = stackedSpace();
+				deck = new StackedDeck(space.size());
+				lastStackedPosition = -1;
+				stackedUnsolved.set(deck.unsolved());
 			}
 			default -> throw new UnsupportedOperationException(String.format("%s is unsupported under any settings", newMode));
 		}
@@ -0,0 +1,115 @@
+package suppliers;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * <p>A {@link SupplierIndex} that finds the suppliers at run time by loading every class in the subpackages of {@code suppliers}, following the
+ * same rules as the generated index (see {@link Indexed}). {@link ProblemSuppliers} only uses it when the generated index is missing, which
+ * happens when this module was compiled without the annotation processor.</p>
+ *
+ * <p>The classes may be in a directory or in a jar. No supplier is created: display names are read from the {@link DisplayName} annotation
+ * or derived from the class name, as {@link ProblemSupplier#getName(Class)} does.</p>
+ * @author Sam Hooper
+ *
+ */
+final class ScanningSupplierIndex implements SupplierIndex {
+	
+	private static final String CLASS_SUFFIX = ".class";
+	
+	@Override
+	public void registerAll(final Registrar registrar) {
+		final URI self;
+		try {
+			self = ScanningSupplierIndex.class.getResource(ScanningSupplierIndex.class.getSimpleName() + CLASS_SUFFIX).toURI();
+		}
+		catch(URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+		try {
+			Path selfPath;
+			FileSystem opened = null;
+			try {
+				selfPath = Path.of(self);
+			}
+			catch(FileSystemNotFoundException ex) { //In a jar whose file system has not been opened yet.
+				opened = FileSystems.newFileSystem(self, Map.of());
+				selfPath = opened.provider().getPath(self);
+			}
+			try {
+				scan(selfPath.getParent(), registrar);
+			}
+			finally {
+				if(opened != null)
+					opened.close();
+			}
+		}
+		catch(IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		catch(ReflectiveOperationException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+	
+	private void scan(final Path packageDirectory, final Registrar registrar) throws IOException, ReflectiveOperationException {
+		try(Stream<Path> files = Files.walk(packageDirectory)) {
+			for(Iterator<Path> itr = files.iterator(); itr.hasNext();) {
+				final Path file = itr.next();
+				final String fileName = file.getFileName().toString();
+				if(fileName.endsWith(CLASS_SUFFIX) && !fileName.contains("$") && !file.getParent().equals(packageDirectory))
+					register(packageDirectory.relativize(file), registrar);
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void register(final Path relative, final Registrar registrar) throws ReflectiveOperationException {
+		final StringBuilder className = new StringBuilder(ScanningSupplierIndex.class.getPackageName());
+		for(Path segment : relative)
+			className.append('.').append(segment);
+		className.setLength(className.length() - CLASS_SUFFIX.length());
+		final Class<?> clazz = Class.forName(className.toString(), false, ScanningSupplierIndex.class.getClassLoader());
+		final int modifiers = clazz.getModifiers();
+		if(!clazz.isAnnotationPresent(Indexed.class) || !Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || clazz.isInterface())
+			return;
+		final String packageName = clazz.getPackageName();
+		final Category category = Category.valueOf(packageName.substring(packageName.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT));
+		if(ProblemSupplier.class.isAssignableFrom(clazz)) {
+			final Class<? extends ProblemSupplier> supplierClass = clazz.asSubclass(ProblemSupplier.class);
+			final Constructor<? extends ProblemSupplier> constructor;
+			try {
+				constructor = supplierClass.getConstructor();
+			}
+			catch(NoSuchMethodException ex) {
+				return;
+			}
+			final Supplier<ProblemSupplier> factory = () -> {
+				try {
+					return constructor.newInstance();
+				}
+				catch(ReflectiveOperationException ex) {
+					throw new IllegalStateException(ex);
+				}
+			};
+			registrar.supplier(ProblemSupplier.getName(supplierClass), category, factory);
+		}
+		else if(ProblemSupplierHost.class.isAssignableFrom(clazz)) {
+			final Method getFactories = clazz.getMethod("getFactories");
+			registrar.host(category, () -> {
+				try {
+					return (Map<String, Supplier<? extends ProblemSupplier>>) getFactories.invoke(null);
+				}
+				catch(ReflectiveOperationException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+	}
+	
+}
@@ -2,6 +2,7 @@ package suppliers;
 
 import java.util.*;
 
+import problems.Problem;
 import utils.*;
 import utils.refs.Ref;
 
@@ -9,6 +10,7 @@ import utils.refs.Ref;
  * @author Sam Hooper
  *
  */
+@Indexed
 public abstract class SettingsProblemSupplier implements ProblemSupplier {
 	
 	private List<Ref> settings;
@@ -33,6 +35,16 @@ public abstract class SettingsProblemSupplier implements ProblemSupplier {
 		settingsAdded();
 	}
 	
+	/**
+	 * Returns a new array for a batch of {@code n} {@link Problem Problems}, for use by overrides of {@link #generate(int)}.
+	 * @throws IllegalArgumentException if {@code n} is negative.
+	 */
+	protected static Problem[] newBatch(final int n) {
+		if(n < 0)
+			throw new IllegalArgumentException("n < 0");
+		return new Problem[n];
+	}
+	
 	/** Called immediately after a setting is added via {@link #addAllSettings(Ref...)}. Does nothing
 	 * by default.*/
 	protected void settingsAdded() {
@@ -0,0 +1,125 @@
+package suppliers;
+
+import java.util.function.IntConsumer;
+
+import utils.*;
+
+/**
+ * <p>The deck of a {@link RandomAndStackedSupplier} in {@link SupplierMode#STACKED} mode: the indices {@code 0} (inclusive) to {@link #size()}
+ * (exclusive) of its problem space, each of which is drawn at random until it is solved, and none of which is drawn again until every one has
+ * been solved.</p>
+ *
+ * <p>The deck is a permutation of the indices, divided into the {@link #unsolved()} positions at the front and the solved positions behind
+ * them. Drawing picks a random unsolved position, and solving swaps that position with the last unsolved one, as in a Fisher-Yates shuffle.
+ * Only the positions whose index differs from the position itself are stored, in an {@link IntIntHashMap} and its inverse, so creating a deck
+ * takes constant time and space however large it is, drawing and solving take constant time, and the memory used grows only with the number
+ * of problems solved.</p>
+ * @author Sam Hooper
+ *
+ */
+final class StackedDeck {
+	
+	private final int size;
+	/** Maps each position whose index is not the position itself to its index. */
+	private IntIntHashMap moved;
+	/** The inverse of {@link #moved}: maps each index that is not at its own position to its position. */
+	private IntIntHashMap positions;
+	private int unsolved;
+	
+	/**
+	 * Creates a deck of the indices {@code 0} (inclusive) to {@code size} (exclusive), none of which are solved.
+	 * @throws IllegalArgumentException if {@code size < 1}.
+	 */
+	StackedDeck(final int size) {
+		if(size < 1)
+			throw new IllegalArgumentException("size < 1");
+		this.size = size;
+		reset();
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	/** Returns the number of indices that have not been solved since the deck was last {@link #reset()}. */
+	int unsolved() {
+		return unsolved;
+	}
+	
+	/** Returns a random position of an unsolved index. Get the index with {@link #indexAt(int)}. */
+	int drawPosition() {
+		return RandomSource.current().nextInt(unsolved);
+	}
+	
+	/** Returns the index at the given position. */
+	int indexAt(final int position) {
+		return moved.getOrDefault(position, position);
+	}
+	
+	/** Returns the position of the given index. */
+	int positionOf(final int index) {
+		return positions.getOrDefault(index, index);
+	}
+	
+	/** Returns {@code true} if the given index has been solved since the deck was last {@link #reset()}. */
+	boolean isSolved(final int index) {
+		return positionOf(index) >= unsolved;
+	}
+	
+	/**
+	 * Marks the index at the given position, which must be unsolved, as solved. If it was the last unsolved index, the deck is {@link #reset()}.
+	 * Positions drawn before this call may no longer hold the same index.
+	 */
+	void solve(final int position) {
+		assert position >= 0 && position < unsolved;
+		final int last = --unsolved;
+		if(unsolved == 0) {
+			reset();
+			return;
+		}
+		final int solvedIndex = indexAt(position);
+		set(position, indexAt(last));
+		set(last, solvedIndex);
+	}
+	
+	/**
+	 * Marks the given index as solved if it is not already, as {@link #solve(int)} does for its position.
+	 */
+	void solveIndex(final int index) {
+		final int position = positionOf(index);
+		if(position < unsolved)
+			solve(position);
+	}
+	
+	/** Performs the given action on each solved index, in no particular order. Takes time proportional to the number of solved indices. */
+	void forEachSolved(final IntConsumer action) {
+		for(int position = unsolved; position < size; position++)
+			action.accept(indexAt(position));
+	}
+	
+	private void set(final int position, final int index) {
+		final int old = indexAt(position);
+		if(positions.getOrDefault(old, old) == position)
+			positions.remove(old);
+		if(index == position) {
+			moved.remove(position);
+		}
+		else {
+			moved.put(position, index);
+			positions.put(index, position);
+		}
+	}
+	
+	/** Marks every index as unsolved. */
+	void reset() {
+		moved = new IntIntHashMap();
+		positions = new IntIntHashMap();
+		unsolved = size;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("StackedDeck[size=%d, unsolved=%d]", size, unsolved);
+	}
+	
+}
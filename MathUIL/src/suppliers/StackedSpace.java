@@ -0,0 +1,136 @@
+package suppliers;
+
+import java.util.Arrays;
+
+/**
+ * <p>The set of problems a {@link RandomAndStackedSupplier} draws from in {@link SupplierMode#STACKED} mode, described as a box of integer
+ * points: every point whose {@code i}th coordinate is between {@code low(i)} and {@code high(i)}, inclusive. Each point stands for one problem.
+ * The points are numbered from {@code 0} to {@link #size()} (exclusive), with the last coordinate varying fastest.</p>
+ *
+ * <p>Because a point means the same problem under any settings, the solved problems of one space can be carried into another with
+ * {@link #indexOf(int[])}, which is how a stacked deck survives a change of settings.</p>
+ *
+ * <p>{@code StackedSpaces} are immutable.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class StackedSpace {
+	
+	private final int[] lows, counts;
+	private final int size;
+	
+	private StackedSpace(final int[] lows, final int[] counts) {
+		this.lows = lows;
+		this.counts = counts;
+		long size = 1;
+		for(int count : counts) {
+			size *= count;
+			if(size > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("A StackedSpace can have at most Integer.MAX_VALUE points");
+		}
+		this.size = (int) size;
+	}
+	
+	/**
+	 * Returns the one-dimensional space of the integers from {@code low} to {@code high}, inclusive.
+	 * @throws IllegalArgumentException if {@code low > high}.
+	 */
+	public static StackedSpace of(final int low, final int high) {
+		return power(low, high, 1);
+	}
+	
+	/**
+	 * Returns the space of every point with {@code dimensions} coordinates, each from {@code low} to {@code high}, inclusive.
+	 * @throws IllegalArgumentException if {@code low > high}, {@code dimensions < 1}, or the space has more than {@link Integer#MAX_VALUE}
+	 * points.
+	 */
+	public static StackedSpace power(final int low, final int high, final int dimensions) {
+		if(low > high)
+			throw new IllegalArgumentException(String.format("low > high (%d > %d)", low, high));
+		if(dimensions < 1)
+			throw new IllegalArgumentException("dimensions < 1");
+		final int[] lows = new int[dimensions], counts = new int[dimensions];
+		Arrays.fill(lows, low);
+		Arrays.fill(counts, high - low + 1);
+		return new StackedSpace(lows, counts);
+	}
+	
+	/**
+	 * Returns the number of points in the space of every point with {@code dimensions} coordinates, each from {@code low} to {@code high},
+	 * inclusive, or {@link Long#MAX_VALUE} if it is more than {@link Integer#MAX_VALUE}.
+	 */
+	public static long powerSize(final int low, final int high, final int dimensions) {
+		final long count = high - (long) low + 1;
+		long size = 1;
+		for(int i = 0; i < dimensions; i++) {
+			size *= count;
+			if(size > Integer.MAX_VALUE)
+				return Long.MAX_VALUE;
+		}
+		return size;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int dimensions() {
+		return lows.length;
+	}
+	
+	/**
+	 * Returns the point with the given index.
+	 * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size()}.
+	 */
+	public int[] point(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(index);
+		final int[] point = new int[lows.length];
+		for(int i = point.length - 1; i >= 0; i--) {
+			point[i] = lows[i] + index % counts[i];
+			index /= counts[i];
+		}
+		return point;
+	}
+	
+	/** Returns the index of the given point, or {@code -1} if it is not in this space. */
+	public int indexOf(final int[] point) {
+		if(point.length != lows.length)
+			return -1;
+		int index = 0;
+		for(int i = 0; i < point.length; i++) {
+			final int offset = point[i] - lows[i];
+			if(offset < 0 || offset >= counts[i])
+				return -1;
+			index = index * counts[i] + offset;
+		}
+		return index;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof StackedSpace))
+			return false;
+		final StackedSpace other = (StackedSpace) obj;
+		return Arrays.equals(lows, other.lows) && Arrays.equals(counts, other.counts);
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(lows) + Arrays.hashCode(counts);
+	}
+	
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("StackedSpace[");
+		for(int i = 0; i < lows.length; i++) {
+			if(i > 0)
+				sb.append(" x ");
+			sb.append(lows[i]).append("..").append(lows[i] + counts[i] - 1);
+		}
+		return sb.append(']').toString();
+	}
+	
+}
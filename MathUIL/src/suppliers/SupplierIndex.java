@@ -0,0 +1,33 @@
+package suppliers;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * <p>An index of every {@link ProblemSupplier} and {@link ProblemSupplierHost} in the subpackages of {@code suppliers}. The main implementation,
+ * {@value #IMPLEMENTATION}, is generated at compile time by the {@code SupplierIndexProcessor} in the {@code MathUILProcessor} module, so
+ * {@link ProblemSuppliers} does not have to search for suppliers or create them to learn their names. {@link ScanningSupplierIndex} is the
+ * fallback for when it was not generated.</p>
+ * @author Sam Hooper
+ *
+ */
+interface SupplierIndex {
+	
+	/** The name of the generated implementation, which has a no-arg constructor. */
+	String IMPLEMENTATION = "suppliers.GeneratedSupplierIndex";
+	
+	/** Receives the entries of a {@link SupplierIndex}. */
+	interface Registrar {
+		
+		/** Registers a {@link ProblemSupplier} class with the given display name, category, and factory (its no-arg constructor). */
+		void supplier(String displayName, Category category, Supplier<? extends ProblemSupplier> factory);
+		
+		/** Registers the suppliers of a {@link ProblemSupplierHost}, whose {@code getFactories()} method is given as {@code factories}. */
+		void host(Category category, Supplier<Map<String, Supplier<? extends ProblemSupplier>>> factories);
+		
+	}
+	
+	/** Passes every entry of this index to {@code registrar}. */
+	void registerAll(Registrar registrar);
+	
+}
@@ -12,14 +12,15 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Base a to a^n")
 public class BaseAToPowerOfASupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore VALUE = RangeStore.of(1, 10_000, 2, 200);
 	
 	private static int[] generateBases() {
-		int ran = RAND.nextInt(3);
+		int ran = intExclusive(3);
 		if(ran == 0)
-			return switch(RAND.nextInt(3)) {
+			return switch(intExclusive(3)) {
 				case 0 -> Problem.shuffled(2, 4);
 				case 1 -> Problem.shuffled(2, 8);
 				default -> Problem.shuffled(2, 16);
@@ -45,10 +46,6 @@ public class BaseAToPowerOfASupplier extends SettingsProblemSupplier {
 				.addBaseResult(base2, bases[1]).build();
 	}
 
-	@Override
-	public String getName() {
-		return "Base a to a^n";
-	}	
 	
 	
 	
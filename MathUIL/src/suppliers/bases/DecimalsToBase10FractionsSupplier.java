@@ -24,7 +24,7 @@ public class DecimalsToBase10FractionsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int b = base.low() == 10 && base.high() == 10 ? 10 : RAND.ints(base.low(), base.high() + 1).filter(i -> i != 10).findAny().getAsInt();
+		int b = base.low() == 10 && base.high() == 10 ? 10 : intInclusiveExcept(base.low(), base.high(), 10);
 		int dig = intInclusive(digits);
 		String dec = "." + Problem.stringOfDigits(dig, b);
 		return Builder.of(String.format("Convert %s to a base 10 fraction:", ensureMath(base(dec, b))))
@@ -4,10 +4,11 @@ import static problems.Problem.*;
 import static suppliers.NamedBooleanRef.*;
 import static suppliers.NamedIntRange.*;
 
+import java.util.*;
+
 import math.*;
 import problems.*;
 import suppliers.*;
-import utils.IntList;
 
 /**
  * @author Sam Hooper
@@ -16,17 +17,37 @@ import utils.IntList;
 public class NumberOfPositiveIntegralDivisorsSupplier extends SettingsProblemSupplier {
 	private static final RangeStore VALUE = RangeStore.of(1, 500, 1, 200);
 	private final NamedIntRange value = of(VALUE, "Value of number");
+	private final NamedBooleanRef evenAnswers = of(false, "Spread answers evenly");
 	
 	public NumberOfPositiveIntegralDivisorsSupplier() {
-		addAllSettings(value);
+		addAllSettings(value, evenAnswers);
 	}
 
 	@Override
 	public Problem get() {
-		int val = intInclusive(value);
-		IntList facs = Utils.factorsUnsorted(val);
-		return ComplexValued.of(String.format("%d has how many positive integral divisors?", val), new Complex(facs.size()));
+		int val = evenAnswers.get() ? valueByAnswer() : intInclusive(value);
+		return ComplexValued.of(String.format("%d has how many positive integral divisors?", val), Complex.valueOf(ArithmeticFunctions.upTo(val).tau(val)));
 		
 	}
 	
+	/**
+	 * Picks the answer first, uniformly from the divisor counts of the numbers in the range, and then a number in the range with that many
+	 * divisors. Otherwise primes, with 2 divisors, would be the most common answer by far.
+	 */
+	private int valueByAnswer() {
+		final int low = value.low(), high = value.high();
+		final ArithmeticFunctions functions = ArithmeticFunctions.upTo(high);
+		final List<int[]> byAnswer = new ArrayList<>();
+		for(int k = 1, maxTau = 2 * (int) Math.sqrt(high); k <= maxTau; k++) { //tau(n) <= 2*sqrt(n)
+			final int[] numbers = functions.withTau(k, high);
+			int from = 0;
+			while(from < numbers.length && numbers[from] < low)
+				from++;
+			if(from < numbers.length)
+				byAnswer.add(Arrays.copyOfRange(numbers, from, numbers.length));
+		}
+		final int[] numbers = byAnswer.get(intExclusive(byAnswer.size()));
+		return numbers[intExclusive(numbers.length)];
+	}
+	
 }
@@ -23,8 +23,8 @@ public class SumOfPositiveIntegralDivisorsSupplier extends SettingsProblemSuppli
 	@Override
 	public Problem get() {
 		int val = intInclusive(value);
-		long sum = Utils.factorsUnsorted(val).sum();
-		return ComplexValued.of(String.format("What is the sum of the positive integral divisors of %d:", val), new Complex(sum));
+		long sum = ArithmeticFunctions.upTo(val).sigma(val);
+		return ComplexValued.of(String.format("What is the sum of the positive integral divisors of %d:", val), Complex.valueOf(sum));
 	}
 	
 }
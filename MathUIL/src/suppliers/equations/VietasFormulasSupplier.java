@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Vieta's Formulas")
 public class VietasFormulasSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore VALUES = RangeStore.of(-50, 50, -10, 10), DEGREE = RangeStore.of(2, 5, 2, 4);
@@ -24,7 +25,7 @@ public class VietasFormulasSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int[] cos = RAND.ints(intInclusive(degree) + 1, values.low(), values.high() + 1).toArray();
+		int[] cos = intsInclusive(intInclusive(degree) + 1, values.low(), values.high());
 		if(cos[0] == 0) cos[0] = 1;
 		String displayExpr = Prettifier.polynomialEqualsZero('x', cos);
 		if(Problem.random() <= 0.5)
@@ -38,10 +39,6 @@ public class VietasFormulasSupplier extends SettingsProblemSupplier {
 		}
 	}
 
-	@Override
-	public String getName() {
-		return "Vieta's Formulas";
-	}
 
 	
 }
\ No newline at end of file
@@ -2,9 +2,6 @@ package suppliers.exponentiation;
 
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-import java.util.stream.*;
-
 import problems.*;
 import suppliers.*;
 
@@ -41,11 +38,16 @@ public class CubesSupplier extends RandomAndStackedSupplier {
 	
 	@Override
 	protected boolean supportsStacked() {
-		return true; //always support stacked, since there will always be < 1000 problems.
+		return true;
 	}
 
 	@Override
-	protected List<Problem> generateAllPossibleProblems() {
-		return IntStream.rangeClosed(base.low(), base.high()).mapToObj(CubesSupplier::getWithBase).collect(Collectors.toList());
+	protected StackedSpace stackedSpace() {
+		return StackedSpace.of(base.low(), base.high());
+	}
+	
+	@Override
+	protected Problem stackedProblem(final int[] point) {
+		return getWithBase(point[0]);
 	}
 }
@@ -5,7 +5,6 @@ import static suppliers.NamedIntRange.*;
 
 import java.util.List;
 
-import math.Evaluator;
 import problems.*;
 import suppliers.*;
 import utils.refs.MutableBooleanRef;
@@ -32,11 +31,11 @@ public class ExponentApproximationSupplier extends SettingsProblemSupplier {
 			sb.append(getTerm()).append(getOp());
 		sb.append(getTerm());
 		final String str = sb.toString();
-		return Builder.approximation(str, Evaluator.evaluateAsBigDecimalExact(str));
+		return Builder.approximationOfExpression(str, str);
 	}
 	
 	private String getOp() {
-		if(division.ref().get() && Math.random() < 0.5)
+		if(division.ref().get() && Problem.random() < 0.5)
 			return "/";
 		return "*";
 	}
@@ -13,6 +13,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Powers of e")
 public class PowersOfESupplier extends SettingsProblemSupplier {
 	public static final boolean DEFAULT_INCLUDE_E_TO_PI = true;
 	public static final Problem TO_PI_PROBLEM = Builder.approximation(
@@ -28,16 +29,12 @@ public class PowersOfESupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		if(includeEToPi.get() && Math.random() <= (1d / (exponent.ref().valueRange() + 1)))
+		if(includeEToPi.get() && Problem.random() <= (1d / (exponent.ref().valueRange() + 1)))
 			return TO_PI_PROBLEM;
 		int exp = Problem.intInclusive(exponent);
 		return Builder.approximation(Prettifier.E_HTML + "<sup>" + exp + "</sup>", Utils.eTo(exp));
 	}
 
-	@Override
-	public String getName() {
-		return "Powers of e";
-	}
 	
 }
 
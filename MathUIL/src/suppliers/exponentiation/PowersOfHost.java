@@ -12,10 +12,15 @@ import suppliers.*;
  * 
  * @author Sam Hooper
  */
+@Indexed
 public class PowersOfHost implements ProblemSupplierHost {
 
-	public static Set<Supplier<? extends ProblemSupplier>> getFactories() {
-		return Set.of(createSupplier("2"), createSupplier("3"), createSupplier("5"));
+	public static Map<String, Supplier<? extends ProblemSupplier>> getFactories() {
+		return Map.of(nameFor("2"), createSupplier("2"), nameFor("3"), createSupplier("3"), nameFor("5"), createSupplier("5"));
+	}
+	
+	private static String nameFor(String number) {
+		return String.format("Powers of %s", number);
 	}
 	
 	private static Supplier<? extends ProblemSupplier> createSupplier(String number) {
@@ -39,7 +44,7 @@ public class PowersOfHost implements ProblemSupplierHost {
 		
 		@Override
 		public String getName() {
-			return String.format("Powers of %s", number);
+			return nameFor(number);
 		}
 	}
 	
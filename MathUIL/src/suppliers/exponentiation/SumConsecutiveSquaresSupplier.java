@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Sum of consecutive squares")
 public class SumConsecutiveSquaresSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore SMALL = RangeStore.of(0, 200, 1, 50);
@@ -26,9 +27,4 @@ public class SumConsecutiveSquaresSupplier extends SettingsProblemSupplier {
 		return new SimpleExpression(String.format("%s^2+%d^2", term, term + 1));
 	}
 	
-	@Override
-	public String getName() {
-		return "Powers of e";
-	}
-	
 }
@@ -7,6 +7,8 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@Indexed
+@DisplayName("Sum of squares when outer digits add to 10 and inner digits are 1 apart")
 public class SumOfSquaresOuterAddsTo10Inner1ApartSupplier implements ProblemSupplier {
 	
 	public SumOfSquaresOuterAddsTo10Inner1ApartSupplier() {}
@@ -21,9 +23,5 @@ public class SumOfSquaresOuterAddsTo10Inner1ApartSupplier implements ProblemSupp
 		return new SimpleExpression(String.format("%d^2+%d^2", arr[0], arr[1]));
 	}
 
-	@Override
-	public String getName() {
-		return "Sum of squares when outer digits add to 10 and inner digits are 1 apart";
-	}
 	
 }
@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Sum of squares with bases x and 3x")
 public class SumOfSquaresX3XSupplier extends SettingsProblemSupplier {
 	
 	/**
@@ -31,9 +32,5 @@ public class SumOfSquaresX3XSupplier extends SettingsProblemSupplier {
 		return new SimpleExpression(String.format("%d^2+%d^2", base1, base2));
 	}
 
-	@Override
-	public String getName() {
-		return "Sum of squares with bases x and 3x";
-	}
 	
 }
@@ -23,7 +23,7 @@ public class CombinationsSupplier extends SettingsProblemSupplier {
 	public Problem get() {
 		final int nVal = intInclusive(n);
 		final int rVal = intInclusive(Math.min(r.low(), nVal), Math.min(nVal, r.high()));
-		return ComplexValued.of(String.format("C(%d, %d)", nVal, rVal), new Complex(Utils.nCr(nVal, rVal)));
+		return ComplexValued.of(String.format("C(%d, %d)", nVal, rVal), Complex.valueOf(Combinatorics.nCrExact(nVal, rVal)));
 	}
 	
 }
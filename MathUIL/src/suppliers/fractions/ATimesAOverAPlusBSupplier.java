@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiplying fractions of the form a*a/(a+b)")
 public class ATimesAOverAPlusBSupplier extends SettingsProblemSupplier {
 	
 private static final RangeStore A_VALUE = RangeStore.of(1, 30), B_VALUE = RangeStore.of(-10, 10, -5, 5);
@@ -28,9 +29,5 @@ private static final RangeStore A_VALUE = RangeStore.of(1, 30), B_VALUE = RangeS
 		return FracSupUtils.multiplyScrambled(BigFraction.of(a, 1), BigFraction.of(a, a + b));
 	}
 	
-	@Override
-	public String getName() {
-		return "Multiplying fractions of the form a*a/(a+b)";
-	}
 	
 }
@@ -14,6 +14,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Adding fractions of the form a/b + b/(a+b)")
 public class AddingABPlusBAPlusBSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore A_VALUE = RangeStore.of(1, 20, 1, 10), B_VALUE = RangeStore.of(2, 20, 2, 13);
@@ -32,9 +33,5 @@ public class AddingABPlusBAPlusBSupplier extends SettingsProblemSupplier {
 		return FracSupUtils.addScrambled(f1, f2, true, false);
 	}
 
-	@Override
-	public String getName() {
-		return "Adding fractions of the form a/b + b/(a+b)";
-	}
 	
 }
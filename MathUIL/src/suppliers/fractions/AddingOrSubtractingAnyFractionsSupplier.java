@@ -30,7 +30,7 @@ public class AddingOrSubtractingAnyFractionsSupplier extends SettingsProblemSupp
 	public Problem get() {
 		int a = intInclusive(num1), b = intInclusive(num2), c = intInclusive(denom1), d = intInclusive(denom2);
 		BigFraction f1 = BigFraction.of(a, b), f2 = BigFraction.of(c, d);
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return FracSupUtils.subtractReformed(f1, f2);
 		else
 			return FracSupUtils.addScrambled(f1, f2);
@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiplying fractions of the form a*(a+n)/(a+2n)")
 public class MultiplyingAAndNSupplier extends SettingsProblemSupplier {
 	private static final RangeStore A_VALUE = RangeStore.of(1, 30), N_VALUE = RangeStore.of(-10, 10, -5, 5);
 	private final NamedIntRange aValue = of(A_VALUE, "Value of a"), nValue = of(N_VALUE, "Value of n");
@@ -27,9 +28,5 @@ public class MultiplyingAAndNSupplier extends SettingsProblemSupplier {
 		return FracSupUtils.multiplyScrambled(BigFraction.of(a, 1), BigFraction.of(a + n, a + 2 * n));
 	}
 	
-	@Override
-	public String getName() {
-		return "Multiplying fractions of the form a*(a+n)/(a+2n)";
-	}
 	
 }
@@ -11,6 +11,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiplying fractions with same whole part and fractional parts adding to 1")
 public class WholeNumbersSameFractionsAddTo1Supplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore WHOLE = RangeStore.of(1, 25, 1, 20), DENOM = RangeStore.of(2, 20, 2, 10);
@@ -26,9 +27,5 @@ public class WholeNumbersSameFractionsAddTo1Supplier extends SettingsProblemSupp
 		return FracSupUtils.multiplyScrambled(MixedNumber.of(w, BigFraction.of(num1, den)), MixedNumber.of(w, BigFraction.of(den - num1, den)));
 	}
 
-	@Override
-	public String getName() {
-		return "Multiplying fractions with same whole part and fractional parts adding to 1";
-	}
 	
 }
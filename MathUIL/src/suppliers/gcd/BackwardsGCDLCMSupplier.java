@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Find term given GCD and LCM")
 public class BackwardsGCDLCMSupplier extends SettingsProblemSupplier {
 	private static final RangeStore DIGITS = RangeStore.of(1, 3, 1, 2);
 	private final NamedIntRange digits;
@@ -27,12 +28,8 @@ public class BackwardsGCDLCMSupplier extends SettingsProblemSupplier {
 			a = Problem.intWithDigits(digits);
 		while(b == 0)
 			b = Problem.intWithDigits(digits);
-		final int gcd = Utils.gcd(a, b), lcm = a * b / gcd;
-		return ComplexValued.of(String.format("Given GCD(%d,x)=%d and LCM(%1$d,x)=%d, find x", a, gcd, lcm), new Complex(b));
+		final int gcd = NumberTheory.gcd(a, b), lcm = NumberTheory.lcm(a, b);
+		return ComplexValued.of(String.format("Given GCD(%d,x)=%d and LCM(%1$d,x)=%d, find x", a, gcd, lcm), Complex.valueOf(b));
 	}
 	
-	@Override
-	public String getName() {
-		return "Find term given GCD and LCM";
-	}
 }
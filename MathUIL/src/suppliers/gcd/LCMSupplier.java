@@ -28,7 +28,7 @@ public class LCMSupplier extends SettingsProblemSupplier {
 			a = Problem.intWithDigits(digits);
 		while(b == 0)
 			b = Problem.intWithDigits(digits);
-		return ComplexValued.of(String.format("The LCM of %d and %d is", a, b), new Complex(Utils.lcm(a, b)));
+		return ComplexValued.of(String.format("The LCM of %d and %d is", a, b), Complex.valueOf(NumberTheory.lcm(a, b)));
 	}
 	
 }
@@ -32,7 +32,7 @@ public class AddingAndSubtractingMatricesSupplier extends SettingsProblemSupplie
 		String[][] letterMat = MatSupUtils.variableMatrix(r, c);
 		final Matrix resultMatrix;
 		StringBuilder displayBuilder = new StringBuilder(matrix(m1));
-		if(Math.random() <= 0.5) {
+		if(Problem.random() <= 0.5) {
 			displayBuilder.append(op('+'));
 			resultMatrix = m1.add(m2);
 		}
@@ -42,7 +42,7 @@ public class AddingAndSubtractingMatricesSupplier extends SettingsProblemSupplie
 		}
 		displayBuilder.append(matrix(m2)).append(op('=')).append(matrix(letterMat));
 		String display = ensureMath(row(displayBuilder.toString()));
-		if(Math.random() <= 0.5) { //only ask for a specific element from the result matrix
+		if(Problem.random() <= 0.5) { //only ask for a specific element from the result matrix
 			int letterRow = intExclusive(r), letterCol = intExclusive(c);
 			String letter = letterMat[letterRow][letterCol];
 			BigFraction answer = resultMatrix.get(letterRow, letterCol);
@@ -26,7 +26,7 @@ public class MatrixDeterminantSupplier extends SettingsProblemSupplier {
 	public Problem get() {
 		Matrix m = Matrix.from(2, 2, () -> BigFraction.of(intInclusive(values), 1));
 		BigFraction det = m.determinant();
-		if(Math.random() <= 0.5) { //ask them to find the determinant
+		if(Problem.random() <= 0.5) { //ask them to find the determinant
 			return Builder.of(ensureMath(det(m) + op('='))).addResult(det).build();
 		}
 		else { //ask them to find the missing value given the rest of the matrix and the determinant.
@@ -30,7 +30,7 @@ public class AbsoluteValueSupplier extends SettingsProblemSupplier {
 		System.out.printf("barSpots sorted=%s%n", barSpots);
 		List<Integer> termList = new ArrayList<>(ts);
 		for(int i = 0; i < ts; i++)
-			termList.add(intInclusive(values) * (Math.random() <= 0.5 ? -1 : 1));
+			termList.add(intInclusive(values) * (Problem.random() <= 0.5 ? -1 : 1));
 		int[] lowBarTimes = new int[ts + 1];
 		int[] highBarTimes = new int[ts + 1];
 		while(!barSpots.isEmpty()) {
@@ -46,7 +46,7 @@ public class AbsoluteValueSupplier extends SettingsProblemSupplier {
 			sb.append(termList.get(i));
 			sb.append("|".repeat(highBarTimes[i]));
 			if(i != termList.size() - 1)
-				sb.append(Math.random() <= 0.5 ? "+" : "-");
+				sb.append(Problem.random() <= 0.5 ? "+" : "-");
 		}
 		sb.append("|".repeat(highBarTimes[highBarTimes.length - 1]));
 		System.out.printf("exp:\"%s\"%n", sb);
@@ -42,7 +42,7 @@ public class ApproximationsWithRationalsSupplier extends SettingsProblemSupplier
 	 * @return
 	 */
 	private Object makeTerm() {
-		int ran = RAND.nextInt(3);
+		int ran = intExclusive(3);
 		if(ran == 0) {
 			final StringBuilder sb = new StringBuilder(Problem.stringOfDigits(intInclusive(sigFigs)));
 			return new Complex(sb.insert(sb.length(), '.').toString());
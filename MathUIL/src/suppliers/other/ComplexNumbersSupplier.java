@@ -29,7 +29,7 @@ public class ComplexNumbersSupplier extends SettingsProblemSupplier {
 		System.out.printf("left=%s, right=%s, product=%s%n", left, right, product);
 		final String qString;
 		final BigDecimal answer;
-		int rand = RAND.nextInt(4);
+		int rand = intExclusive(4);
 		if(rand == 0) {
 			qString = "a";
 			answer = product.realPart();
@@ -3,9 +3,7 @@ package suppliers.other;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.math.*;
-
-import math.BigFraction;
+import math.*;
 import problems.*;
 import suppliers.*;
 
@@ -15,7 +13,7 @@ import suppliers.*;
  */
 public class FractionsToDecimalsSupplier extends SettingsProblemSupplier {
 	
-	private static final RangeStore DENOM = RangeStore.of(2, 100, 2, 100), DIGITS = RangeStore.of(1, 10, 4, 4);
+	private static final RangeStore DENOM = RangeStore.of(2, 100_000, 2, 100), DIGITS = RangeStore.of(1, 30, 4, 4);
 	
 	private final NamedIntRange denom = of(DENOM, "Denominator of fraction"), digits = of(DIGITS, "Number of decimal places");
 	
@@ -27,9 +25,9 @@ public class FractionsToDecimalsSupplier extends SettingsProblemSupplier {
 	public Problem get() {
 		int den = intInclusive(denom), num = intInclusive(1, den - 1), dig = intInclusive(digits);
 		BigFraction frac = BigFraction.of(num, den);
-		BigDecimal decimal = frac.toBigDecimal(new MathContext(dig + 1));
+		String decimal = "0." + DecimalExpansion.of(frac, 10).digits(dig);
 		return Builder.of(String.format("What is %s accurate to %d decimal places?%n", Prettifier.ensureMath(Prettifier.frac(frac)), dig))
-				.addMinimumDigitsAfterDecimalResult(decimal.toPlainString(), dig).build();
+				.addMinimumDigitsAfterDecimalResult(decimal, dig).build();
 	}
 	
 }
@@ -16,6 +16,9 @@ import utils.IntList;
 public class LogarithmExpressionsAndEquationsSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore BASES = RangeStore.of(2, 16), VALUES = RangeStore.of(0, 7, 0, 4);
+	private static final ExpressionTemplate LOG = Evaluator.compile("log(b, x)", "b", "x"),
+			LOG_SUM = Evaluator.compile("log(b, x) + log(b, y)", "b", "x", "y"),
+			LOG_DIFFERENCE = Evaluator.compile("log(b, x) - log(b, y)", "b", "x", "y");
 	
 	private final NamedIntRange bases = of(BASES, "Bases of logarithms"), values = of(VALUES, "Values of logarithm expressions");
 	
@@ -25,7 +28,7 @@ public class LogarithmExpressionsAndEquationsSupplier extends SettingsProblemSup
 	
 	@Override
 	public Problem get() {
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return expressionProblem();
 		else
 			return equationProblem();
@@ -35,44 +38,50 @@ public class LogarithmExpressionsAndEquationsSupplier extends SettingsProblemSup
 	 * The types of expression problems are: simple evaluation of log, adding two log terms with the same base, subtracting two log terms with the same base.
 	 */
 	private Problem expressionProblem() {
-		int ran = RAND.nextInt(3);
+		int ran = intExclusive(3);
 		int base = intInclusive(bases);
 		if(ran == 0) { //simple evaluation
 			int exponent = intInclusive(values);
 			long result = Utils.pow(base, exponent);
-			return Builder.of(ensureMath(log(num(base), num(result)) + op('='))).addResult(new Complex(exponent)).build();
+			return Builder.of(ensureMath(log(num(base), num(result)) + op('='))).addResult(valueOf(LOG, base, result)).build();
 		}
 		else if(ran == 1) { //adding two log terms with the same base
 			int exponent = intInclusive(values);
 			int result = Math.toIntExact(Utils.pow(base, exponent));
 			IntList factors = Utils.factorsUnsorted(result);
 			int factor1 = factors.get(intExclusive(factors.size())), factor2 = result / factor1;
-			return Builder.of(ensureMath(log(num(base), num(factor1)) + op('+') + log(num(base), num(factor2)) + op('='))).addResult(new Complex(exponent)).build();
+			return Builder.of(ensureMath(log(num(base), num(factor1)) + op('+') + log(num(base), num(factor2)) + op('=')))
+					.addResult(valueOf(LOG_SUM, base, factor1, factor2)).build();
 		}
 		else {
 			int exponent = intInclusive(values);
 			int result = Math.toIntExact(Utils.pow(base, exponent));
 			int b = intInclusive(2, 10);
 			int arg1 = result * b, arg2 = b;
-			return Builder.of(ensureMath(log(num(base), num(arg1)) + op('-') + log(num(base), num(arg2)) + op('='))).addResult(new Complex(exponent)).build();
+			return Builder.of(ensureMath(log(num(base), num(arg1)) + op('-') + log(num(base), num(arg2)) + op('=')))
+					.addResult(valueOf(LOG_DIFFERENCE, base, arg1, arg2)).build();
 		}
 	}
 	
+	private static Complex valueOf(final ExpressionTemplate logarithms, final long... bindings) {
+		return logarithms.evaluateExact(bindings).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT);
+	}
+	
 	private Problem equationProblem() {
 		int base = intInclusive(bases), exponent = intInclusive(values), logArg = Math.toIntExact(Utils.pow(base, exponent));
 		char variable = (char) intInclusive('a', 'z');
 		if("eilo".contains(Character.toString(variable))) variable = 'x'; //those are ambiguous letters or letters that have other meanings.
-		if(Math.random() <= 0.5) { //the base is a variable
+		if(Problem.random() <= 0.5) { //the base is a variable
 			if(exponent == 0) { //if the exponent is zero, the variable could have multiple values - consider "log base ? of 1 = 0", ? could be several values.
 				exponent = intInclusive(1, Math.max(1, values.high()));
 				logArg = Math.toIntExact(Utils.pow(base, exponent));
 			}
 			String s = String.format("If %s, then %c = ", ensureMath(log(variable(variable), num(logArg)) + op('=') + num(exponent)), variable);
-			return Builder.of(s).addResult(new Complex(base)).build();
+			return Builder.of(s).addResult(Complex.valueOf(base)).build();
 		}
 		else { //the argument to the log function is a variable
 			String s = String.format("If %s, then %c = ", ensureMath(log(num(base), variable(variable)) + op('=') + num(exponent)), variable);
-			return Builder.of(s).addResult(new Complex(logArg)).build();
+			return Builder.of(s).addResult(Complex.valueOf(logArg)).build();
 		}
 	}
 
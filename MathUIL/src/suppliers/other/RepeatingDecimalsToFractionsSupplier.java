@@ -1,11 +1,8 @@
 package suppliers.other;
 
 import static problems.Problem.*;
-import static suppliers.NamedBooleanRef.*;
 import static suppliers.NamedIntRange.*;
 
-import java.math.BigDecimal;
-
 import math.RepeatingDecimal;
 import problems.*;
 import suppliers.*;
@@ -14,30 +11,43 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
-public class RepeatingDecimalsToFractionsSupplier implements ProblemSupplier {
-	//PATTERNS (repeating part in caps) : A, AB, ABC,aB, abC, abcBC
+public class RepeatingDecimalsToFractionsSupplier extends SettingsProblemSupplier {
+	
+	private static final RangeStore NONREPEATING = RangeStore.of(0, 6, 0, 3), REPEATING = RangeStore.of(1, 12, 1, 3);
 	
-	//Each is element is an ordered pair: (non-repeating part of decimal, repeating part of decimal).
-	private static final String[][] DECIMAL_PART = {{"", "A"}, {"", "AB"}, {"", "ABC"}, {"A", "B"}, {"AB", "C"}, {"ABC", "BC"}};
+	private final NamedIntRange nonrepeating = of(NONREPEATING, "Digits before repeating part"), repeating = of(REPEATING, "Digits in repeating part");
 	
-	public RepeatingDecimalsToFractionsSupplier() {}
+	public RepeatingDecimalsToFractionsSupplier() {
+		addAllSettings(nonrepeating, repeating);
+	}
 
 	@Override
 	public Problem get() {
-		String beforeDecimalPoint = Math.random() <= 0.5 ? Integer.toString(intInclusive(1, 9)) : "0";
+		String beforeDecimalPoint = Problem.random() <= 0.5 ? Integer.toString(intInclusive(1, 9)) : "0";
 		RepeatingDecimal dec = getDecimal(beforeDecimalPoint);
 		return Builder.of(Prettifier.ensureMath(Prettifier.repeating(dec))).addResult(dec.toBigFraction()).build();
 	}
 	
-	private static RepeatingDecimal getDecimal(final String beforeDecimalPoint) {
-		int index = intExclusive(DECIMAL_PART.length);
-		String[] pair = DECIMAL_PART[index];
-		String a = Integer.toString(intInclusive(1, 9)), b = Integer.toString(intInclusive(1, 9)), c = Integer.toString(intInclusive(1, 9));
-		final String terminating = beforeDecimalPoint + "." + pair[0].replace("A", a).replace("B", b).replace("C", c);
-		final String repeating = pair[1].replace("A", a).replace("B", b).replace("C", c);
-		System.out.printf("(in getDecimal) terminating=%s, repeating=%s%n", terminating, repeating);
-		return new RepeatingDecimal(terminating,
-				repeating);
+	/**
+	 * Every digit after the decimal point is nonzero. Half of the time, if there are enough of them, the digits before the repeating part end
+	 * with a copy of it (as in 0.1232323...), so the decimal is not written in its shortest form.
+	 */
+	private RepeatingDecimal getDecimal(final String beforeDecimalPoint) {
+		final int nonrepeatingDigits = intInclusive(nonrepeating), repeatingDigits = intInclusive(repeating);
+		final String repeatingPart = nonzeroDigits(repeatingDigits);
+		final String nonrepeatingPart;
+		if(nonrepeatingDigits >= repeatingDigits && Problem.random() < 0.5)
+			nonrepeatingPart = nonzeroDigits(nonrepeatingDigits - repeatingDigits) + repeatingPart;
+		else
+			nonrepeatingPart = nonzeroDigits(nonrepeatingDigits);
+		return new RepeatingDecimal(beforeDecimalPoint + "." + nonrepeatingPart, repeatingPart);
+	}
+	
+	private static String nonzeroDigits(final int count) {
+		final char[] digits = new char[count];
+		for(int i = 0; i < count; i++)
+			digits[i] = (char) intInclusive('1', '9');
+		return new String(digits);
 	}
 	
 }
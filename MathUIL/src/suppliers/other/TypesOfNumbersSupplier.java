@@ -3,13 +3,12 @@ package suppliers.other;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.*;
-import java.util.stream.*;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
 import math.*;
 import problems.*;
 import suppliers.*;
-import utils.Colls;
 
 /**
  * @author Sam Hooper
@@ -18,6 +17,8 @@ import utils.Colls;
 public class TypesOfNumbersSupplier extends SettingsProblemSupplier {
 	private static final RangeStore OPTIONS = RangeStore.of(2, 6, 3, 3), VALUES = RangeStore.of(1, 10_000, 1, 500);
 	private final NamedIntRange options = of(OPTIONS, "Number of options to choose from"), values = of(VALUES, "Values of numbers");
+	/** The index of the current range of {@link #values}, rebuilt when the range changes. */
+	private volatile NumberAdjectives.MaskIndex index;
 	
 	public TypesOfNumbersSupplier() {
 		addAllSettings(options);
@@ -25,39 +26,80 @@ public class TypesOfNumbersSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		final int choices = intInclusive(options);
-		List<Integer> nums = RAND.ints(choices, values.low(), values.high()).boxed().collect(Collectors.toList());
-		List<EnumSet<NumberAdjectives>> adjs = nums.stream().map(NumberAdjectives::describe).collect(Collectors.toList());
-//		System.out.printf("before:%n%s%n", IntStream.range(0, nums.size()).mapToObj(i -> String.format("%s=%s", nums.get(i), adjs.get(i)) ).collect(Collectors.joining("\n\t")));
-		Colls.removeIntersection(adjs);
-//		System.out.printf("after:%n\t%s%n", IntStream.range(0, nums.size()).mapToObj(i -> String.format("%s=%s", nums.get(i), adjs.get(i)) ).collect(Collectors.joining("\n\t")));
-		if(Colls.allAreEmpty(adjs))
-			return get(); // try again
-		final int correctIndex = Colls.uniqueIndex(adjs);
-		if(correctIndex == -1)
-			return get(); //try again
-		final String adjListString = prettyAdjList(adjs.get(correctIndex));
+		final int choices = intInclusive(options), distractors = choices - 1;
+		final NumberAdjectives.MaskIndex index = index(values.low(), values.high());
+		/* The answer can be any number whose group leaves enough numbers outside it to be the distractors. */
+		int eligible = 0;
+		for(int g = 0; g < index.groups(); g++)
+			if(index.size() - index.groupSize(g) >= distractors)
+				eligible += index.groupSize(g);
+		if(eligible == 0)
+			throw new IllegalStateException(String.format("There are not %d numbers between %d and %d with different adjectives", choices,
+					index.low(), index.high()));
+		int group = 0, member = intExclusive(eligible);
+		for(;; group++) {
+			if(index.size() - index.groupSize(group) >= distractors) {
+				if(member < index.groupSize(group))
+					break;
+				member -= index.groupSize(group);
+			}
+		}
+		final int correctNum = index.member(group, member);
+		final int[] nums = new int[choices];
+		nums[0] = correctNum;
+		sampleNonMembers(index, group, nums);
+		/* Every distractor lacks at least one of the adjectives of the answer, since each number has exactly one adjective from each family. */
+		int common = index.groupMask(group);
+		for(int i = 1; i < choices; i++)
+			common &= NumberAdjectives.mask(nums[i]);
+		final String adjListString = NumberAdjectives.format(NumberAdjectives.difference(index.groupMask(group), common));
 		final String article = getArticle(adjListString);
-		final Integer correctNum = nums.get(correctIndex);
-		Collections.shuffle(nums);
+		shuffle(nums);
 		return ComplexValued.of(
 			String.format("Which of the following is %s %s number: %s?", article, adjListString,
-					nums.stream().map(String::valueOf).collect(Collectors.joining(", "))),
-			new Complex(correctNum)
+					Arrays.stream(nums).mapToObj(String::valueOf).collect(Collectors.joining(", "))),
+			Complex.valueOf(correctNum)
 		);
 	}
 	
-	private String getArticle(String adjListString) {
-		return adjListString.substring(0, 1).matches("[aeiou]") ? "an" : "a";
+	private NumberAdjectives.MaskIndex index(final int low, final int high) {
+		NumberAdjectives.MaskIndex index = this.index;
+		if(index == null || index.low() != low || index.high() != high)
+			this.index = index = new NumberAdjectives.MaskIndex(low, high);
+		return index;
 	}
-
-	private static String prettyAdjList(EnumSet<NumberAdjectives> set) {
-		StringJoiner j = new StringJoiner(", ");
-		for(NumberAdjectives adj : set)
-			j.add(adj.toString().toLowerCase());
-		return j.toString();
+	
+	/**
+	 * Fills {@code nums[1]} onwards with distinct numbers that are not in the given group, using Floyd's algorithm, which draws exactly one
+	 * random number per element.
+	 */
+	private static void sampleNonMembers(final NumberAdjectives.MaskIndex index, final int group, final int[] nums) {
+		final int k = nums.length - 1, m = index.size() - index.groupSize(group);
+		final int[] chosen = new int[k];
+		for(int i = 0, j = m - k; j < m; i++, j++) {
+			final int t = intExclusive(j + 1);
+			chosen[i] = contains(chosen, i, t) ? j : t;
+			nums[i + 1] = index.nonMember(group, chosen[i]);
+		}
+	}
+	
+	private static boolean contains(final int[] array, final int length, final int value) {
+		for(int i = 0; i < length; i++)
+			if(array[i] == value)
+				return true;
+		return false;
+	}
+	
+	private static void shuffle(final int[] array) {
+		for(int i = array.length - 1; i > 0; i--) {
+			final int j = intExclusive(i + 1), temp = array[i];
+			array[i] = array[j];
+			array[j] = temp;
+		}
 	}
-
 	
+	private String getArticle(String adjListString) {
+		return adjListString.substring(0, 1).matches("[aeiou]") ? "an" : "a";
+	}
 	
 }
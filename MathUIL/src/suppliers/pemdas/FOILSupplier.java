@@ -1,12 +1,13 @@
 package suppliers.pemdas;
 
 import problems.*;
-import suppliers.ProblemSupplier;
+import suppliers.*;
 
 /**
  * @author Sam Hooper
  *
  */
+@Indexed
 public class FOILSupplier implements ProblemSupplier {
 	
 	public FOILSupplier() {}
@@ -9,6 +9,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Integer Addition & Subtraction")
 public class IntAddSubtractSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore TERMS = RangeStore.of(2, 5, 2, 2), DIGITS = RangeStore.of(2, 5, 2, 2);
@@ -32,10 +33,6 @@ public class IntAddSubtractSupplier extends SettingsProblemSupplier {
 		return digitRange.high();
 	}
 
-	@Override
-	public String getName() {
-		return "Integer Addition & Subtraction";
-	}
 	
 }
 
@@ -2,7 +2,6 @@ package suppliers.pemdas;
 
 import static suppliers.NamedIntRange.of;
 
-import java.util.*;
 import java.util.stream.IntStream;
 
 import problems.*;
@@ -29,22 +28,21 @@ public class IntegerMultiplicationSupplier extends RandomAndStackedSupplier {
 				.limit(Problem.intInclusive(terms)).toArray());
 	}
 	
+	/** The stacked problems are every ordered choice of {@code terms} values, one for each coordinate of the point. */
 	@Override
-	protected List<Problem> generateAllPossibleProblems() {
-		assert supportsStacked();
-		List<Problem> list = new ArrayList<>();
-		for(int firstTerm = values.low(); firstTerm <= values.high(); firstTerm++) {
-			for(int secondTerm = values.low(); secondTerm <= values.high(); secondTerm++) {
-				list.add(SimpleExpression.multiplyTerms(firstTerm, secondTerm));
-			}
-		}
-		assert list.size() >= 1;
-		return list;
+	protected StackedSpace stackedSpace() {
+		return StackedSpace.power(values.low(), values.high(), terms.low());
 	}
 	
+	@Override
+	protected Problem stackedProblem(int[] point) {
+		return SimpleExpression.multiplyTerms(point);
+	}
+	
+	/** Stacked mode requires a fixed number of terms and at most {@link Integer#MAX_VALUE} problems. */
 	@Override
 	protected boolean supportsStacked() {
-		return terms.low() == 2 && terms.high() == 2 && values.high() <= 33;
+		return terms.low() == terms.high() && StackedSpace.powerSize(values.low(), values.high(), terms.low()) <= Integer.MAX_VALUE;
 	}
 	
 }
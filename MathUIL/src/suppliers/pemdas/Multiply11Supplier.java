@@ -11,6 +11,7 @@ import utils.refs.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiply by 11 and like")
 public class Multiply11Supplier extends SettingsProblemSupplier {
 	
 	private static final int MIN_ONES = 2, MAX_ONES = 4, MIN_NON_ONES_DIGITS = 1, MAX_NON_ONES_DIGITS = 4;
@@ -35,10 +36,10 @@ public class Multiply11Supplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		System.out.printf("entered get, inc121 = %s, lowOnes=%d, high=%d, lowNon=%d, high=%d%n", include121(), lowOnes(), highOnes(), lowNonDigits(), highNonDigits());
-		int ones = include121() && Math.random() < (1.0/(highOnes() - lowOnes() + 2))? 121 : Integer.parseInt("1".repeat(Problem.intInclusive(lowOnes(), highOnes())));
+		int ones = include121() && Problem.random() < (1.0/(highOnes() - lowOnes() + 2))? 121 : Integer.parseInt("1".repeat(Problem.intInclusive(lowOnes(), highOnes())));
 		int non = Problem.intWithDigits(Problem.intInclusive(lowNonDigits(), highNonDigits()));
 		int first, second;
-		if(Math.random() >= 0.5) {
+		if(Problem.random() >= 0.5) {
 			first = ones; second = non;
 		}
 		else {
@@ -68,10 +69,6 @@ public class Multiply11Supplier extends SettingsProblemSupplier {
 		return include121.ref().get();
 	}
 
-	@Override
-	public String getName() {
-		return "Multiply by 11 and like";
-	}
 	
 	
 }
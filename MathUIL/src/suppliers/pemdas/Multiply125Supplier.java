@@ -11,6 +11,7 @@ import utils.refs.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiply by 125 and like")
 public class Multiply125Supplier extends SettingsProblemSupplier {
 	
 	private static final int MIN_DIGITS = 1, MAX_DIGITS = 4, LOW_DIGITS = 1, HIGH_DIGITS = 3;
@@ -32,7 +33,7 @@ public class Multiply125Supplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		int term = Problem.intWithDigits(lowDigits(), highDigits());
-		int x = include375() && Math.random() < CHANCE_375 ? 375 : 125;
+		int x = include375() && Problem.random() < CHANCE_375 ? 375 : 125;
 		return SimpleExpression.multiplyTerms(Problem.shuffled(x, term));
 	}
 	
@@ -48,10 +49,6 @@ public class Multiply125Supplier extends SettingsProblemSupplier {
 		return include375.ref().get();
 	}
 	
-	@Override
-	public String getName() {
-		return "Multiply by 125 and like";
-	}
 	
 }
 
@@ -10,6 +10,7 @@ import utils.refs.IntRange;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiply by 25")
 public class Multiply25Supplier extends SettingsProblemSupplier {
 	
 	private static final int MIN_DIGITS = 1, MAX_DIGITS = 4, LOW_DIGITS = 1, HIGH_DIGITS = 3;
@@ -38,10 +39,6 @@ public class Multiply25Supplier extends SettingsProblemSupplier {
 		return digits.ref().getHigh();
 	}
 
-	@Override
-	public String getName() {
-		return "Multiply by 25";
-	}
 	
 	
 	
@@ -12,6 +12,7 @@ import suppliers.*;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiply ending in 5")
 public class Multiply5EndSupplier extends SettingsProblemSupplier {
 	
 	private static final RangeStore DIGITS5 = RangeStore.of(1, 3, 2, 2), DIGITS = RangeStore.of(1, 3);
@@ -44,10 +45,6 @@ public class Multiply5EndSupplier extends SettingsProblemSupplier {
 		return digitsN.high();
 	}
 
-	@Override
-	public String getName() {
-		return "Multiply ending in 5";
-	}
 	
 	
 }
@@ -11,6 +11,7 @@ import utils.refs.IntRange;
  * @author Sam Hooper
  *
  */
+@DisplayName("Multiply 2 numbers with same tens digit and ones digits that add to 10")
 public class MultiplySame10sOnesAddTo10Supplier extends SettingsProblemSupplier {
 	private static final int MIN_TENS = 1, MAX_TENS = 25, LOW_TENS = 1, HIGH_TENS = 20;
 	
@@ -40,10 +41,6 @@ public class MultiplySame10sOnesAddTo10Supplier extends SettingsProblemSupplier
 		return tens.ref().getHigh();
 	}
 
-	@Override
-	public String getName() {
-		return "Multiply 2 numbers with same tens digit and ones digits that add to 10";
-	}
 	
 	
 	
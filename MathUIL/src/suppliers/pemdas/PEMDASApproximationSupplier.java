@@ -2,7 +2,6 @@ package suppliers.pemdas;
 
 import java.util.*;
 
-import math.Evaluator;
 import problems.*;
 import suppliers.*;
 import utils.*;
@@ -12,6 +11,7 @@ import utils.refs.IntRange;
  * @author Sam Hooper
  *
  */
+@DisplayName("PEMDAS Approximation")
 public class PEMDASApproximationSupplier extends SettingsProblemSupplier {
 	
 	public static final int MIN_TERMS = 2, MAX_TERMS = 5, MIN_DIGITS = 1, MAX_DIGITS = 6;
@@ -39,7 +39,7 @@ public class PEMDASApproximationSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		String exp = Problem.makeExpr(Problem.intInclusive(minTerms(), maxTerms()), minDigits(), maxDigits(), operators);
-		return Builder.approximation(Prettifier.pretty(exp), Evaluator.evaluateAsBigDecimalExact(exp));
+		return Builder.approximationOfExpression(Prettifier.pretty(exp), exp);
 	}
 	
 	
@@ -59,10 +59,6 @@ public class PEMDASApproximationSupplier extends SettingsProblemSupplier {
 		return digitRange.ref().getHigh();
 	}
 
-	@Override
-	public String getName() {
-		return "PEMDAS Approximation";
-	}
 	
 	
 }
@@ -12,16 +12,21 @@ import suppliers.*;
  * 
  * @author Sam Hooper
  */
+@Indexed
 public class ModSupplierHost implements ProblemSupplierHost {
 
-	public static Set<Supplier<? extends ProblemSupplier>> getFactories() {
-		return Set.of(supplierFor(3), supplierFor(9), supplierFor(11));
+	public static Map<String, Supplier<? extends ProblemSupplier>> getFactories() {
+		return Map.of(nameFor(3), supplierFor(3), nameFor(9), supplierFor(9), nameFor(11), supplierFor(11));
 	}
 
 	public static Supplier<? extends ProblemSupplier> supplierFor(int divisor) {
 		return () -> new ModSupplier(divisor);
 	}
 	
+	private static String nameFor(int divisor) {
+		return String.format("Remainder when divided by %d", divisor);
+	}
+	
 	private static class ModSupplier extends SettingsProblemSupplier {
 		private static final RangeStore DIGITS = RangeStore.of(1, 5);
 		private final NamedIntRange digits;
@@ -39,7 +44,7 @@ public class ModSupplierHost implements ProblemSupplierHost {
 
 		@Override
 		public String getName() {
-			return String.format("Remainder when divided by %d", number);
+			return nameFor(number);
 		}
 		
 	}
@@ -1,17 +1,18 @@
 package suppliers.remainder;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-
+import math.*;
 import problems.*;
 import suppliers.*;
+import utils.RandomSource;
 
 /**
  * @author Sam Hooper
  *
  */
 public class RemainderWithExponentsSupplier extends SettingsProblemSupplier {
-	private static final RangeStore BASE = RangeStore.of(1, 25, 5, 21), EXPONENT = RangeStore.of(1, 25, 4, 22), DIVISOR = RangeStore.of(2, 25, 7, 22);
+	private static final ExpressionTemplate POWER = Evaluator.compile("b^e", "b", "e");
+	private static final RangeStore BASE = RangeStore.of(1, 1000, 5, 21), EXPONENT = RangeStore.of(1, 1000, 4, 22), DIVISOR = RangeStore.of(2, 25, 7, 22);
 	private final NamedIntRange base, exponent, divisor;
 	
 	public RemainderWithExponentsSupplier() {
@@ -20,7 +21,23 @@ public class RemainderWithExponentsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int baseV = Problem.intInclusive(base), exponentV = Problem.intInclusive(exponent);
-		return new Remainder(baseV + "^" + exponentV, Problem.intInclusive(divisor));
+		return generate(1)[0];
+	}
+	
+	/**
+	 * Reads the settings and looks up the {@link RandomSource} once for the whole batch. Every problem is the shared {@link #POWER} template
+	 * with its own bindings, so nothing is parsed.
+	 */
+	@Override
+	public Problem[] generate(final int n) {
+		final Problem[] problems = newBatch(n);
+		final RandomSource random = RandomSource.current();
+		final int baseLow = base.low(), baseHigh = base.high(), exponentLow = exponent.low(), exponentHigh = exponent.high();
+		final int divisorLow = divisor.low(), divisorHigh = divisor.high();
+		for(int i = 0; i < n; i++) {
+			final long[] bindings = {random.nextIntInclusive(baseLow, baseHigh), random.nextIntInclusive(exponentLow, exponentHigh)};
+			problems[i] = new Remainder(POWER, bindings, random.nextIntInclusive(divisorLow, divisorHigh));
+		}
+		return problems;
 	}
 }
@@ -3,19 +3,24 @@ package suppliers.remainder;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import math.*;
 import problems.*;
 import suppliers.*;
+import utils.*;
 
 /**
  * @author Sam Hooper
  *
  */
 public class RemainderWithOperationsSupplier extends SettingsProblemSupplier {
-	private static final RangeStore TERMS = RangeStore.of(2, 5, 2, 4), DIGITS = RangeStore.of(1, 5, 1, 4), DIVISOR = RangeStore.of(1, 20, 3, 12);
+	private static final RangeStore TERMS = RangeStore.of(2, 10, 2, 4), DIGITS = RangeStore.of(1, 9, 1, 4), DIVISOR = RangeStore.of(1, 20, 3, 12);
 	private static final List<String> OPERATORS = List.of("+", "-", "*");
 	private final NamedIntRange terms, digits, divisor;
+	/** Maps the operators of an expression, in order, to the template of that shape. */
+	private final Map<String, ExpressionTemplate> templates = new ConcurrentHashMap<>();
 	
 	public RemainderWithOperationsSupplier() {
 		addAllSettings(terms = of(TERMS, "Terms in expression"), digits = of(DIGITS, "Digits in expression terms"), divisor = of(DIVISOR, "Divisor value"));
@@ -23,8 +28,46 @@ public class RemainderWithOperationsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		String exp = Problem.makeExpr(Problem.intInclusive(terms), digits, OPERATORS);
-		return new Remainder("(" + exp + ")", Problem.intInclusive(divisor));
+		return generate(1)[0];
+	}
+	
+	/**
+	 * Reads the settings and looks up the {@link RandomSource} once for the whole batch, and draws every digit from that source. Each problem
+	 * is the template of its shape of operators, compiled the first time that shape is seen, with its own bindings, so nothing is parsed once
+	 * every shape has been seen.
+	 */
+	@Override
+	public Problem[] generate(final int n) {
+		final Problem[] problems = newBatch(n);
+		final RandomSource random = RandomSource.current();
+		final int termsLow = terms.low(), termsHigh = terms.high(), digitsLow = digits.low(), digitsHigh = digits.high();
+		final int divisorLow = divisor.low(), divisorHigh = divisor.high();
+		final StringBuilder operators = new StringBuilder(termsHigh);
+		for(int p = 0; p < n; p++) {
+			final long[] values = new long[random.nextIntInclusive(termsLow, termsHigh)];
+			operators.setLength(0);
+			for(int i = 0; i < values.length - 1; i++) {
+				values[i] = intWithDigits(random.nextIntInclusive(digitsLow, digitsHigh), random);
+				operators.append(OPERATORS.get(random.nextInt(OPERATORS.size())));
+			}
+			values[values.length - 1] = intWithDigits(random.nextIntInclusive(digitsLow, digitsHigh), random);
+			problems[p] = new Remainder(templates.computeIfAbsent(operators.toString(), RemainderWithOperationsSupplier::compileShape), values,
+					random.nextIntInclusive(divisorLow, divisorHigh));
+		}
+		return problems;
+	}
+	
+	/** Returns a template like {@code (x0 + x1 * x2)}, with the given operators in order, in the format of {@link Problem#makeExpr}. */
+	private static ExpressionTemplate compileShape(final String operators) {
+		final String[] variables = new String[operators.length() + 1];
+		final StringBuilder sb = new StringBuilder("(");
+		for(int i = 0; i < variables.length; i++) {
+			variables[i] = "x" + i;
+			if(i > 0)
+				sb.append(' ').append(operators.charAt(i - 1)).append(' ');
+			sb.append(variables[i]);
+		}
+		return Evaluator.compile(sb.append(')').toString(), variables);
 	}
 	
 }
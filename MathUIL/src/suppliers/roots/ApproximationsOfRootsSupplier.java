@@ -6,10 +6,10 @@ import static suppliers.NamedIntRange.*;
 import static problems.Prettifier.*;
 
 import java.math.BigDecimal;
-import java.util.*;
 
 import problems.*;
 import suppliers.*;
+import utils.IntBitSet;
 
 /**
  * @author Sam Hooper
@@ -26,17 +26,17 @@ public class ApproximationsOfRootsSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		final int ts = Problem.intInclusive(terms);
-		int sqrts = Problem.intInclusive(1, terms.high());
-		ArrayList<Boolean> types = new ArrayList<>(ts);
-		for(int i = 1; i <= ts; i++)
-			types.add(i <= sqrts);
-		Collections.shuffle(types, RAND);
+		int sqrts = Math.min(ts, Problem.intInclusive(1, terms.high()));
+		/* Floyd's algorithm: a uniformly random set of sqrts of the ts positions, without shuffling. */
+		IntBitSet sqrtPositions = new IntBitSet();
+		for(int i = ts - sqrts; i < ts; i++)
+			if(!sqrtPositions.add(intInclusive(0, i)))
+				sqrtPositions.add(i);
 		StringBuilder sb = new StringBuilder();
 		sb.append("<math>");
 		BigDecimal product = BigDecimal.ONE;
-		for(Iterator<Boolean> iterator = types.iterator(); iterator.hasNext();) {
-			Boolean b = iterator.next();
-			if(b) {
+		for(int i = 0; i < ts; i++) {
+			if(sqrtPositions.contains(i)) {
 				int rc = Problem.intWithDigits(sqrtDigits);
 				sb.append(sqrt(rc));
 				product = product.multiply(BigDecimal.valueOf(rc).sqrt(math.Utils.INTERMEDIATE_CONTEXT));
@@ -46,7 +46,7 @@ public class ApproximationsOfRootsSupplier extends SettingsProblemSupplier {
 				sb.append(num(rv));
 				product = product.multiply(BigDecimal.valueOf(rv));
 			}
-			if(iterator.hasNext())
+			if(i < ts - 1)
 				sb.append(op('*'));
 		}
 		sb.append("</math>");
@@ -143,7 +143,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 
 			@Override
 			String expString() {
-				return String.format("((%s)^.5)", radicand.expString());
+				return String.format("sqrt(%s)", radicand.expString());
 			}
 			
 		}
@@ -265,7 +265,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 			for(int i = 0; i < complexity; i++) {
 				complicate();
 			}
-			return ComplexValued.of(Prettifier.ensureMath(root.mathMLString()), Evaluator.evaluateAsComplex(root.expString())); //TODO get result
+			return ComplexValued.of(Prettifier.ensureMath(root.mathMLString()), Evaluator.evaluateExact(root.expString()).toComplex(Evaluator.DEFAULT_RESULT_CONTEXT));
 		}
 		
 		private void complicate() {
@@ -274,7 +274,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 			List<Const> consts = getConsts(root);
 //			System.out.printf("consts=%s%n", consts);
 			//Assumes all nodes' parent pointers are accurate.
-			Const chosen = consts.get(Problem.RAND.nextInt(consts.size()));
+			Const chosen = consts.get(Problem.intExclusive(consts.size()));
 			complicateConst(chosen);
 		}
 		
@@ -292,7 +292,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 			int intVal = Integer.MAX_VALUE;
 			if(isInt) {
 				intVal = val.intValueExact();
-				if(intVal <= MAX_MEMORIZED_SQUARE && Math.random() <= 0.5) {
+				if(intVal <= MAX_MEMORIZED_SQUARE && Problem.random() <= 0.5) {
 					Node newConst = new Const(null, BigDecimal.valueOf(intVal * intVal));
 					Node newNode = new Sqrt(parent, newConst);
 //					System.out.printf("\t\tparent=%s%n", parent);
@@ -301,9 +301,9 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 					return;
 				}
 			}
-			int chance = isInt ? Problem.RAND.nextInt(3) : Problem.RAND.nextInt(2);
+			int chance = isInt ? Problem.intExclusive(3) : Problem.intExclusive(2);
 			if(chance == 0) { //Addition
-				int op1 = (int) (1 + (Math.random() * (doubleVal - 1)));
+				int op1 = (int) (1 + (Problem.random() * (doubleVal - 1)));
 				BigDecimal bd1 = new BigDecimal(op1, PMAKER_CONTEXT);
 				BigDecimal bd2 = val.subtract(bd1, PMAKER_CONTEXT);
 				Node leftConst = new Const(null, bd1), rightConst = new Const(null, bd2);
@@ -311,7 +311,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 				parent.setChild(node, newNode);
 			}
 			else if(chance == 1) { //Subtraction
-				int op1 = (int) (1 + (Math.random() * (doubleVal - 1)));
+				int op1 = (int) (1 + (Problem.random() * (doubleVal - 1)));
 				BigDecimal bd2 = new BigDecimal(op1, PMAKER_CONTEXT);
 				BigDecimal bd1 = val.add(bd2, PMAKER_CONTEXT);
 				Node leftConst = new Const(null, bd1), rightConst = new Const(null, bd2);
@@ -320,7 +320,7 @@ public class NestedSquareRootsSupplier extends SettingsProblemSupplier {
 			}
 			else { //Multipication
 				IntList facs = Utils.factorsUnsorted(intVal);
-				int factor = facs.get(Problem.RAND.nextInt(facs.size()));
+				int factor = facs.get(Problem.intExclusive(facs.size()));
 				Node leftConst = new Const(null, BigDecimal.valueOf(factor));
 				Node rightConst = new Const(null, BigDecimal.valueOf(intVal / factor));
 				Node newNode = new Multiplication(parent, leftConst, rightConst);
@@ -27,8 +27,8 @@ public class ConsecutiveIntegerSequencesSupplier extends SettingsProblemSupplier
 	}
 	
 	private static ArithmeticSequence randomSequenceOfSize(final int size, final int start) {
-		int jump = RAND.nextInt(2) + 1;
-		return new ArithmeticSequence(new Complex(start), new Complex(jump), size);
+		int jump = intExclusive(2) + 1;
+		return new ArithmeticSequence(Complex.valueOf(start), Complex.valueOf(jump), size);
 	}
 	
 }
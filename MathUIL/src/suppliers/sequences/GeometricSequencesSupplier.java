@@ -25,10 +25,10 @@ public class GeometricSequencesSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		BigFraction r = BigFraction.of(1, intInclusive(rDenom));
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			r = r.negate();
 		GeometricSequence seq = new GeometricSequence(BigFraction.of(intInclusive(sNum), intInclusive(sDenom)), r);
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return sumProblem(seq);
 		else
 			return termProblem(seq);
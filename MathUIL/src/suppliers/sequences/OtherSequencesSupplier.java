@@ -35,7 +35,7 @@ public class OtherSequencesSupplier extends SettingsProblemSupplier {
 	}
 	
 	private static SummableSequence<BigInteger> randSeq() {
-		int ran = RAND.nextInt(3);
+		int ran = intExclusive(3);
 		return ran == 1 ? SpecialSequences.Squares.INFINITE : ran == 2 ? SpecialSequences.Cubes.INFINITE : SpecialSequences.Triangles.INFINITE;
 	}
 	
@@ -4,11 +4,10 @@ import static problems.Prettifier.*;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-
 import math.Complex;
 import problems.*;
 import suppliers.*;
+import utils.CharList;
 
 /**
  * @author Sam Hooper
@@ -26,10 +25,10 @@ public class CartesianProductSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		List<Character> set1 = SetSupUtils.letterList(intInclusive(size)), set2 = SetSupUtils.letterList(intInclusive(size));
+		CharList set1 = SetSupUtils.letterList(intInclusive(size)), set2 = SetSupUtils.letterList(intInclusive(size));
 		return Builder.of(String.format("The Cartesian product of the sets %s and %s contains how many ordered paris:",
 				ensureMath(set(set1, Prettifier::variable)), ensureMath(set(set2, Prettifier::variable))))
-				.addResult(new Complex(set1.size() * set2.size())).build();
+				.addResult(Complex.valueOf(set1.size() * set2.size())).build();
 	}
 	
 }
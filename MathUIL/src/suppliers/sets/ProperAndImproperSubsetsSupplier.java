@@ -4,12 +4,10 @@ import static problems.Problem.*;
 import static suppliers.NamedBooleanRef.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-
 import math.Complex;
 import problems.*;
 import suppliers.*;
-import utils.Sets;
+import utils.*;
 
 /**
  * @author Sam Hooper
@@ -27,12 +25,12 @@ public class ProperAndImproperSubsetsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		List<Character> chars = SetSupUtils.letterList(intInclusive(size));
+		CharList chars = SetSupUtils.letterList(intInclusive(size));
 		final String displaySet = Prettifier.ensureMath(Prettifier.set(chars, Prettifier::variable));
-		if(Math.random() <= 0.5)
-			return Builder.of(String.format("How many improper subsets does the set %s have?", displaySet)).addResult(new Complex(Sets.numImproperSubsets(chars))).build();
+		if(Problem.random() <= 0.5)
+			return Builder.of(String.format("How many improper subsets does the set %s have?", displaySet)).addResult(Complex.valueOf(Sets.numImproperSubsets(chars.size()))).build();
 		else
-			return Builder.of(String.format("How many proper subsets does the set %s have?", displaySet)).addResult(new Complex(Sets.numProperSubsets(chars))).build();
+			return Builder.of(String.format("How many proper subsets does the set %s have?", displaySet)).addResult(Complex.valueOf(Sets.numProperSubsets(chars.size()))).build();
 			
 	}
 
@@ -1,9 +1,6 @@
 package suppliers.sets;
 
-import java.util.*;
-import java.util.stream.*;
-
-import problems.Problem;
+import utils.*;
 
 /**
  * @author Sam Hooper
@@ -23,24 +20,25 @@ public final class SetSupUtils {
 	private static final char[] LOWERCASE_LETTERS = {'a','b','c','d','e','f','g','h','i','j','k','l','m','n','o','p','q','r','s','t','u','v','w','x','y','z'};
 	
 	/**
-	 * Returns a {@link Set} of {@code size} randomly selected lowercase English letters.
+	 * Returns an {@link IntBitSet} of {@code size} randomly selected lowercase English letters.
 	 */
-	public static Set<Character> letterSet(final int size) {
-		return new HashSet<>(letterList(size));
+	public static IntBitSet letterSet(final int size) {
+		return IntBitSet.of(letterList(size));
 	}
 	/**
-	 * Returns a {@link List} of {@code size} distinct lowercase English letters in a random order.
+	 * Returns a {@link CharList} of {@code size} distinct lowercase English letters in a random order.
 	 */
-	public static List<Character> letterList(final int size) {
+	public static CharList letterList(final int size) {
 		if(size < 0)
 			throw new IllegalArgumentException("size < 0");
 		if(size > LOWERCASE_LETTERS.length)
 			throw new IllegalArgumentException("There are not" + size + "different letters");
-		char[] chars = Arrays.copyOf(LOWERCASE_LETTERS, LOWERCASE_LETTERS.length);
+		final RandomSource random = RandomSource.current();
+		char[] chars = LOWERCASE_LETTERS.clone();
 		int max = chars.length;
-		List<Character> list = new ArrayList<>(size);
+		CharList list = new CharList(size);
 		for(int i = 0; i < size; i++) {
-			int index = Problem.intExclusive(max);
+			int index = random.nextInt(max);
 			list.add(chars[index]);
 			char temp = chars[index];
 			chars[index] = chars[max - 1];
@@ -3,12 +3,10 @@ package suppliers.sets;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-
 import math.Complex;
 import problems.*;
 import suppliers.*;
-import utils.Sets;
+import utils.*;
 
 /**
  * @author Sam Hooper
@@ -27,10 +25,10 @@ public class SubsetsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		List<Character> chars = SetSupUtils.letterList(intInclusive(size));
-		long sub = Sets.numSubsets(chars);
+		CharList chars = SetSupUtils.letterList(intInclusive(size));
+		long sub = Sets.numSubsets(chars.size());
 		return Builder.of(String.format("How many subsets does the set %s have?%n", Prettifier.ensureMath(Prettifier.set(chars, Prettifier::variable))))
-				.addResult(new Complex(sub)).build();
+				.addResult(Complex.valueOf(sub)).build();
 	}
 
 }
@@ -4,12 +4,10 @@ import static problems.Prettifier.*;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-
 import math.Complex;
 import problems.*;
 import suppliers.*;
-import utils.Sets;
+import utils.*;
 
 /**
  * @author Sam Hooper
@@ -27,33 +25,34 @@ public class UnionAndIntersectionSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return literalProblem();
 		else
 			return wordProblem();
 	}
 	
 	private Problem literalProblem() {
-		List<Character> set1 = SetSupUtils.letterList(intInclusive(size)), set2 = SetSupUtils.letterList(intInclusive(size));
-		if(Math.random() <= 0.5)
+		CharList set1 = SetSupUtils.letterList(intInclusive(size)), set2 = SetSupUtils.letterList(intInclusive(size));
+		IntBitSet bits1 = IntBitSet.of(set1), bits2 = IntBitSet.of(set2);
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("The number of distinct elements in %s is:", ensureMath(union(set(set1, Prettifier::variable), set(set2, Prettifier::variable)))))
-					.addResult(new Complex(Sets.union(set1, set2).size())).build();
+					.addResult(Complex.valueOf(bits1.union(bits2).size())).build();
 		else
 			return Builder.of(String.format("The number of distinct elements in %s is:", ensureMath(intersection(set(set1, Prettifier::variable), set(set2, Prettifier::variable)))))
-					.addResult(new Complex(Sets.intersection(set1, set2).size())).build();
+					.addResult(Complex.valueOf(bits1.intersection(bits2).size())).build();
 	}
 	
 	private Problem wordProblem() {
 		int a = intInclusive(size), b = intInclusive(size), intersection = intInclusive(0, Math.min(a, b)), union = intersection + (a - intersection) + (b - intersection);
 		String uDisp = union(variable("A"), variable("B")), iDisp = intersection(variable("A"), variable("B"));
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("There %s %d element%s in set A, %d in set B, and %d in %s. %s has how many elements:",
 					a == 1 ? "is" : "are", a, a == 1 ? "" : "s", b, intersection, iDisp, uDisp))
-					.addResult(new Complex(union)).build();
+					.addResult(Complex.valueOf(union)).build();
 		else
 			return Builder.of(String.format("There %s %d element%s in set A, %d in set B, and %d in %s. %s has how many elements:",
 					a == 1 ? "is" : "are", a, a == 1 ? "" : "s", b, union, uDisp, iDisp))
-					.addResult(new Complex(intersection)).build();
+					.addResult(Complex.valueOf(intersection)).build();
 	}
 	
 }
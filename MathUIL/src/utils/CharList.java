@@ -0,0 +1,89 @@
+package utils;
+
+import java.util.*;
+
+import utils.function.CharConsumer;
+
+/**
+ * <p>A growable list of {@code chars}, like {@link IntList}. Elements are stored in a primitive array and are never boxed; iterate with
+ * {@link #forEach(CharConsumer)} or by index.</p>
+ * @author Sam Hooper
+ *
+ */
+public class CharList {
+	/** The used indices are those in the range 0 (inclusive) to size (exclusive). */
+	private char[] data;
+	private int size;
+	
+	/** Constructs an empty {@link CharList} with a capacity of {@code 10}. */
+	public CharList() { this(10); }
+	
+	public CharList(int capacity) {
+		data = new char[capacity];
+	}
+	
+	/** Creates a {@code CharList} containing the given characters. The capacity is set to the number of characters. */
+	public static CharList of(char... chars) {
+		final CharList list = new CharList(0);
+		list.data = chars.clone();
+		list.size = chars.length;
+		return list;
+	}
+	
+	public boolean isEmpty() { return size == 0; }
+	
+	public int size() { return size; }
+	
+	/** Adds the given item to the end of this list, automatically expanding this list's capacity if needed. */
+	public void add(char item) {
+		if(size == data.length)
+			data = Arrays.copyOf(data, Math.max(10, data.length << 1));
+		data[size++] = item;
+	}
+	
+	/** Returns the item at the given index. Throws {@link IndexOutOfBoundsException} if {@code index} is negative or at least {@code size}. */
+	public char get(int index) {
+		Objects.checkIndex(index, size);
+		return data[index];
+	}
+	
+	public void set(int index, char item) {
+		Objects.checkIndex(index, size);
+		data[index] = item;
+	}
+	
+	/** Returns the index of the first occurrence of {@code item}, or {@code -1} if it is not in this list. */
+	public int indexOf(char item) {
+		for(int i = 0; i < size; i++)
+			if(data[i] == item)
+				return i;
+		return -1;
+	}
+	
+	public boolean contains(char item) {
+		return indexOf(item) >= 0;
+	}
+	
+	public void clear() {
+		size = 0;
+	}
+	
+	public void forEach(CharConsumer consumer) {
+		for(int i = 0; i < size; i++)
+			consumer.acceptChar(data[i]);
+	}
+	
+	/** Returns a new array containing the elements of this list, in order. The length of the array is the size of this list. */
+	public char[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+	
+	@Override
+	public String toString() {
+		StringJoiner j = new StringJoiner(", ", "[", "]");
+		for(int i = 0; i < size; i++)
+			j.add(Character.toString(data[i]));
+		return j.toString();
+	}
+	
+}
@@ -3,8 +3,6 @@ package utils;
 import java.util.*;
 import java.util.function.Consumer;
 
-import problems.Problem;
-
 /**
  * @author Sam Hooper
  *
@@ -23,7 +21,7 @@ public class Colls {
 			return (T) getRandom((List<?>) coll);
 		if(coll.isEmpty())
 			throw new IllegalArgumentException();
-		int stop = Problem.intExclusive(coll.size());
+		int stop = RandomSource.current().nextInt(coll.size());
 		Iterator<? extends T> itr = coll.iterator();
 		while(stop > 0) {
 			itr.next();
@@ -37,7 +35,9 @@ public class Colls {
 	 * @throws IllegalArgumentException if {@code list} is empty.
 	 */
 	public static <T> T getRandom(List<? extends T> list) {
-		return list.get(Problem.intExclusive(list.size()));
+		if(list.isEmpty())
+			throw new IllegalArgumentException();
+		return list.get(RandomSource.current().nextInt(list.size()));
 	}
 	
 	/**
@@ -136,7 +136,7 @@ public class Colls {
 	 */
 	public static <T> List<T> shuffled(final List<T> list) {
 		List<T> shuf = new ArrayList<>(list);
-		Collections.shuffle(shuf);
+		RandomSource.current().shuffle(shuf);
 		return shuf;
 	}
 	
@@ -0,0 +1,123 @@
+package utils;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>A set of nonnegative {@code ints} backed by a {@link BitSet}, so it takes one bit per possible element and its set operations work a
+ * word at a time. It is meant for elements drawn from a small range, such as letters or indices. Iterate with {@link #forEach(IntConsumer)},
+ * which visits the elements in ascending order.</p>
+ * @author Sam Hooper
+ *
+ */
+public class IntBitSet {
+	
+	private final BitSet bits;
+	
+	/** Constructs an empty {@link IntBitSet}. */
+	public IntBitSet() {
+		bits = new BitSet();
+	}
+	
+	private IntBitSet(BitSet bits) {
+		this.bits = bits;
+	}
+	
+	/**
+	 * Returns a new {@link IntBitSet} containing the given elements.
+	 * @throws IndexOutOfBoundsException if any element is negative.
+	 */
+	public static IntBitSet of(int... elements) {
+		final IntBitSet set = new IntBitSet();
+		for(int e : elements)
+			set.bits.set(e);
+		return set;
+	}
+	
+	/** Returns a new {@link IntBitSet} containing the characters in the given {@link CharList}. */
+	public static IntBitSet of(CharList chars) {
+		final IntBitSet set = new IntBitSet();
+		chars.forEach(c -> set.bits.set(c));
+		return set;
+	}
+	
+	/** Returns the number of elements in this set, computed by counting bits. */
+	public int size() { return bits.cardinality(); }
+	
+	public boolean isEmpty() { return bits.isEmpty(); }
+	
+	public boolean contains(int element) {
+		return element >= 0 && bits.get(element);
+	}
+	
+	/**
+	 * Adds {@code element} to this set. Returns {@code true} if it was not already present.
+	 * @throws IndexOutOfBoundsException if {@code element} is negative.
+	 */
+	public boolean add(int element) {
+		if(bits.get(element))
+			return false;
+		bits.set(element);
+		return true;
+	}
+	
+	/** Removes {@code element} from this set. Returns {@code true} if it was present. */
+	public boolean remove(int element) {
+		if(!contains(element))
+			return false;
+		bits.clear(element);
+		return true;
+	}
+	
+	public void clear() {
+		bits.clear();
+	}
+	
+	/** Returns a new set containing every element that is in this set or in {@code other}. */
+	public IntBitSet union(IntBitSet other) {
+		final BitSet result = (BitSet) bits.clone();
+		result.or(other.bits);
+		return new IntBitSet(result);
+	}
+	
+	/** Returns a new set containing every element that is in both this set and {@code other}. */
+	public IntBitSet intersection(IntBitSet other) {
+		final BitSet result = (BitSet) bits.clone();
+		result.and(other.bits);
+		return new IntBitSet(result);
+	}
+	
+	/** Returns a new set containing every element that is in this set but not in {@code other}. */
+	public IntBitSet difference(IntBitSet other) {
+		final BitSet result = (BitSet) bits.clone();
+		result.andNot(other.bits);
+		return new IntBitSet(result);
+	}
+	
+	/** Calls {@code consumer} with each element, in ascending order. */
+	public void forEach(IntConsumer consumer) {
+		for(int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+			consumer.accept(i);
+	}
+	
+	/** Returns a new array containing the elements of this set, in ascending order. */
+	public int[] toArray() {
+		return bits.stream().toArray();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj || obj instanceof IntBitSet && bits.equals(((IntBitSet) obj).bits);
+	}
+	
+	@Override
+	public int hashCode() {
+		return bits.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return bits.toString();
+	}
+	
+}
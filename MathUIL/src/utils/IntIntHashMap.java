@@ -0,0 +1,190 @@
+package utils;
+
+import java.util.*;
+
+import utils.function.IntBiConsumer;
+
+/**
+ * <p>A map from {@code ints} to {@code ints} stored in an open-addressing hash table with linear probing, so that neither keys nor values are
+ * ever boxed. Iterate with {@link #forEach(IntBiConsumer)}; the order is unspecified.</p>
+ * @author Sam Hooper
+ *
+ */
+public class IntIntHashMap {
+	
+	/** Marks an empty slot in {@link #keys}. The key {@code 0} is stored in {@link #freeValue} instead. */
+	private static final int FREE = 0;
+	private static final int MIN_CAPACITY = 8;
+	
+	private int[] keys, values;
+	/** {@code keys.length - 1}. {@code keys.length} is a power of two. */
+	private int mask;
+	private boolean containsFree;
+	private int freeValue;
+	private int size;
+	
+	/** Constructs an empty {@link IntIntHashMap}. */
+	public IntIntHashMap() {
+		this(MIN_CAPACITY / 2);
+	}
+	
+	/** Constructs an empty {@link IntIntHashMap} that can hold {@code expectedSize} mappings without growing. */
+	public IntIntHashMap(int expectedSize) {
+		if(expectedSize < 0)
+			throw new IllegalArgumentException("expectedSize < 0");
+		allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+	}
+	
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+	
+	private int slot(int key) {
+		final int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+	
+	/** Returns the slot holding {@code key}, which must not be {@link #FREE}, or {@code -1} if it is not a key. */
+	private int find(int key) {
+		for(int i = slot(key); ; i = (i + 1) & mask) {
+			final int k = keys[i];
+			if(k == key)
+				return i;
+			if(k == FREE)
+				return -1;
+		}
+	}
+	
+	public int size() { return size; }
+	
+	public boolean isEmpty() { return size == 0; }
+	
+	public boolean containsKey(int key) {
+		return key == FREE ? containsFree : find(key) >= 0;
+	}
+	
+	/** Returns the value mapped to {@code key}, or {@code defaultValue} if there is none. */
+	public int getOrDefault(int key, int defaultValue) {
+		if(key == FREE)
+			return containsFree ? freeValue : defaultValue;
+		final int i = find(key);
+		return i < 0 ? defaultValue : values[i];
+	}
+	
+	/** Maps {@code key} to {@code value}, replacing any previous value. */
+	public void put(int key, int value) {
+		if(key == FREE) {
+			if(!containsFree) {
+				containsFree = true;
+				size++;
+			}
+			freeValue = value;
+			return;
+		}
+		int i = slot(key);
+		for(; keys[i] != FREE; i = (i + 1) & mask) {
+			if(keys[i] == key) {
+				values[i] = value;
+				return;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if(++size > keys.length >> 1)
+			rehash(keys.length << 1);
+	}
+	
+	/** Adds {@code delta} to the value mapped to {@code key}, treating a missing value as {@code 0}, and returns the new value. */
+	public int addTo(int key, int delta) {
+		final int value = getOrDefault(key, 0) + delta;
+		put(key, value);
+		return value;
+	}
+	
+	/** Removes the mapping for {@code key}. Returns {@code true} if there was one. */
+	public boolean remove(int key) {
+		if(key == FREE) {
+			if(!containsFree)
+				return false;
+			containsFree = false;
+			freeValue = 0;
+			size--;
+			return true;
+		}
+		final int i = find(key);
+		if(i < 0)
+			return false;
+		closeGap(i);
+		size--;
+		return true;
+	}
+	
+	/** Empties the slot {@code gap}, moving later keys in its probe sequence back so that every key stays reachable from its own slot. */
+	private void closeGap(int gap) {
+		for(int j = (gap + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+			final int home = slot(keys[j]);
+			if(((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+		keys[gap] = FREE;
+		values[gap] = 0;
+	}
+	
+	private void rehash(int capacity) {
+		final int[] oldKeys = keys, oldValues = values;
+		allocate(capacity);
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != FREE) {
+				int i = slot(oldKeys[j]);
+				while(keys[i] != FREE)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+	
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, 0);
+		containsFree = false;
+		freeValue = 0;
+		size = 0;
+	}
+	
+	/** Calls {@code consumer} with each key and its value. */
+	public void forEach(IntBiConsumer consumer) {
+		if(containsFree)
+			consumer.acceptInts(FREE, freeValue);
+		for(int i = 0; i < keys.length; i++)
+			if(keys[i] != FREE)
+				consumer.acceptInts(keys[i], values[i]);
+	}
+	
+	/** Returns a new array containing the keys of this map, in ascending order. */
+	public int[] keys() {
+		final int[] result = new int[size];
+		int n = 0;
+		if(containsFree)
+			result[n++] = FREE;
+		for(final int k : keys)
+			if(k != FREE)
+				result[n++] = k;
+		Arrays.sort(result);
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		StringJoiner j = new StringJoiner(", ", "{", "}");
+		for(final int k : keys())
+			j.add(k + "=" + getOrDefault(k, 0));
+		return j.toString();
+	}
+	
+}
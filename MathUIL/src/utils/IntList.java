@@ -200,6 +200,11 @@ public class IntList implements Iterable<Integer> {
 		return Arrays.stream(data, 0, size);
 	}
 	
+	/** Returns a new array containing the elements of this list, in order. The length of the array is the size of this list. */
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+	
 	/**
 	 * Note that it will likely be more efficient to iterate over the elements of this {@code IntList} without using
 	 * the iterator, as it will not require boxing to {@link Integer}. The returned iterator makes no guarantees about
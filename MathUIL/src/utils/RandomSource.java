@@ -0,0 +1,219 @@
+package utils;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>A source of random numbers for problem generation. Every random choice made while generating a {@link problems.Problem} goes through
+ * {@link #current()}, which is the source installed on the calling thread with {@link #use(RandomSource)}, or {@link #threadLocal()} if none
+ * is.</p>
+ *
+ * <p>The default source, {@link #threadLocal()}, draws from {@link ThreadLocalRandom}, so threads generating problems concurrently never share
+ * state or contend for a lock. A source created by {@link #seeded(long)} is backed by a {@link SplittableRandom} and produces the same sequence
+ * every time; it is not safe for use by multiple concurrent threads, but {@link #split()} creates an independent source for another thread.</p>
+ *
+ * <p>Other sources, such as a scripted one for a test, can be plugged in by extending this class and installing an instance with
+ * {@link #use(RandomSource)}. A subclass implements the abstract methods; the others are built on them, and it may override them too.</p>
+ * @author Sam Hooper
+ *
+ */
+public abstract class RandomSource {
+	
+	private static final RandomSource THREAD_LOCAL = new ThreadLocalSource();
+	/** The source installed on each thread, or {@code null} if the thread uses {@link #THREAD_LOCAL}. */
+	private static final ThreadLocal<RandomSource> INSTALLED = new ThreadLocal<>();
+	
+	/** Returns the source that draws from {@link ThreadLocalRandom#current()}. It is the default source of every thread. */
+	public static RandomSource threadLocal() {
+		return THREAD_LOCAL;
+	}
+	
+	/** Returns a new source backed by a {@link SplittableRandom} with the given seed. */
+	public static RandomSource seeded(long seed) {
+		return new SplittableSource(new SplittableRandom(seed));
+	}
+	
+	/** Returns the source installed on the calling thread, or {@link #threadLocal()} if none is. */
+	public static RandomSource current() {
+		final RandomSource source = INSTALLED.get();
+		return source == null ? THREAD_LOCAL : source;
+	}
+	
+	/**
+	 * Installs {@code source} on the calling thread, so that {@link #current()} returns it, and returns the source that was installed before.
+	 * Passing {@code null} or {@link #threadLocal()} restores the default.
+	 */
+	public static RandomSource use(RandomSource source) {
+		final RandomSource previous = current();
+		if(source == null || source == THREAD_LOCAL)
+			INSTALLED.remove();
+		else
+			INSTALLED.set(source);
+		return previous;
+	}
+	
+	/** The {@link Random} view returned by the default {@link #asRandom()}, created when first needed. */
+	private Random view;
+	
+	protected RandomSource() {}
+	
+	/**
+	 * Returns an {@code int} between {@code 0} (inclusive) and {@code bound} (exclusive).
+	 * @throws IllegalArgumentException if {@code bound} is not positive.
+	 */
+	public abstract int nextInt(int bound);
+	
+	/**
+	 * Returns a {@code long} between {@code origin} (inclusive) and {@code bound} (exclusive).
+	 * @throws IllegalArgumentException if {@code origin >= bound}.
+	 */
+	public abstract long nextLong(long origin, long bound);
+	
+	/** Returns a {@code long}, with every {@code long} equally likely. */
+	public abstract long nextLong();
+	
+	/** Returns a {@code double} between {@code 0} (inclusive) and {@code 1} (exclusive). */
+	public abstract double nextDouble();
+	
+	public abstract boolean nextBoolean();
+	
+	/** Returns a new source whose sequence is independent of this one's, for use by another thread. */
+	public abstract RandomSource split();
+	
+	/**
+	 * Returns an {@code int} between {@code min} and {@code max}, inclusive.
+	 * @throws IllegalArgumentException if {@code min > max}.
+	 */
+	public int nextIntInclusive(int min, int max) {
+		if(min > max)
+			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
+		final int span = max - min + 1;
+		return span > 0 ? min + nextInt(span) : (int) nextLong(min, max + 1L);
+	}
+	
+	/**
+	 * Returns a {@code long} between {@code min} and {@code max}, inclusive.
+	 * @throws IllegalArgumentException if {@code min > max}.
+	 */
+	public long nextLongInclusive(long min, long max) {
+		if(min > max)
+			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
+		if(max < Long.MAX_VALUE)
+			return nextLong(min, max + 1);
+		if(min > Long.MIN_VALUE)
+			return nextLong(min - 1, max) + 1;
+		return nextLong();
+	}
+	
+	/** Shuffles {@code list} in place with the Fisher-Yates algorithm. */
+	public void shuffle(List<?> list) {
+		Collections.shuffle(list, asRandom());
+	}
+	
+	/**
+	 * Returns a {@link Random} view of this source, for APIs that require one. By default, the view draws its bits from {@link #nextLong()}
+	 * and, like this source, is not safe for use by multiple concurrent threads unless this source is.
+	 */
+	@SuppressWarnings("serial")
+	protected Random asRandom() {
+		if(view == null) {
+			view = new Random() {
+				@Override
+				protected int next(int bits) {
+					return (int) (RandomSource.this.nextLong() >>> (Long.SIZE - bits));
+				}
+			};
+		}
+		return view;
+	}
+	
+	private static final class ThreadLocalSource extends RandomSource {
+		
+		@Override
+		public int nextInt(int bound) {
+			return ThreadLocalRandom.current().nextInt(bound);
+		}
+		
+		@Override
+		public long nextLong(long origin, long bound) {
+			return ThreadLocalRandom.current().nextLong(origin, bound);
+		}
+		
+		@Override
+		public long nextLong() {
+			return ThreadLocalRandom.current().nextLong();
+		}
+		
+		@Override
+		public double nextDouble() {
+			return ThreadLocalRandom.current().nextDouble();
+		}
+		
+		@Override
+		public boolean nextBoolean() {
+			return ThreadLocalRandom.current().nextBoolean();
+		}
+		
+		@Override
+		public RandomSource split() {
+			return this;
+		}
+		
+		@Override
+		protected Random asRandom() {
+			return ThreadLocalRandom.current();
+		}
+		
+		@Override
+		public String toString() {
+			return "RandomSource[threadLocal]";
+		}
+		
+	}
+	
+	private static final class SplittableSource extends RandomSource {
+		
+		private final SplittableRandom random;
+		
+		SplittableSource(SplittableRandom random) {
+			this.random = random;
+		}
+		
+		@Override
+		public int nextInt(int bound) {
+			return random.nextInt(bound);
+		}
+		
+		@Override
+		public long nextLong(long origin, long bound) {
+			return random.nextLong(origin, bound);
+		}
+		
+		@Override
+		public long nextLong() {
+			return random.nextLong();
+		}
+		
+		@Override
+		public double nextDouble() {
+			return random.nextDouble();
+		}
+		
+		@Override
+		public boolean nextBoolean() {
+			return random.nextBoolean();
+		}
+		
+		@Override
+		public RandomSource split() {
+			return new SplittableSource(random.split());
+		}
+		
+		@Override
+		public String toString() {
+			return "RandomSource[seeded]";
+		}
+		
+	}
+	
+}
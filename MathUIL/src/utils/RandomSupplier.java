@@ -12,7 +12,7 @@ public interface RandomSupplier<T> extends Supplier<T> {
 	
 	/**
 	 * Returns a new {@link RandomSupplier} whose {@link #get()} method returns one of the objects in {@code objects} at random each time
-	 * it is called.
+	 * it is called, drawing from the {@link RandomSource#current() current RandomSource}.
 	 */
 	@SafeVarargs
 	public static <T> RandomSupplier<T> of(T... objects) {
@@ -20,7 +20,7 @@ public interface RandomSupplier<T> extends Supplier<T> {
 			
 			@Override
 			public T get() {
-				return objects[(int) (Math.random() * objects.length)];
+				return objects[RandomSource.current().nextInt(objects.length)];
 			}
 			
 		};
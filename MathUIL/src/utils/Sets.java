@@ -19,9 +19,24 @@ public final class Sets {
 	 * @throws ArithmeticException if the number of subsets of {@code set} is too large to fit in a {@code long}.
 	 */
 	public static long numSubsets(Collection<?> set) {
-		if(set.size() > 62)
+		return numSubsets(set.size());
+	}
+	
+	/**
+	 * Returns the number of possible subsets of a set with {@code size} distinct elements, as described in {@link #numSubsets(Collection)}.
+	 * @throws IllegalArgumentException if {@code size} is negative.
+	 * @throws ArithmeticException if the number of subsets is too large to fit in a {@code long}.
+	 */
+	public static long numSubsets(int size) {
+		checkSize(size);
+		if(size > 62)
 			throw new ArithmeticException("The number of subsets of the given set is too large to fit in a long");
-		return 1L << set.size();
+		return 1L << size;
+	}
+	
+	private static void checkSize(int size) {
+		if(size < 0)
+			throw new IllegalArgumentException("size < 0");
 	}
 	
 	/**
@@ -33,17 +48,36 @@ public final class Sets {
 		return 1;
 	}
 	
+	/**
+	 * Returns the number of improper subsets of a set with {@code size} distinct elements (that is, the number {@code 1}).
+	 * @throws IllegalArgumentException if {@code size} is negative.
+	 */
+	public static int numImproperSubsets(int size) {
+		checkSize(size);
+		return 1;
+	}
+	
 	/**
 	 * Returns the number of proper subsets of the given {@link Collection} if every element in the {@code Collection} is considered to be unique.
 	 * @throws NullPointerException if {@code set} is {@code null}
 	 * @throws ArithmeticException if the number of proper subsets of {@code set} is too large to fit in a {@code long}.
 	 */
 	public static long numProperSubsets(Collection<?> set) {
-		if(set.size() == 63)
+		return numProperSubsets(set.size());
+	}
+	
+	/**
+	 * Returns the number of proper subsets of a set with {@code size} distinct elements.
+	 * @throws IllegalArgumentException if {@code size} is negative.
+	 * @throws ArithmeticException if the number of proper subsets is too large to fit in a {@code long}.
+	 */
+	public static long numProperSubsets(int size) {
+		checkSize(size);
+		if(size == 63)
 			return Long.MAX_VALUE;
-		if(set.size() > 62)
+		if(size > 62)
 			throw new ArithmeticException("The number of proper subsets of the given set is too large to fit in a long");
-		return (1L << set.size()) - 1;
+		return (1L << size) - 1;
 	}
 	
 	
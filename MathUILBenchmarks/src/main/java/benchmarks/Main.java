@@ -0,0 +1,22 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * <p>Runs the benchmarks with the usual JMH command line options, and always with the {@link GCProfiler}, so that every result comes with its
+ * allocation rate ({@code gc.alloc.rate.norm} is the number of bytes allocated per operation).</p>
+ * @author Sam Hooper
+ *
+ */
+public final class Main {
+
+	private Main() {}
+
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+		final Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,115 @@
+package math;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import math.Evaluator.Expression;
+
+/**
+ * <p>Benchmarks each stage of {@link Evaluator} separately, and the whole pipeline end to end, on one {@link #input} at a time so that every
+ * input gets its own throughput and latency figures.</p>
+ *
+ * <p>{@link Evaluator} parses in a single pass, so there are no separate tokenizing and postfix conversion stages to measure. The stages are
+ * {@link Evaluator#normalize(String) normalizing} (stripping whitespace), {@link Evaluator#parse(String) parsing} (which builds the tree
+ * directly), and evaluating the tree with each of its three evaluation modes.</p>
+ * @author Sam Hooper
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+	/** The number of terms in the {@code pathological} input. */
+	private static final int PATHOLOGICAL_TERMS = 400;
+	/** The {@code pathological} input opens a new level of parentheses every this many terms. */
+	private static final int PATHOLOGICAL_NESTING_PERIOD = 8;
+
+	private static final Map<String, String> INPUTS = Map.of(
+		"product", "37 * 48",
+		"pemdas", "12 + 7 * 3 - 40 / 8 + 6",
+		"nestedAbs", "|3 - |4 - |5 - |6 - 9|||| + |-2| * |1 - 8|",
+		"factorial", "12! / (3! * 4!) + 5!",
+		"power", "(2^10) * (3^4) - (7^3) / (5^2)",
+		"functions", "sqrt(144) + root(3, 125) * log(2, 1024) - mod(-17, 5)",
+		"pathological", pathological()
+	);
+
+	@Param({"product", "pemdas", "nestedAbs", "factorial", "power", "functions", "pathological"})
+	public String input;
+
+	private String expression, normalized;
+	private Expression tree;
+
+	/**
+	 * Returns a long expression with {@link #PATHOLOGICAL_TERMS} terms, mixing every binary operator with decimals and deeply nested parentheses.
+	 */
+	private static String pathological() {
+		final StringBuilder sb = new StringBuilder();
+		final char[] operators = {'+', '-', '*', '/'};
+		int open = 0;
+		for(int i = 0; i < PATHOLOGICAL_TERMS; i++) {
+			if(i > 0)
+				sb.append(' ').append(operators[i % operators.length]).append(' ');
+			if(i % PATHOLOGICAL_NESTING_PERIOD == 0) {
+				sb.append('(');
+				open++;
+			}
+			sb.append(i % 3 == 0 ? String.valueOf(i + 1) : (i + 1) + ".25");
+		}
+		sb.append(")".repeat(open));
+		return sb.toString();
+	}
+
+	@Setup
+	public void setup() {
+		expression = INPUTS.get(input);
+		normalized = Evaluator.normalize(expression);
+		tree = Evaluator.parse(normalized);
+	}
+
+	@Benchmark
+	public String normalize() {
+		return Evaluator.normalize(expression);
+	}
+
+	/* Expression and DoubleInterval are package-private, so the code generated by JMH could not name them as return types. */
+	
+	@Benchmark
+	public Object parse() {
+		return Evaluator.parse(normalized);
+	}
+
+	@Benchmark
+	public Complex eval() {
+		return tree.eval();
+	}
+
+	@Benchmark
+	public ExactValue evalExact() {
+		return tree.evalExact();
+	}
+
+	@Benchmark
+	public Object evalInterval() {
+		return tree.evalInterval();
+	}
+
+	/** Parses and evaluates the input from scratch, bypassing the {@link ExpressionCache}. */
+	@Benchmark
+	public Complex endToEndUncached() {
+		return Evaluator.parse(Evaluator.normalize(expression)).eval().round(Evaluator.DEFAULT_RESULT_CONTEXT);
+	}
+
+	/** Calls {@link Evaluator#evaluateAsComplex(String)}, which hits the {@link ExpressionCache} after the first call. */
+	@Benchmark
+	public Complex evaluateAsComplex() {
+		return Evaluator.evaluateAsComplex(expression);
+	}
+
+}
@@ -0,0 +1,107 @@
+package math;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * <p>Compares the binary GCD of {@link NumberTheory#gcd(int, int)} with the subtraction-based GCD that {@link Utils#gcd(int, int)} used to
+ * implement, and with {@link BigInteger#gcd(BigInteger)}, on {@link #PAIRS} pairs of operands drawn from one
+ * {@link #input} distribution at a time.</p>
+ *
+ * <p>The subtraction-based GCD takes time proportional to the quotient of its operands, so it is fast on the small, similar operands that the
+ * GCD and LCM problems use and very slow on skewed ones; the binary GCD takes time proportional to the number of bits either way.</p>
+ * @author Sam Hooper
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberTheoryBenchmark {
+
+	/** The number of pairs of operands in each distribution. Every benchmark method computes the GCD of all of them. */
+	private static final int PAIRS = 1024;
+	private static final long SEED = 0x5EED;
+
+	/**
+	 * <ul>
+	 * <li>{@code small}: both operands in {@code [1, 100]}, like the operands of the GCD and LCM problems.</li>
+	 * <li>{@code medium}: both operands in {@code [1, 100000]}.</li>
+	 * <li>{@code skewed}: one operand in {@code [1, 100]} and the other in {@code [100000, 1000000]}.</li>
+	 * </ul>
+	 */
+	@Param({"small", "medium", "skewed"})
+	public String input;
+
+	private int[] a, b;
+	private BigInteger[] bigA, bigB;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(SEED);
+		a = new int[PAIRS];
+		b = new int[PAIRS];
+		bigA = new BigInteger[PAIRS];
+		bigB = new BigInteger[PAIRS];
+		for(int i = 0; i < PAIRS; i++) {
+			switch(input) {
+				case "small": a[i] = 1 + random.nextInt(100); b[i] = 1 + random.nextInt(100); break;
+				case "medium": a[i] = 1 + random.nextInt(100000); b[i] = 1 + random.nextInt(100000); break;
+				case "skewed": a[i] = 1 + random.nextInt(100); b[i] = 100000 + random.nextInt(900001); break;
+				default: throw new IllegalArgumentException("Unknown input: " + input);
+			}
+			bigA[i] = BigInteger.valueOf(a[i]);
+			bigB[i] = BigInteger.valueOf(b[i]);
+		}
+	}
+
+	/** The implementation of {@link Utils#gcd(int, int)} before it was routed through {@link NumberTheory}. */
+	private static int subtractionGcd(int a, int b) {
+		while(a != b) {
+			if(a > b)
+				a = a - b;
+			else
+				b = b - a;
+		}
+		return a;
+	}
+
+	@Benchmark
+	public int subtraction() {
+		int sum = 0;
+		for(int i = 0; i < PAIRS; i++)
+			sum += subtractionGcd(a[i], b[i]);
+		return sum;
+	}
+
+	@Benchmark
+	public int binary() {
+		int sum = 0;
+		for(int i = 0; i < PAIRS; i++)
+			sum += NumberTheory.gcd(a[i], b[i]);
+		return sum;
+	}
+
+	@Benchmark
+	public int bigInteger() {
+		int sum = 0;
+		for(int i = 0; i < PAIRS; i++)
+			sum += NumberTheory.gcd(bigA[i], bigB[i]).intValue();
+		return sum;
+	}
+
+	/** Builds the reduced {@link BigFraction} {@code a/b}, which is dominated by the GCD in its constructor when it misses the cache. */
+	@Benchmark
+	public int fraction() {
+		int sum = 0;
+		for(int i = 0; i < PAIRS; i++)
+			sum += BigFraction.of(a[i], b[i]).getDenominator().intValue();
+		return sum;
+	}
+
+}
@@ -0,0 +1,67 @@
+package math;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import math.Evaluator.Expression;
+
+/**
+ * <p>Compares evaluating an integer expression modulo {@link #MODULUS} with {@link Modular} arithmetic, as
+ * {@link Evaluator#evaluateRemainder(String, long)} does, with evaluating it exactly and then taking the remainder, on one {@link #input} at a
+ * time.</p>
+ *
+ * <p>Every input has compound exponents or factorial operands, which must stay single integers in a {@link DoubleInterval} for the modular
+ * path to work. {@link #setup()} checks that each input is evaluated modulo {@link #MODULUS} without falling back to exact evaluation, and that
+ * the result agrees with the exact remainder, so a run stops before measuring anything if that breaks.</p>
+ * @author Sam Hooper
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemainderBenchmark {
+
+	private static final long MODULUS = 1_000_000_007;
+
+	private static final Map<String, String> INPUTS = Map.of(
+		"sumExponent", "2^(1+2) + 7^(10-3)",
+		"productExponent", "2^(2*3) - 3^(2^(1+1))",
+		"quotientExponent", "(2^(6/2)) * -(2^(1+2))",
+		"factorialOperand", "(1+2)! + (2*3)! * (10-3)!",
+		"largePower", "123456789^(500+500) + 98765^(4*321)"
+	);
+
+	@Param({"sumExponent", "productExponent", "quotientExponent", "factorialOperand", "largePower"})
+	public String input;
+
+	private Expression tree;
+
+	/**
+	 * Parses the input and checks that {@link Expression#evalModulo(long)} agrees with the exact remainder.
+	 * @throws ArithmeticException if the input cannot be evaluated modulo {@link #MODULUS}.
+	 * @throws IllegalStateException if the two results disagree.
+	 */
+	@Setup
+	public void setup() {
+		tree = Evaluator.parse(Evaluator.normalize(INPUTS.get(input)));
+		final long residue = tree.evalModulo(MODULUS), expected = Math.floorMod(exactRemainder().longValueExact(), MODULUS);
+		if(residue != expected)
+			throw new IllegalStateException(String.format("%s mod %d was %d, expected %d", INPUTS.get(input), MODULUS, residue, expected));
+	}
+
+	@Benchmark
+	public long evalModulo() {
+		return tree.evalModulo(MODULUS);
+	}
+
+	@Benchmark
+	public ExactValue exactRemainder() {
+		return tree.evalExact().remainder(MODULUS);
+	}
+
+}
@@ -0,0 +1,224 @@
+package processor;
+
+import java.io.*;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import javax.tools.*;
+
+/**
+ * <p>Generates {@code suppliers.GeneratedSupplierIndex}, the {@code suppliers.SupplierIndex} of MathUIL, from the classes marked with
+ * {@code suppliers.Indexed}. Every public, concrete, top-level {@code ProblemSupplier} with a public no-arg constructor in a subpackage of
+ * {@code suppliers} is indexed with its display name and category, and every {@code ProblemSupplierHost} is indexed with its category.</p>
+ *
+ * <p>An incremental build may only compile some of the suppliers, so the qualified names of the indexed classes are also written to the class
+ * output as {@value #LISTING}. The classes listed by the previous build that are not being compiled are indexed again from their class files,
+ * unless they no longer exist or no longer qualify.</p>
+ *
+ * <p>The category is the {@code Category} constant named after the last segment of the package, so {@code suppliers.gcd} is {@code GCD}. The
+ * display name is the value of the class's {@code DisplayName} annotation, or else is derived from the class name exactly as
+ * {@code ProblemSupplier.getNameFromClass} derives it. A supplier that overrides {@code getName()} instead of declaring a {@code DisplayName},
+ * a package with no matching category, and two suppliers with the same display name are compile errors.</p>
+ *
+ * <p>This processor does not depend on MathUIL: it refers to MathUIL's types by name.</p>
+ * @author Sam Hooper
+ *
+ */
+@SupportedAnnotationTypes({SupplierIndexProcessor.INDEXED, SupplierIndexProcessor.DISPLAY_NAME})
+public final class SupplierIndexProcessor extends AbstractProcessor {
+	
+	static final String INDEXED = "suppliers.Indexed", DISPLAY_NAME = "suppliers.DisplayName";
+	/** The resource in the class output that lists the qualified name of every indexed class, one per line. */
+	static final String LISTING = "META-INF/suppliers.GeneratedSupplierIndex";
+	private static final String PACKAGE = "suppliers", INDEX_NAME = "GeneratedSupplierIndex";
+	private static final String PROBLEM_SUPPLIER = "suppliers.ProblemSupplier", HOST = "suppliers.ProblemSupplierHost";
+	private static final String CATEGORY = "suppliers.Category";
+	/** The same pattern as {@code ProblemSupplier.SPACE_LOCATIONS_IN_SUPPLIER_CLASSNAME}. */
+	private static final Pattern SPACE_LOCATIONS_IN_SUPPLIER_CLASSNAME = Pattern.compile("(?<![A-Z])(?=[A-Z])|(?<!\\d)(?=\\d)");
+	
+	/** Maps each display name to the line of the generated index that registers it, sorted so that the output is deterministic. */
+	private final SortedMap<String, String> supplierLines = new TreeMap<>();
+	/** Maps each host's qualified name to the line that registers it. */
+	private final SortedMap<String, String> hostLines = new TreeMap<>();
+	private final Map<String, String> classByDisplayName = new HashMap<>();
+	/** The qualified names of the classes that have been considered for the index, whether or not they were indexed. */
+	private final Set<String> considered = new HashSet<>();
+	/** The qualified names of the indexed classes. */
+	private final SortedSet<String> indexed = new TreeSet<>();
+	private boolean generated;
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	/** Claims {@code Indexed} and {@code DisplayName}, which no other processor uses. */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if(generated || roundEnv.processingOver())
+			return true;
+		final Elements elements = processingEnv.getElementUtils();
+		final TypeElement supplierType = elements.getTypeElement(PROBLEM_SUPPLIER), hostType = elements.getTypeElement(HOST);
+		final TypeElement categoryType = elements.getTypeElement(CATEGORY), indexedType = elements.getTypeElement(INDEXED);
+		if(supplierType == null || hostType == null || categoryType == null || indexedType == null)
+			return false; //Not compiling MathUIL.
+		final Set<String> categories = new HashSet<>();
+		for(Element e : categoryType.getEnclosedElements())
+			if(e.getKind() == ElementKind.ENUM_CONSTANT)
+				categories.add(e.getSimpleName().toString());
+		for(Element e : roundEnv.getElementsAnnotatedWith(indexedType))
+			if(e.getKind() == ElementKind.CLASS)
+				index((TypeElement) e, supplierType, hostType, categories);
+		for(String className : previousListing()) {
+			if(considered.contains(className))
+				continue;
+			final TypeElement type = elements.getTypeElement(className);
+			if(type != null && isIndexed(type, indexedType))
+				index(type, supplierType, hostType, categories);
+		}
+		generate();
+		return true;
+	}
+	
+	/** Returns {@code true} if the given class is marked with {@code Indexed}, directly or by inheritance. */
+	private boolean isIndexed(final TypeElement type, final TypeElement indexedType) {
+		for(AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(type))
+			if(mirror.getAnnotationType().asElement().equals(indexedType))
+				return true;
+		return false;
+	}
+	
+	/** Returns the class names in the {@value #LISTING} written by the previous build, or an empty list if there is none. */
+	private List<String> previousListing() {
+		final List<String> names = new ArrayList<>();
+		try {
+			final FileObject listing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", LISTING);
+			try(BufferedReader in = new BufferedReader(listing.openReader(true))) {
+				for(String line = in.readLine(); line != null; line = in.readLine())
+					if(!line.isBlank())
+						names.add(line.strip());
+			}
+		}
+		catch(IOException | IllegalArgumentException ex) {
+			//There was no previous build, or its listing cannot be read; the classes being compiled are all there is to index.
+		}
+		return names;
+	}
+	
+	private void index(final TypeElement type, final TypeElement supplierType, final TypeElement hostType, final Set<String> categories) {
+		final Types types = processingEnv.getTypeUtils();
+		if(!considered.add(type.getQualifiedName().toString()))
+			return;
+		final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		if(!packageName.startsWith(PACKAGE + ".") || type.getNestingKind() != NestingKind.TOP_LEVEL)
+			return;
+		final Set<Modifier> modifiers = type.getModifiers();
+		if(!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT))
+			return;
+		final boolean isSupplier = types.isAssignable(types.erasure(type.asType()), types.erasure(supplierType.asType()));
+		final boolean isHost = !isSupplier && types.isAssignable(types.erasure(type.asType()), types.erasure(hostType.asType()));
+		if(!isSupplier && !isHost)
+			return;
+		final String category = packageName.substring(packageName.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+		if(!categories.contains(category)) {
+			error(type, "There is no Category named %s for the package %s", category, packageName);
+			return;
+		}
+		final String className = type.getQualifiedName().toString();
+		if(isHost) {
+			hostLines.put(className, String.format("\t\tregistrar.host(Category.%s, %s::getFactories);", category, className));
+			indexed.add(className);
+			return;
+		}
+		if(!hasPublicNoArgConstructor(type))
+			return;
+		final String displayName = displayName(type);
+		if(displayName == null)
+			return;
+		final String previous = classByDisplayName.putIfAbsent(displayName, className);
+		if(previous != null) {
+			error(type, "%s has the same display name as %s: \"%s\"", className, previous, displayName);
+			return;
+		}
+		supplierLines.put(displayName, String.format("\t\tregistrar.supplier(\"%s\", Category.%s, %s::new);", escape(displayName), category,
+				className));
+		indexed.add(className);
+	}
+	
+	private static boolean hasPublicNoArgConstructor(final TypeElement type) {
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+			if(constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+				return true;
+		return false;
+	}
+	
+	/** Returns the display name of the given supplier, or {@code null} (after reporting an error) if it overrides {@code getName()}. */
+	private String displayName(final TypeElement type) {
+		for(TypeElement t = type; t != null && !t.getQualifiedName().contentEquals(Object.class.getName()); t = superclass(t)) {
+			for(ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+				if(method.getSimpleName().contentEquals("getName") && method.getParameters().isEmpty()) {
+					error(type, "%s overrides getName(); declare its name with @DisplayName instead", type.getQualifiedName());
+					return null;
+				}
+			}
+		}
+		for(AnnotationMirror mirror : type.getAnnotationMirrors()) {
+			if(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(DISPLAY_NAME)) {
+				for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet())
+					if(entry.getKey().getSimpleName().contentEquals("value"))
+						return (String) entry.getValue().getValue();
+			}
+		}
+		final String simpleName = type.getSimpleName().toString();
+		final int suffix = simpleName.lastIndexOf("Supplier");
+		final String usedPortion = suffix < 0 ? simpleName : simpleName.substring(0, suffix);
+		return SPACE_LOCATIONS_IN_SUPPLIER_CLASSNAME.matcher(usedPortion).replaceAll(" ");
+	}
+	
+	private TypeElement superclass(final TypeElement type) {
+		final TypeMirror superclass = type.getSuperclass();
+		return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+	}
+	
+	private static String escape(final String s) {
+		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+	
+	private void error(final Element element, final String format, final Object... args) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+	}
+	
+	private void generate() {
+		generated = true;
+		try(Writer out = processingEnv.getFiler().createSourceFile(PACKAGE + "." + INDEX_NAME).openWriter()) {
+			final PrintWriter w = new PrintWriter(out);
+			w.printf("package %s;%n%n", PACKAGE);
+			w.printf("/** Generated by %s. Do not edit. */%n", SupplierIndexProcessor.class.getName());
+			w.printf("final class %s implements SupplierIndex {%n%n", INDEX_NAME);
+			w.printf("\t@Override%n");
+			w.printf("\tpublic void registerAll(final SupplierIndex.Registrar registrar) {%n");
+			for(String line : supplierLines.values())
+				w.println(line);
+			for(String line : hostLines.values())
+				w.println(line);
+			w.printf("\t}%n%n}%n");
+			w.flush();
+		}
+		catch(IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the supplier index: " + ex);
+		}
+		try(Writer out = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", LISTING).openWriter()) {
+			for(String className : indexed)
+				out.write(className + System.lineSeparator());
+		}
+		catch(IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the supplier listing: " + ex);
+		}
+	}
+	
+}